@@ -0,0 +1,148 @@
+package com.notryken.chatnotify.config;
+
+import com.notryken.chatnotify.processor.Fixtures;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Measures the heap retained by a loaded config, by notification count and
+ * triggers per notification.
+ * <p>
+ * The retained size is the heap used after GC while the config built by
+ * {@code ConfigScaleBenchmark.footprint} is held, less that before it was
+ * built. The median of several measurements is printed, with the bytes
+ * allocated while building as a secondary metric; allocation is only an upper
+ * bound of the retained size, as it includes the garbage of validation and
+ * pattern compilation.
+ * <p>
+ * The task runs with the serial collector and no dead space left uncompacted
+ * by a full GC, so that the heap used after GC counts only reachable objects.
+ * <p>
+ * Run with {@code ./gradlew :benchmark:footprint -Pargs="[options]"}.
+ */
+public class ConfigFootprint {
+    private static final String USAGE = """
+            Usage: ConfigFootprint [options]
+            Options:
+              --sizes <list>     comma-separated notification counts, default 10,100,1000,10000
+              --triggers <list>  comma-separated triggers per notification, default 1,10
+              --mix <mix>        the trigger mix, default MIXED
+              --runs <n>         the number of measurements of each size, default 5
+              --csv              print comma-separated values instead of a table""";
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) {
+        int[] sizes = {10, 100, 1000, 10000};
+        int[] triggers = {1, 10};
+        Fixtures.TriggerMix mix = Fixtures.TriggerMix.MIXED;
+        int runs = 5;
+        boolean csv = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--sizes" -> sizes = parseList(args[++i]);
+                    case "--triggers" -> triggers = parseList(args[++i]);
+                    case "--mix" -> mix = Fixtures.TriggerMix.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--runs" -> runs = Integer.parseInt(args[++i]);
+                    case "--csv" -> csv = true;
+                    default -> throw new IllegalArgumentException();
+                }
+            }
+            if (runs < 1) throw new IllegalArgumentException();
+        } catch (RuntimeException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        // Bootstraps the game and loads the classes used, which are retained
+        // for the life of the JVM, so are not counted
+        Reference.reachabilityFence(ConfigScaleBenchmark.buildCompiled(10, 1, mix));
+
+        if (csv) {
+            System.out.println("notifCount,triggersPerNotif,retained,retainedPerTrigger,allocated");
+        }
+        else {
+            System.out.printf(Locale.ROOT, "%10s %10s %14s %12s %14s%n",
+                    "notifs", "triggers", "retained B", "B/trigger", "allocated B");
+        }
+        for (int triggersPerNotif : triggers) {
+            for (int notifCount : sizes) {
+                long[] retained = new long[runs];
+                long[] allocated = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    long[] measured = measure(notifCount, triggersPerNotif, mix);
+                    retained[run] = measured[0];
+                    allocated[run] = measured[1];
+                }
+                long retainedMedian = median(retained);
+                long totalTriggers = (long)(notifCount + 1) * triggersPerNotif;
+                if (csv) {
+                    System.out.printf(Locale.ROOT, "%d,%d,%d,%d,%d%n", notifCount, triggersPerNotif,
+                            retainedMedian, retainedMedian / totalTriggers, median(allocated));
+                }
+                else {
+                    System.out.printf(Locale.ROOT, "%10d %10d %14d %12d %14d%n", notifCount, triggersPerNotif,
+                            retainedMedian, retainedMedian / totalTriggers, median(allocated));
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a config, in a frame of its own so that no reference to it
+     * remains when the next is measured.
+     * @return the bytes retained by the config, and the bytes allocated while
+     * building it.
+     */
+    private static long[] measure(int notifCount, int triggersPerNotif, Fixtures.TriggerMix mix) {
+        long released = usedAfterGc();
+        long allocatedBefore = allocatedBytes();
+        Config config = ConfigScaleBenchmark.buildCompiled(notifCount, triggersPerNotif, mix);
+        long allocated = allocatedBytes() - allocatedBefore;
+        long held = usedAfterGc();
+        Reference.reachabilityFence(config);
+        return new long[]{held - released, allocated};
+    }
+
+    /**
+     * @return the heap used after collecting garbage until the heap stops
+     * shrinking, as a single {@code System.gc()} may not collect everything
+     * unreachable.
+     */
+    private static long usedAfterGc() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 8; i++) {
+            System.gc();
+            long next = MEMORY.getHeapMemoryUsage().getUsed();
+            if (next >= used) break;
+            used = next;
+        }
+        return used;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread, or {@code 0} if not
+     * supported by the JVM.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static int[] parseList(String list) {
+        return Arrays.stream(list.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+}
@@ -0,0 +1,154 @@
+package com.notryken.chatnotify.config;
+
+import com.notryken.chatnotify.ChatNotify;
+import com.notryken.chatnotify.core.match.TextSearch;
+import com.notryken.chatnotify.processor.Fixtures;
+import com.notryken.chatnotify.processor.MessageProcessor;
+import net.minecraft.network.chat.Component;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Scaling of the config and message processing with the number of
+ * notifications, from 10 up to 10,000 notifications with up to 100,000
+ * triggers.
+ * <p>
+ * Each benchmark is one subsystem: loading, validating and saving the config,
+ * compiling the trigger patterns, processing a message, and building the full
+ * config. The allocation per operation of {@code footprint}, as reported by
+ * the GC profiler, includes the garbage of building the config; the heap
+ * retained by the config is measured by {@link ConfigFootprint}.
+ * <p>
+ * Run with {@code ./gradlew :benchmark:jmh -PjmhIncludes=ConfigScale}, then
+ * {@code ./gradlew :benchmark:curves} to print the results as curves by
+ * config size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4G", "-Xmx4G"})
+public class ConfigScaleBenchmark {
+    private static final int MESSAGES = 256;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int notifCount;
+
+    @Param({"1", "10"})
+    public int triggersPerNotif;
+
+    @Param({"MIXED"})
+    public Fixtures.TriggerMix triggerMix;
+
+    private Path dir;
+    private String fileName;
+    private Config config;
+    private Component[] messages;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        // Loading and saving log each call at INFO
+        Configurator.setLevel(ChatNotify.MOD_NAME, org.apache.logging.log4j.Level.WARN);
+
+        config = Fixtures.createConfig(notifCount, triggersPerNotif, triggerMix);
+        ChatNotify.setConfig(config);
+        messages = Fixtures.createMessages(Fixtures.MessageShape.PLAIN, MESSAGES, notifCount, 42);
+        next = 0;
+
+        // An absolute name resolves outside the config directory, and sets
+        // the path written by writeToFile()
+        dir = Files.createTempDirectory("chatnotify-scale");
+        fileName = dir.resolve(Config.DEFAULT_FILE_NAME).toString();
+        Config.load(fileName, Config.CONFIG_GSON);
+        config.writeToFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Config load() {
+        return Config.load(fileName, Config.CONFIG_GSON);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Config validate() {
+        config.validate();
+        return config;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Config writeToFile() {
+        config.writeToFile();
+        return config;
+    }
+
+    /**
+     * Compiles the pattern of every enabled non-key trigger, as done lazily
+     * by {@code Trigger.getPattern()} when each is first matched.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void compilePatterns(Blackhole blackhole) {
+        for (Notification notif : config.getNotifs()) {
+            for (Trigger trigger : notif.triggers) {
+                if (!trigger.isEnabled() || trigger.isKey()) continue;
+                blackhole.consume(trigger.isRegex() && notif.isRegexAllowed()
+                        ? Pattern.compile(trigger.string)
+                        : TextSearch.compileLiteral(trigger.string));
+            }
+        }
+    }
+
+    @Benchmark
+    public Component processMessage() {
+        next = (next + 1) & (MESSAGES - 1);
+        return MessageProcessor.processMessage(messages[next]);
+    }
+
+    /**
+     * Builds, validates and compiles a config as held after loading.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public Config footprint() {
+        return buildCompiled(notifCount, triggersPerNotif, triggerMix);
+    }
+
+    /**
+     * @return a validated config as created by {@code Fixtures}, with the
+     * pattern of every non-key trigger compiled.
+     */
+    static Config buildCompiled(int notifCount, int triggersPerNotif, Fixtures.TriggerMix mix) {
+        Config built = Fixtures.createConfig(notifCount, triggersPerNotif, mix);
+        for (Notification notif : built.getNotifs()) {
+            for (Trigger trigger : notif.triggers) {
+                if (!trigger.isKey()) trigger.getPattern(trigger.isRegex() && notif.isRegexAllowed());
+            }
+        }
+        return built;
+    }
+}
@@ -0,0 +1,194 @@
+package com.notryken.chatnotify.processor;
+
+import com.notryken.chatnotify.ChatNotify;
+import com.notryken.chatnotify.config.Config;
+import com.notryken.chatnotify.config.Notification;
+import com.notryken.chatnotify.config.Trigger;
+import com.notryken.chatnotify.tool.ChatCorpus;
+import net.minecraft.ChatFormatting;
+import net.minecraft.SharedConstants;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.Bootstrap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shared setup of the benchmarks: a config of a given size and trigger mix,
+ * and a reproducible set of messages of a given shape.
+ */
+public class Fixtures {
+    public static final String USER_NAME = "Steve";
+
+    private static final String[] WORDS = {
+            "the", "a", "anyone", "selling", "diamonds", "at", "spawn", "lol", "gg",
+            "is", "server", "lagging", "for", "you", "too", "wanna", "trade", "iron",
+            "where", "base", "come", "here", "thanks", "ok", "no", "yes", "afk",
+    };
+    private static final String[] PLAYERS = {
+            "Alex", "Notch", "jeb_", "Dinnerbone", "xXSlayerXx", "builder42",
+    };
+    private static final String[] CODES = {"\u00a7a", "\u00a7l", "\u00a7c\u00a7o", "\u00a7r", "\u00a76"};
+
+    public enum TriggerMix {
+        // Literal triggers only
+        LITERAL,
+        // Half literal, a quarter key and a quarter regex triggers
+        MIXED,
+        // Regex triggers only
+        REGEX
+    }
+
+    public enum MessageShape {
+        // A single literal Component
+        PLAIN,
+        // A single literal Component with legacy format codes
+        FORMATTED,
+        // A chat.type.text translation with Component args
+        TRANSLATABLE,
+        // A literal prefix with styled siblings and a nested translation
+        NESTED,
+        // A survival server ChatCorpus, mentioning the literal triggers
+        CORPUS
+    }
+
+    private static boolean bootstrapped = false;
+
+    /**
+     * Initializes the game registries, which must be done once before any
+     * game class is used.
+     */
+    public static synchronized void bootstrap() {
+        if (!bootstrapped) {
+            SharedConstants.tryDetectVersion();
+            Bootstrap.bootStrap();
+            bootstrapped = true;
+        }
+    }
+
+    /**
+     * Creates and installs a config with the username notification and
+     * {@code notifCount} other notifications, each with a single trigger
+     * {@code "w<index>"} of a type given by {@code mix}.
+     * <p>
+     * Sounds and the decision cache are disabled, and the processing budget
+     * is unlimited, so that every message is fully matched without side
+     * effects.
+     */
+    public static Config installConfig(int notifCount, TriggerMix mix) {
+        Config config = createConfig(notifCount, 1, mix);
+        ChatNotify.setConfig(config);
+        return config;
+    }
+
+    /**
+     * Creates a validated config as for {@link #installConfig}, with
+     * {@code triggersPerNotif} triggers per notification. The first trigger
+     * of each notification is {@code "w<index>"}, and the others
+     * {@code "w<index>x<n>"}, all of the same type.
+     */
+    public static Config createConfig(int notifCount, int triggersPerNotif, TriggerMix mix) {
+        bootstrap();
+        Config config = new Config();
+        config.setProfileName(USER_NAME);
+        config.setDisplayName(USER_NAME);
+        config.decisionCacheSize = 0;
+        config.processingBudget = 0;
+        config.getUserNotification().sound.setEnabled(false);
+
+        for (int i = 1; i <= notifCount; i++) {
+            config.addNotif();
+            Notification notif = config.getNotifs().get(i);
+            notif.sound.setEnabled(false);
+            for (int j = 1; j < triggersPerNotif; j++) {
+                notif.triggers.add(new Trigger());
+            }
+            int type = mix == TriggerMix.MIXED ? i % 4 : mix == TriggerMix.REGEX ? 3 : 0;
+            for (int j = 0; j < triggersPerNotif; j++) {
+                Trigger trigger = notif.triggers.get(j);
+                String word = j == 0 ? "w" + i : "w" + i + "x" + j;
+                switch (type) {
+                    case 2 -> {
+                        trigger.string = "commands." + word;
+                        trigger.setIsKey(true);
+                    }
+                    case 3 -> {
+                        trigger.string = "\\b" + word + "\\b.*\\d+";
+                        trigger.isRegex = true;
+                        notif.allowRegex = true;
+                    }
+                    default -> trigger.string = word;
+                }
+            }
+        }
+        config.validate();
+        return config;
+    }
+
+    /**
+     * Creates {@code count} messages of the specified shape, of 4 to 15
+     * words. Each word is the name of the user with probability 1/32, and a
+     * literal trigger of a notification in {@code [1,notifCount]} with
+     * probability 1/16.
+     * <p>
+     * {@code CORPUS} messages are instead created by a {@code ChatCorpus}
+     * with the {@code SURVIVAL} style.
+     * @param seed the random seed.
+     */
+    public static Component[] createMessages(MessageShape shape, int count, int notifCount,
+                                             long seed) {
+        if (shape == MessageShape.CORPUS) {
+            List<String> keywords = new ArrayList<>();
+            for (int i = 1; i <= notifCount; i++) {
+                keywords.add("w" + i);
+            }
+            return new ChatCorpus(ChatCorpus.ServerStyle.SURVIVAL, USER_NAME, keywords, seed)
+                    .generate(count).toArray(new Component[0]);
+        }
+        Random random = new Random(seed);
+        Component[] messages = new Component[count];
+        for (int i = 0; i < count; i++) {
+            String player = PLAYERS[random.nextInt(PLAYERS.length)];
+            String body = createBody(random, shape == MessageShape.FORMATTED, notifCount);
+            messages[i] = switch (shape) {
+                case PLAIN, FORMATTED -> Component.literal("<" + player + "> " + body);
+                case TRANSLATABLE -> Component.translatable("chat.type.text",
+                        Component.literal(player), Component.literal(body));
+                case NESTED -> Component.literal("[")
+                        .append(Component.literal("Server").withStyle(ChatFormatting.GOLD))
+                        .append("] ")
+                        .append(Component.translatable("chat.type.text",
+                                Component.literal(player).withStyle(ChatFormatting.AQUA),
+                                Component.literal(body)));
+                case CORPUS -> throw new IllegalStateException();
+            };
+        }
+        return messages;
+    }
+
+    private static String createBody(Random random, boolean formatted, int notifCount) {
+        StringBuilder builder = new StringBuilder();
+        int length = 4 + random.nextInt(12);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) builder.append(' ');
+            if (formatted && random.nextInt(3) == 0) {
+                builder.append(CODES[random.nextInt(CODES.length)]);
+            }
+            int roll = random.nextInt(32);
+            if (roll == 0) {
+                builder.append(USER_NAME);
+            }
+            else if (roll < 3 && notifCount > 0) {
+                builder.append('w').append(1 + random.nextInt(notifCount));
+            }
+            else if (roll == 3) {
+                builder.append(random.nextInt(1000));
+            }
+            else {
+                builder.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+        }
+        return builder.toString();
+    }
+}
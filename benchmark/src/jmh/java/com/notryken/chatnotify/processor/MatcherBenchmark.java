@@ -0,0 +1,70 @@
+package com.notryken.chatnotify.processor;
+
+import com.notryken.chatnotify.ChatNotify;
+import com.notryken.chatnotify.config.Notification;
+import com.notryken.chatnotify.config.TextStyle;
+import com.notryken.chatnotify.config.Trigger;
+import com.notryken.chatnotify.core.match.SpanList;
+import com.notryken.chatnotify.core.match.TextSearch;
+import net.minecraft.network.chat.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of restyling a message with the highlights found when matching.
+ * <p>
+ * The searches of matching, which do not depend on the game, are benchmarked
+ * by {@code TextSearchBenchmark} in the core project.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatcherBenchmark {
+    private static final int MESSAGES = 256;
+    private static final int NOTIFS = 10;
+
+    @Param({"PLAIN", "FORMATTED", "TRANSLATABLE", "NESTED"})
+    public Fixtures.MessageShape messageShape;
+
+    private Component[] messages;
+    // The highlights of each message, as found when matching
+    private SpanList<TextStyle>[] highlights;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Fixtures.installConfig(NOTIFS, Fixtures.TriggerMix.LITERAL);
+        messages = Fixtures.createMessages(messageShape, MESSAGES, NOTIFS, 42);
+        highlights = newSpanLists(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            String msgStr = messages[i].getString();
+            highlights[i] = new SpanList<>();
+            for (Notification notif : ChatNotify.config().getNotifs()) {
+                Trigger trigger = notif.triggers.get(0);
+                TextSearch.findSpans(msgStr, trigger.getPattern(false), trigger.string.length(),
+                        notif.textStyle, highlights[i]);
+            }
+        }
+        next = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SpanList<TextStyle>[] newSpanLists(int length) {
+        return (SpanList<TextStyle>[])new SpanList<?>[length];
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (MESSAGES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public Component restyleComponent() {
+        int index = nextIndex();
+        return MessageProcessor.complexRestyle(messages[index], highlights[index]);
+    }
+}
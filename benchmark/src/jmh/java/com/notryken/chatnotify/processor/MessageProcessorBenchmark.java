@@ -0,0 +1,45 @@
+package com.notryken.chatnotify.processor;
+
+import net.minecraft.network.chat.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of {@code MessageProcessor.processMessage()}, by config
+ * size, trigger mix and message shape.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageProcessorBenchmark {
+    private static final int MESSAGES = 256;
+
+    @Param({"1", "10", "100", "1000"})
+    public int notifCount;
+
+    @Param({"LITERAL", "MIXED", "REGEX"})
+    public Fixtures.TriggerMix triggerMix;
+
+    @Param({"PLAIN", "FORMATTED", "TRANSLATABLE", "NESTED", "CORPUS"})
+    public Fixtures.MessageShape messageShape;
+
+    private Component[] messages;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Fixtures.installConfig(notifCount, triggerMix);
+        messages = Fixtures.createMessages(messageShape, MESSAGES, notifCount, 42);
+        next = 0;
+    }
+
+    @Benchmark
+    public Component processMessage() {
+        next = (next + 1) & (MESSAGES - 1);
+        return MessageProcessor.processMessage(messages[next]);
+    }
+}
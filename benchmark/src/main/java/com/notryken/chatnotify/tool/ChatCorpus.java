@@ -0,0 +1,359 @@
+package com.notryken.chatnotify.tool;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.SharedConstants;
+import net.minecraft.network.chat.ClickEvent;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.HoverEvent;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.Style;
+import net.minecraft.server.Bootstrap;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Seeded generator of synthetic chat, for load testing.
+ * <p>
+ * Messages are built as the game and common server plugins build them:
+ * {@code chat.type.text} translations with styled sender names, rank
+ * prefixes as sibling chains, plugin messages split into differently styled
+ * siblings, system translations with arguments, and legacy format codes.
+ * Bodies may include unicode such as accented and CJK characters, emoji and
+ * combining marks, and some are very long.
+ * <p>
+ * The mix of shapes, the rate of mentions of the user and of other
+ * keywords, and the rate of repeated messages are set by a
+ * {@code ServerStyle}. The same seed, style, user name and keywords always
+ * produce the same messages.
+ * <p>
+ * Run with {@code ./gradlew :benchmark:corpus -Pargs="<output> [options]"}
+ * to write a JSON chat dump that can be replayed with {@code ChatReplay}.
+ */
+public class ChatCorpus {
+    private static final String USAGE = """
+            Usage: ChatCorpus <output> [options]
+              <output>          the JSON chat dump file to write
+            Options:
+              --count <n>       the number of messages, default 10000
+              --style <style>   survival, minigame, roleplay or anarchy, default survival
+              --seed <n>        the random seed, default 42
+              --user <name>     the name of the user, default Steve
+              --keyword <word>  a further word to mention, may be repeated""";
+
+    private static final String[] WORDS = {
+            "the", "a", "anyone", "selling", "diamonds", "at", "spawn", "lol", "gg", "is",
+            "server", "lagging", "for", "you", "too", "wanna", "trade", "iron", "where",
+            "base", "come", "here", "thanks", "ok", "no", "yes", "afk", "brb", "shop",
+            "netherite", "elytra", "village", "farm", "build", "town", "claim", "vote",
+            "event", "pvp", "team", "win", "lost", "nice", "bruh", "help", "tp", "home",
+    };
+    private static final String[] UNICODE_WORDS = {
+            "caf\u00e9", "na\u00efve", "Zo\u00eb", "\u00fcber", "se\u00f1or",
+            "\u0441\u043f\u0430\u0441\u0438\u0431\u043e",
+            "\u3053\u3093\u306b\u3061\u306f", "\u8c22\u8c22", "\uc548\ub155",
+            "\ud83d\ude00", "\ud83d\udd25", "\u2764\ufe0f", "\ud83c\udf89",
+            "z\u0351\u0352a\u0353\u0354l\u0355g\u0356o\u0357",
+    };
+    private static final String[] NAME_PARTS = {
+            "Alex", "Notch", "jeb", "Dinner", "bone", "Slayer", "builder", "Craft", "Pixel",
+            "Shadow", "Ender", "Creeper", "Miner", "Frost", "Blaze", "Nova", "Wolf", "Zo\u00eb",
+            "\u30e6\u30ad", "\u03a9mega",
+    };
+    private static final String[] RANKS = {"Member", "VIP", "MVP+", "Mod", "Admin", "Builder"};
+    private static final ChatFormatting[] COLORS = {
+            ChatFormatting.GRAY, ChatFormatting.GREEN, ChatFormatting.AQUA, ChatFormatting.GOLD,
+            ChatFormatting.RED, ChatFormatting.LIGHT_PURPLE, ChatFormatting.YELLOW,
+    };
+    private static final String CODES = "0123456789abcdefklmnor";
+    private static final String[] SYSTEM_KEYS = {
+            "multiplayer.player.joined", "multiplayer.player.left", "death.attack.player",
+            "chat.type.advancement.task", "commands.message.display.incoming",
+    };
+    private static final int RECENT = 64;
+
+    /**
+     * The mix of messages of a kind of server.
+     */
+    public enum ServerStyle {
+        // Mostly vanilla chat with a few plugin messages
+        SURVIVAL(0.02, 0.03, 0.05, 0.05, 0.02, 0.02, 0.80, 0.15, 0.05),
+        // Ranked chat, colored broadcasts and frequently repeated announcements
+        MINIGAME(0.01, 0.02, 0.30, 0.40, 0.02, 0.01, 0.20, 0.70, 0.10),
+        // Long messages with frequent mentions
+        ROLEPLAY(0.08, 0.05, 0.02, 0.20, 0.05, 0.30, 0.50, 0.45, 0.05),
+        // Spam, unicode and formatting abuse
+        ANARCHY(0.03, 0.02, 0.40, 0.30, 0.20, 0.10, 0.60, 0.10, 0.30);
+
+        // Probability that a message mentions the user
+        public final double mentionRate;
+        // Probability that a word is a keyword
+        public final double keywordRate;
+        // Probability that a message repeats a recent one
+        public final double repeatRate;
+        // Probability that a word is preceded by format codes
+        public final double formatRate;
+        // Probability that a word is a unicode word
+        public final double unicodeRate;
+        // Probability that a message is long
+        public final double longRate;
+        // Relative weights of vanilla chat, ranked plugin chat and system
+        // messages
+        public final double vanillaRate;
+        public final double rankedRate;
+        public final double systemRate;
+
+        ServerStyle(double mentionRate, double keywordRate, double repeatRate, double formatRate,
+                    double unicodeRate, double longRate, double vanillaRate, double rankedRate,
+                    double systemRate) {
+            this.mentionRate = mentionRate;
+            this.keywordRate = keywordRate;
+            this.repeatRate = repeatRate;
+            this.formatRate = formatRate;
+            this.unicodeRate = unicodeRate;
+            this.longRate = longRate;
+            this.vanillaRate = vanillaRate;
+            this.rankedRate = rankedRate;
+            this.systemRate = systemRate;
+        }
+    }
+
+    private final ServerStyle style;
+    private final String userName;
+    private final List<String> keywords;
+    private final Random random;
+    private final String[] players;
+    private final List<Component> recent = new ArrayList<>(RECENT);
+    private int recentNext = 0;
+
+    /**
+     * @param style the mix of messages.
+     * @param userName the name of the user, as mentioned in messages.
+     * @param keywords further words to mention, such as the triggers of a
+     *                 config, may be empty.
+     * @param seed the random seed.
+     */
+    public ChatCorpus(ServerStyle style, String userName, List<String> keywords, long seed) {
+        this.style = style;
+        this.userName = userName;
+        this.keywords = List.copyOf(keywords);
+        this.random = new Random(seed);
+        this.players = new String[32];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = createName();
+        }
+    }
+
+    /**
+     * @return the next {@code count} messages.
+     */
+    public List<Component> generate(int count) {
+        List<Component> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(next());
+        }
+        return messages;
+    }
+
+    /**
+     * @return the next message, a new {@code Component} even if it repeats a
+     * recent message.
+     */
+    public Component next() {
+        if (!recent.isEmpty() && random.nextDouble() < style.repeatRate) {
+            return recent.get(random.nextInt(recent.size())).copy();
+        }
+        Component message;
+        double shape = random.nextDouble() * (style.vanillaRate + style.rankedRate + style.systemRate);
+        if (shape < style.vanillaRate) {
+            message = vanillaChat();
+        }
+        else if (shape < style.vanillaRate + style.rankedRate) {
+            message = rankedChat();
+        }
+        else {
+            message = systemMessage();
+        }
+        if (recent.size() < RECENT) {
+            recent.add(message);
+        }
+        else {
+            recent.set(recentNext, message);
+            recentNext = (recentNext + 1) % RECENT;
+        }
+        return message;
+    }
+
+    // Message shapes
+
+    /**
+     * A {@code chat.type.text} translation, as sent by the game.
+     */
+    private Component vanillaChat() {
+        String player = players[random.nextInt(players.length)];
+        return Component.translatable("chat.type.text", playerName(player, Style.EMPTY),
+                Component.literal(body()));
+    }
+
+    /**
+     * A plugin chat message: a rank prefix, a colored name and a body split
+     * into differently styled siblings, all as siblings of an empty root.
+     */
+    private Component rankedChat() {
+        String player = players[random.nextInt(players.length)];
+        ChatFormatting color = COLORS[random.nextInt(COLORS.length)];
+        MutableComponent message = Component.empty()
+                .append(Component.literal("[").withStyle(ChatFormatting.DARK_GRAY))
+                .append(Component.literal(RANKS[random.nextInt(RANKS.length)]).withStyle(color))
+                .append(Component.literal("] ").withStyle(ChatFormatting.DARK_GRAY))
+                .append(playerName(player, Style.EMPTY.withColor(color)))
+                .append(Component.literal(" \u00bb ").withStyle(ChatFormatting.DARK_GRAY));
+        String[] parts = body().split(" ");
+        int start = 0;
+        while (start < parts.length) {
+            int end = Math.min(parts.length, start + 1 + random.nextInt(6));
+            MutableComponent part = Component.literal(String.join(" ", List.of(parts).subList(start, end))
+                    + (end < parts.length ? " " : ""));
+            if (random.nextInt(3) == 0) part.withStyle(COLORS[random.nextInt(COLORS.length)]);
+            if (random.nextInt(8) == 0) part.withStyle(ChatFormatting.BOLD);
+            message.append(part);
+            start = end;
+        }
+        return message;
+    }
+
+    /**
+     * A system translation with {@code Component} arguments, such as a join,
+     * death, advancement or whisper message.
+     */
+    private Component systemMessage() {
+        String key = SYSTEM_KEYS[random.nextInt(SYSTEM_KEYS.length)];
+        Component player = playerName(players[random.nextInt(players.length)], Style.EMPTY);
+        return switch (key) {
+            case "multiplayer.player.joined", "multiplayer.player.left" ->
+                    Component.translatable(key, player).withStyle(ChatFormatting.YELLOW);
+            case "death.attack.player" -> Component.translatable(key, player,
+                    playerName(random.nextDouble() < style.mentionRate * 4
+                            ? userName : players[random.nextInt(players.length)], Style.EMPTY));
+            case "chat.type.advancement.task" -> Component.translatable(key, player,
+                    Component.literal("[" + WORDS[random.nextInt(WORDS.length)] + "]")
+                            .withStyle(ChatFormatting.GREEN));
+            default -> Component.translatable(key, player, Component.literal(body()))
+                    .withStyle(ChatFormatting.GRAY, ChatFormatting.ITALIC);
+        };
+    }
+
+    /**
+     * A sender name as formatted by the game, with a suggest-command click
+     * event and an entity hover event.
+     */
+    private Component playerName(String name, Style style) {
+        return Component.literal(name).setStyle(style
+                .withClickEvent(new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, "/tell " + name + " "))
+                .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Component.literal(name)))
+                .withInsertion(name));
+    }
+
+    // Text
+
+    /**
+     * A message body of 3 to 14 words, or 60 to 200 words if long, with
+     * keywords, unicode words and format codes at the rates of the style, and
+     * a mention of the user at the mention rate of the style.
+     */
+    private String body() {
+        int length = random.nextDouble() < style.longRate ? 60 + random.nextInt(141) : 3 + random.nextInt(12);
+        int mention = random.nextDouble() < style.mentionRate ? random.nextInt(length) : -1;
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) builder.append(' ');
+            if (random.nextDouble() < style.formatRate) {
+                int codes = 1 + random.nextInt(3);
+                for (int j = 0; j < codes; j++) {
+                    builder.append('\u00a7').append(CODES.charAt(random.nextInt(CODES.length())));
+                }
+            }
+            if (i == mention) {
+                builder.append(mention());
+            }
+            else if (!keywords.isEmpty() && random.nextDouble() < style.keywordRate) {
+                builder.append(keywords.get(random.nextInt(keywords.size())));
+            }
+            else if (random.nextDouble() < style.unicodeRate) {
+                builder.append(UNICODE_WORDS[random.nextInt(UNICODE_WORDS.length)]);
+            }
+            else {
+                builder.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+        }
+        if (random.nextInt(6) == 0) builder.append(random.nextBoolean() ? '?' : '!');
+        return builder.toString();
+    }
+
+    /**
+     * The name of the user as it might be typed: as is, in another case, or
+     * with an {@code @} prefix or trailing punctuation.
+     */
+    private String mention() {
+        return switch (random.nextInt(5)) {
+            case 0 -> userName.toLowerCase(Locale.ROOT);
+            case 1 -> userName.toUpperCase(Locale.ROOT);
+            case 2 -> "@" + userName;
+            case 3 -> userName + (random.nextBoolean() ? "," : ":");
+            default -> userName;
+        };
+    }
+
+    private String createName() {
+        String name = NAME_PARTS[random.nextInt(NAME_PARTS.length)];
+        if (random.nextBoolean()) name += NAME_PARTS[random.nextInt(NAME_PARTS.length)];
+        if (random.nextInt(3) == 0) name += random.nextBoolean() ? "_" : random.nextInt(100);
+        return name;
+    }
+
+    // Command line
+
+    public static void main(String[] args) {
+        Path outPath = null;
+        int count = 10000;
+        ServerStyle style = ServerStyle.SURVIVAL;
+        long seed = 42;
+        String userName = "Steve";
+        List<String> keywords = new ArrayList<>();
+
+        try {
+            List<String> positional = new ArrayList<>();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--count" -> count = Integer.parseInt(args[++i]);
+                    case "--style" -> style = ServerStyle.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--user" -> userName = args[++i];
+                    case "--keyword" -> keywords.add(args[++i]);
+                    default -> positional.add(args[i]);
+                }
+            }
+            if (positional.size() != 1 || count < 0) throw new IllegalArgumentException();
+            outPath = Path.of(positional.get(0));
+        } catch (RuntimeException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+
+        try {
+            ChatLog.write(outPath, new ChatCorpus(style, userName, keywords, seed).generate(count));
+            System.out.printf(Locale.ROOT, "Wrote %d %s messages to %s%n",
+                    count, style.name().toLowerCase(Locale.ROOT), outPath);
+        } catch (IOException e) {
+            System.err.println("Unable to write corpus: " + e);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.notryken.chatnotify.tool;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import net.minecraft.network.chat.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reading and writing of chat logs, as either a game log or a JSON chat dump.
+ * <p>
+ * A game log, such as {@code logs/latest.log}, is read one message per line
+ * containing {@code [CHAT]}. Only the flattened text is logged by the game, so
+ * each message is read as a single literal {@code Component}.
+ * <p>
+ * A JSON chat dump is read one serialized {@code Component} per line, or as a
+ * single array of serialized {@code Component}s, preserving the full
+ * structure of each message.
+ */
+public class ChatLog {
+    private static final String CHAT_MARKER = "[CHAT] ";
+
+    /**
+     * Reads all messages from the specified file, detecting whether it is a
+     * game log or a JSON chat dump from its first non-blank character.
+     * @param path the file to read.
+     * @return the messages, in order.
+     * @throws IOException if the file cannot be read.
+     * @throws com.google.gson.JsonParseException if the file is a JSON chat
+     * dump and is malformed.
+     */
+    public static List<Component> read(Path path) throws IOException {
+        String content = Files.readString(path, StandardCharsets.UTF_8);
+        String trimmed = content.stripLeading();
+        if (trimmed.startsWith("[") && !trimmed.startsWith("[CHAT]") && isJsonArray(trimmed)) {
+            return readJsonArray(trimmed);
+        }
+        else if (trimmed.startsWith("{")) {
+            return readJsonLines(content);
+        }
+        return readGameLog(content);
+    }
+
+    /**
+     * Writes the specified messages as a JSON chat dump, one serialized
+     * {@code Component} per line.
+     * @param path the file to write.
+     * @param messages the messages.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Path path, List<Component> messages) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (Component message : messages) {
+                writer.write(Component.Serializer.toJson(message));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Distinguishes a JSON array from a game log line, which also starts with
+     * {@code [}, such as {@code [12:00:00] [Render thread/INFO]: ...}.
+     */
+    private static boolean isJsonArray(String content) {
+        int i = 1;
+        while (i < content.length() && Character.isWhitespace(content.charAt(i))) i++;
+        return i < content.length() && (content.charAt(i) == '{' || content.charAt(i) == ']'
+                || content.charAt(i) == '"');
+    }
+
+    private static List<Component> readJsonArray(String content) {
+        List<Component> messages = new ArrayList<>();
+        for (JsonElement element : JsonParser.parseString(content).getAsJsonArray()) {
+            messages.add(Component.Serializer.fromJson(element));
+        }
+        return messages;
+    }
+
+    private static List<Component> readJsonLines(String content) throws IOException {
+        List<Component> messages = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(content))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                messages.add(Component.Serializer.fromJson(line));
+            }
+        }
+        return messages;
+    }
+
+    private static List<Component> readGameLog(String content) throws IOException {
+        List<Component> messages = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(content))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int index = line.indexOf(CHAT_MARKER);
+                if (index == -1) continue;
+                String text = line.substring(index + CHAT_MARKER.length());
+                // The game escapes line breaks when logging chat
+                text = text.replace("\\n", "\n").replace("\\r", "\r");
+                messages.add(Component.literal(text));
+            }
+        }
+        return messages;
+    }
+}
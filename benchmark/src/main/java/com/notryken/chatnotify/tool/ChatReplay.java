@@ -0,0 +1,260 @@
+package com.notryken.chatnotify.tool;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.notryken.chatnotify.ChatNotify;
+import com.notryken.chatnotify.config.Config;
+import com.notryken.chatnotify.config.Notification;
+import com.notryken.chatnotify.core.util.LogHistogram;
+import com.notryken.chatnotify.processor.MessageProcessor;
+import com.notryken.chatnotify.processor.ResponseQueue;
+import com.notryken.chatnotify.processor.SoundDispatcher;
+import net.minecraft.SharedConstants;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.Bootstrap;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replays a chat log through {@code MessageProcessor.processMessage()} with
+ * a given config, and reports throughput, latency, allocation and the
+ * notifications activated.
+ * <p>
+ * Sounds and responses are queued as normal but never played or sent. The
+ * processing budget is ignored, so that every message is fully processed.
+ * <p>
+ * Run with {@code ./gradlew :benchmark:replay -Pargs="<log> [config] ..."}.
+ */
+public class ChatReplay {
+    private static final String USAGE = """
+            Usage: ChatReplay <log> [config] [options]
+              <log>          a game log such as latest.log, or a JSON chat dump
+              [config]       the config file, default config/chatnotify.json
+            Options:
+              --warmup <n>   unmeasured passes over the log first, default 1
+              --passes <n>   measured passes over the log, default 1
+              --no-cache     disable the decision cache
+              --verbose      print each message that activates a notification""";
+
+    public static void main(String[] args) {
+        Path logPath = null;
+        Path configPath = Path.of("config").resolve(Config.DEFAULT_FILE_NAME);
+        int warmup = 1;
+        int passes = 1;
+        boolean noCache = false;
+        boolean verbose = false;
+
+        try {
+            List<String> positional = new ArrayList<>();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--passes" -> passes = Math.max(1, Integer.parseInt(args[++i]));
+                    case "--no-cache" -> noCache = true;
+                    case "--verbose" -> verbose = true;
+                    default -> positional.add(args[i]);
+                }
+            }
+            if (positional.isEmpty() || positional.size() > 2) throw new IllegalArgumentException();
+            logPath = Path.of(positional.get(0));
+            if (positional.size() == 2) configPath = Path.of(positional.get(1));
+        } catch (RuntimeException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+
+        try {
+            Config config = loadConfig(configPath);
+            config.processingBudget = 0;
+            config.traceDecisions = false;
+            config.debugShowKey = false;
+            if (noCache) config.decisionCacheSize = 0;
+            ChatNotify.setConfig(config);
+
+            List<Component> messages = ChatLog.read(logPath);
+            if (messages.isEmpty()) {
+                System.err.println("No chat messages found in " + logPath);
+                System.exit(1);
+            }
+            for (int i = 0; i < warmup; i++) {
+                replay(messages, config, false);
+            }
+            Result result = null;
+            for (int i = 0; i < passes; i++) {
+                result = replay(messages, config, verbose && i == 0);
+            }
+            report(logPath, configPath, config, messages.size(), passes, result);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Replay failed: " + e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads a config file in the current or legacy format, without writing
+     * it back.
+     */
+    private static Config loadConfig(Path path) throws IOException {
+        Config config = readConfig(path, Config.CONFIG_GSON);
+        if (config == null) config = readConfig(path, Config.LEGACY_CONFIG_GSON);
+        if (config == null) throw new IOException("Unable to load config from " + path);
+        config.validate();
+        return config;
+    }
+
+    private static @Nullable Config readConfig(Path path, Gson gson) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, Config.class);
+        } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Processes each message once, discarding queued sounds and responses
+     * after each one.
+     * @param verbose whether to print each message that activates a
+     *                notification, which slows the pass.
+     * @return the measurements of the pass.
+     */
+    private static Result replay(List<Component> messages, Config config, boolean verbose) {
+        List<Notification> notifs = config.getNotifs();
+        long[] hitsBefore = hitCounts(notifs);
+        LogHistogram latency = new LogHistogram();
+        AllocationCounter allocation = AllocationCounter.create();
+        long allocStart = allocation == null ? 0 : allocation.get();
+
+        long passStart = System.nanoTime();
+        for (Component message : messages) {
+            long[] before = verbose ? hitCounts(notifs) : null;
+            long start = System.nanoTime();
+            MessageProcessor.processMessage(message);
+            latency.record(System.nanoTime() - start);
+            SoundDispatcher.clear();
+            ResponseQueue.clear();
+            if (before != null) printActivated(message, notifs, before);
+        }
+        long passNanos = System.nanoTime() - passStart;
+
+        long allocBytes = allocation == null ? -1 : allocation.get() - allocStart;
+        long[] hits = hitCounts(notifs);
+        for (int i = 0; i < hits.length; i++) {
+            hits[i] -= hitsBefore[i];
+        }
+        return new Result(passNanos, latency, allocBytes, hits);
+    }
+
+    private static long[] hitCounts(List<Notification> notifs) {
+        long[] counts = new long[notifs.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = notifs.get(i).getHitCount();
+        }
+        return counts;
+    }
+
+    private static void printActivated(Component message, List<Notification> notifs,
+                                       long[] before) {
+        for (int i = 0; i < notifs.size(); i++) {
+            if (notifs.get(i).getHitCount() != before[i]) {
+                System.out.println("[" + describe(notifs.get(i), i) + "] " + message.getString());
+                return;
+            }
+        }
+    }
+
+    private static void report(Path logPath, Path configPath, Config config, int messageCount,
+                               int passes, Result result) {
+        List<Notification> notifs = config.getNotifs();
+        int triggerCount = 0;
+        for (Notification notif : notifs) {
+            triggerCount += notif.triggers.size() + notif.exclusionTriggers.size();
+        }
+        long activated = 0;
+        for (long hits : result.hits) {
+            activated += hits;
+        }
+
+        System.out.printf(Locale.ROOT, "Log:         %s (%d messages)%n", logPath, messageCount);
+        System.out.printf(Locale.ROOT, "Config:      %s (%d notifications, %d triggers, cache %s)%n",
+                configPath, notifs.size(), triggerCount,
+                config.decisionCacheSize == 0 ? "off" : String.valueOf(config.decisionCacheSize));
+        System.out.printf(Locale.ROOT, "Passes:      %d measured, last reported%n", passes);
+        System.out.printf(Locale.ROOT, "Throughput:  %.0f messages/s%n",
+                messageCount / (result.passNanos / 1e9));
+        System.out.printf(Locale.ROOT, "Latency:     p50 %s, p99 %s, max %s%n",
+                formatNanos(result.latency.getPercentile(50)),
+                formatNanos(result.latency.getPercentile(99)),
+                formatNanos(result.latency.getMax()));
+        System.out.printf(Locale.ROOT, "Allocation:  %s%n", result.allocBytes < 0
+                ? "not supported by this JVM"
+                : String.format(Locale.ROOT, "%.0f bytes/message", (double)result.allocBytes / messageCount));
+        System.out.printf(Locale.ROOT, "Activated:   %d messages (%.1f%%)%n",
+                activated, 100.0 * activated / messageCount);
+        for (int i = 0; i < notifs.size(); i++) {
+            if (result.hits[i] > 0) {
+                System.out.printf(Locale.ROOT, "  %8d  %s%n", result.hits[i], describe(notifs.get(i), i));
+            }
+        }
+    }
+
+    private static String describe(Notification notif, int index) {
+        String trigger = notif.triggers.isEmpty() ? "" : notif.triggers.get(0).string;
+        return "#" + index + " '" + trigger + "'";
+    }
+
+    private static String formatNanos(long nanos) {
+        return nanos < 10_000
+                ? String.format(Locale.ROOT, "%.2f us", nanos / 1e3)
+                : String.format(Locale.ROOT, "%.1f us", nanos / 1e3);
+    }
+
+    private static class Result {
+        private final long passNanos;
+        private final LogHistogram latency;
+        private final long allocBytes;
+        private final long[] hits;
+
+        private Result(long passNanos, LogHistogram latency, long allocBytes, long[] hits) {
+            this.passNanos = passNanos;
+            this.latency = latency;
+            this.allocBytes = allocBytes;
+            this.hits = hits;
+        }
+    }
+
+    /**
+     * Bytes allocated by the current thread, where supported by the JVM.
+     */
+    private static class AllocationCounter {
+        private final com.sun.management.ThreadMXBean bean;
+
+        private AllocationCounter(com.sun.management.ThreadMXBean bean) {
+            this.bean = bean;
+        }
+
+        private static @Nullable AllocationCounter create() {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+                return new AllocationCounter(bean);
+            }
+            return null;
+        }
+
+        private long get() {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
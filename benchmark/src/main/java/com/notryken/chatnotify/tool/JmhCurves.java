@@ -0,0 +1,183 @@
+package com.notryken.chatnotify.tool;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prints JMH results as curves: one table per benchmark and combination of
+ * the other parameters, with a row per value of the scaling parameter.
+ * <p>
+ * Each row has the score and error, the allocation per operation if the GC
+ * profiler was used, and the ratio of the score to that of the previous row,
+ * which shows where a benchmark stops scaling linearly.
+ * <p>
+ * Run with {@code ./gradlew :benchmark:curves -Pargs="[results] [options]"}.
+ */
+public class JmhCurves {
+    private static final String USAGE = """
+            Usage: JmhCurves [results] [options]
+              [results]        the JMH JSON results, default build/results/jmh/results.json
+            Options:
+              --param <name>   the scaling parameter, default notifCount
+              --csv            print comma-separated values instead of tables""";
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    /**
+     * A single JMH result, at one value of the scaling parameter.
+     */
+    private static class Point {
+        private final String x;
+        private final double score;
+        private final double error;
+        private final String unit;
+        private final double alloc;
+
+        private Point(String x, double score, double error, String unit, double alloc) {
+            this.x = x;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+            this.alloc = alloc;
+        }
+    }
+
+    public static void main(String[] args) {
+        Path resultsPath = Path.of("build", "results", "jmh", "results.json");
+        String param = "notifCount";
+        boolean csv = false;
+
+        try {
+            boolean pathSet = false;
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--param" -> param = args[++i];
+                    case "--csv" -> csv = true;
+                    default -> {
+                        if (pathSet || args[i].startsWith("--")) throw new IllegalArgumentException();
+                        resultsPath = Path.of(args[i]);
+                        pathSet = true;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try {
+            Map<String,List<Point>> curves = readCurves(resultsPath, param);
+            if (curves.isEmpty()) {
+                System.err.println("No results with parameter '" + param + "' in " + resultsPath);
+                System.exit(1);
+            }
+            if (csv) {
+                printCsv(curves, param);
+            }
+            else {
+                printTables(curves, param);
+            }
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            System.err.println("Unable to read results: " + e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Groups the results by benchmark and the values of all parameters
+     * other than {@code param}, in the order of the results file.
+     */
+    private static Map<String,List<Point>> readCurves(Path path, String param) throws IOException {
+        JsonArray results = JsonParser.parseString(
+                Files.readString(path, StandardCharsets.UTF_8)).getAsJsonArray();
+        Map<String,List<Point>> curves = new LinkedHashMap<>();
+        for (JsonElement element : results) {
+            JsonObject result = element.getAsJsonObject();
+            JsonObject params = result.has("params") ? result.getAsJsonObject("params") : new JsonObject();
+            if (!params.has(param)) continue;
+
+            String benchmark = result.get("benchmark").getAsString();
+            StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.',
+                    benchmark.lastIndexOf('.') - 1) + 1));
+            for (Map.Entry<String,JsonElement> entry : params.entrySet()) {
+                if (!entry.getKey().equals(param)) {
+                    key.append(' ').append(entry.getKey()).append('=').append(entry.getValue().getAsString());
+                }
+            }
+
+            JsonObject primary = result.getAsJsonObject("primaryMetric");
+            JsonObject alloc = getSecondary(result, ALLOC_METRIC);
+            curves.computeIfAbsent(key.toString(), (k) -> new ArrayList<>()).add(new Point(
+                    params.get(param).getAsString(),
+                    primary.get("score").getAsDouble(),
+                    getDouble(primary, "scoreError"),
+                    primary.get("scoreUnit").getAsString(),
+                    alloc == null ? Double.NaN : alloc.get("score").getAsDouble()));
+        }
+        return curves;
+    }
+
+    private static @Nullable JsonObject getSecondary(JsonObject result, String metric) {
+        if (!result.has("secondaryMetrics")) return null;
+        JsonObject secondary = result.getAsJsonObject("secondaryMetrics");
+        return secondary.has(metric) ? secondary.getAsJsonObject(metric) : null;
+    }
+
+    /**
+     * @return the value of the member, or {@code NaN} if absent or not a
+     * number, as for the error of a single measurement.
+     */
+    private static double getDouble(JsonObject object, String member) {
+        try {
+            return object.get(member).getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static void printTables(Map<String,List<Point>> curves, String param) {
+        for (Map.Entry<String,List<Point>> curve : curves.entrySet()) {
+            System.out.println(curve.getKey());
+            System.out.printf(Locale.ROOT, "  %10s  %14s  %10s  %-8s  %14s  %7s%n",
+                    param, "score", "error", "unit", "alloc B/op", "ratio");
+            Point previous = null;
+            for (Point point : curve.getValue()) {
+                System.out.printf(Locale.ROOT, "  %10s  %14.3f  %10s  %-8s  %14s  %7s%n",
+                        point.x, point.score, format(point.error, "%.3f"), point.unit,
+                        format(point.alloc, "%.0f"),
+                        previous == null ? "" : String.format(Locale.ROOT, "x%.1f",
+                                point.score / previous.score));
+                previous = point;
+            }
+            System.out.println();
+        }
+    }
+
+    private static void printCsv(Map<String,List<Point>> curves, String param) {
+        System.out.println("benchmark," + param + ",score,error,unit,alloc");
+        for (Map.Entry<String,List<Point>> curve : curves.entrySet()) {
+            for (Point point : curve.getValue()) {
+                System.out.printf(Locale.ROOT, "\"%s\",%s,%s,%s,%s,%s%n", curve.getKey(), point.x,
+                        point.score, format(point.error, "%s"), point.unit, format(point.alloc, "%.0f"));
+            }
+        }
+    }
+
+    private static String format(double value, String format) {
+        return Double.isNaN(value) ? "" : String.format(Locale.ROOT, format, value);
+    }
+}
@@ -29,6 +29,14 @@ public class ChatNotify {
         return CONFIG;
     }
 
+    /**
+     * Replaces the config without loading or saving it, for use outside the
+     * game, such as in benchmarks.
+     */
+    public static void setConfig(Config config) {
+        CONFIG = config;
+    }
+
     public static void restoreDefaultConfig() {
         CONFIG = new Config();
         CONFIG.writeToFile();
@@ -6,6 +6,8 @@ import com.notryken.chatnotify.ChatNotify;
 import com.notryken.chatnotify.config.serialize.ConfigDeserializer;
 import com.notryken.chatnotify.config.serialize.GhettoAsciiWriter;
 import com.notryken.chatnotify.config.serialize.LegacyConfigDeserializer;
+import com.notryken.chatnotify.jfr.ConfigCompiledEvent;
+import com.notryken.chatnotify.jfr.ConfigSavedEvent;
 import net.minecraft.sounds.SoundSource;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -33,6 +35,10 @@ public class Config {
     public static final String DEFAULT_FILE_NAME = "chatnotify.json";
     public static final SoundSource DEFAULT_SOUND_SOURCE = SoundSource.PLAYERS;
     public static final List<String> DEFAULT_PREFIXES = List.of("/shout", "!");
+    public static final int DEFAULT_DECISION_CACHE_SIZE = 256;
+    public static final int DEFAULT_PROCESSING_BUDGET = 0;
+    public static final int DEFAULT_LOAD_SHEDDING_THRESHOLD = 0;
+    public static final int DEFAULT_RESPONSES_PER_TICK = 1;
 
     public static final Gson CONFIG_GSON = new GsonBuilder()
             .registerTypeAdapter(Config.class, new ConfigDeserializer())
@@ -46,6 +52,8 @@ public class Config {
 
     // Not saved, not modifiable by user
     private static Path configPath;
+    private static int lastGeneration;
+    private transient int generation;
 
     // Saved, not modifiable by user
     /*
@@ -58,6 +66,13 @@ public class Config {
     public boolean checkOwnMessages;
     public boolean debugShowKey;
     public SoundSource soundSource;
+    public int decisionCacheSize;
+    public boolean asyncProcessing;
+    public int processingBudget;
+    public int loadSheddingThreshold;
+    public int responsesPerTick;
+    public boolean reprocessHistory;
+    public boolean traceDecisions;
     public final ArrayList<String> prefixes;
     private final ArrayList<Notification> notifications;
 
@@ -67,6 +82,13 @@ public class Config {
         checkOwnMessages = true;
         debugShowKey = false;
         soundSource = DEFAULT_SOUND_SOURCE;
+        decisionCacheSize = DEFAULT_DECISION_CACHE_SIZE;
+        asyncProcessing = false;
+        processingBudget = DEFAULT_PROCESSING_BUDGET;
+        loadSheddingThreshold = DEFAULT_LOAD_SHEDDING_THRESHOLD;
+        responsesPerTick = DEFAULT_RESPONSES_PER_TICK;
+        reprocessHistory = false;
+        traceDecisions = false;
         prefixes = new ArrayList<>(DEFAULT_PREFIXES);
         notifications = new ArrayList<>();
         notifications.add(Notification.createUserNotification());
@@ -78,11 +100,35 @@ public class Config {
         this.checkOwnMessages = checkOwnMessages;
         this.debugShowKey = debugShowKey;
         this.soundSource = soundSource;
+        this.decisionCacheSize = DEFAULT_DECISION_CACHE_SIZE;
+        this.asyncProcessing = false;
+        this.processingBudget = DEFAULT_PROCESSING_BUDGET;
+        this.loadSheddingThreshold = DEFAULT_LOAD_SHEDDING_THRESHOLD;
+        this.responsesPerTick = DEFAULT_RESPONSES_PER_TICK;
+        this.reprocessHistory = false;
+        this.traceDecisions = false;
         this.prefixes = prefixes;
         this.notifications = notifications;
     }
 
 
+    // Generation
+
+    /**
+     * The generation is incremented whenever the configuration may have
+     * changed in a way that affects message processing, so that anything
+     * derived from it can be discarded. Generations are unique across all
+     * {@code Config} instances.
+     * @return the current generation of the configuration.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    public void markChanged() {
+        generation = ++lastGeneration;
+    }
+
     // Username
 
     public Notification getUserNotification() {
@@ -90,11 +136,19 @@ public class Config {
     }
 
     public void setProfileName(String name) {
-       getUserNotification().triggers.get(0).string = name;
+        Trigger trigger = getUserNotification().triggers.get(0);
+        if (!name.equals(trigger.string)) {
+            trigger.string = name;
+            markChanged();
+        }
     }
 
     public void setDisplayName(String name) {
-        getUserNotification().triggers.get(1).string = name;
+        Trigger trigger = getUserNotification().triggers.get(1);
+        if (!name.equals(trigger.string)) {
+            trigger.string = name;
+            markChanged();
+        }
     }
 
     // Notifications
@@ -179,6 +233,13 @@ public class Config {
      * Cleanup and validate all settings and {@code Notification}s.
      */
     public void validate() {
+        ConfigCompiledEvent event = new ConfigCompiledEvent();
+        event.begin();
+        markChanged();
+        if (decisionCacheSize < 0) decisionCacheSize = 0;
+        if (processingBudget < 0) processingBudget = 0;
+        if (loadSheddingThreshold < 0) loadSheddingThreshold = 0;
+        if (responsesPerTick < 1) responsesPerTick = 1;
 
         // Prefixes
         prefixes.removeIf(String::isBlank);
@@ -192,6 +253,7 @@ public class Config {
         notif.purgeTriggers();
         notif.purgeExclusionTriggers();
         notif.purgeResponseMessages();
+        notif.compileResponseTemplates();
         notif.autoDisable();
 
         // All other notifications
@@ -201,6 +263,7 @@ public class Config {
             notif.purgeTriggers();
             notif.purgeExclusionTriggers();
             notif.purgeResponseMessages();
+            notif.compileResponseTemplates();
 
             if (notif.triggers.isEmpty() &&
                     notif.exclusionTriggers.isEmpty() &&
@@ -211,6 +274,16 @@ public class Config {
                 notif.autoDisable();
             }
         }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.generation = generation;
+            event.notifications = notifications.size();
+            for (Notification n : notifications) {
+                event.triggers += n.triggers.size() + n.exclusionTriggers.size();
+            }
+            event.commit();
+        }
     }
 
     // Load and save
@@ -232,6 +305,12 @@ public class Config {
         }
 
         config.writeToFile();
+        for (Notification notif : config.notifications) {
+            if (notif.sound.isEnabled() && !notif.sound.isRegistered()) {
+                ChatNotify.LOG.warn("ChatNotify: Sound '{}' is not registered, " +
+                        "and will not play unless added by a resource pack", notif.sound.getId());
+            }
+        }
         ChatNotify.LOG.info("ChatNotify: Configuration loaded in {} ms",
                 System.currentTimeMillis() - time);
         return config;
@@ -258,6 +337,8 @@ public class Config {
      * Writes the config to the global configPath.
      */
     public void writeToFile() {
+        ConfigSavedEvent event = new ConfigSavedEvent();
+        event.begin();
         long time = System.currentTimeMillis();
         ChatNotify.LOG.info("ChatNotify: Saving config to file...");
 
@@ -286,6 +367,8 @@ public class Config {
 
             ChatNotify.LOG.info("ChatNotify: Configuration saved in {} ms",
                     System.currentTimeMillis() - time);
+            event.notifications = notifications.size();
+            event.commit();
         }
         catch (IOException e) {
             throw new RuntimeException("ChatNotify: Unable to update config file. Reason:", e);
@@ -1,20 +1,28 @@
 package com.notryken.chatnotify.config;
 
+import com.notryken.chatnotify.core.action.ResponseTemplate;
+import com.notryken.chatnotify.core.match.NotificationSpec;
+
 import java.util.*;
 
 /**
  * A {@code Notification} consists of activation criteria, and parameters for
  * all ChatNotify user-notification functions.
  */
-public class Notification {
+public class Notification implements NotificationSpec<Trigger,TextStyle> {
     // Not saved, not modifiable by user
     public transient boolean editing = false;
+    private transient ArrayList<ResponseTemplate> responseTemplates = new ArrayList<>();
+    private transient long hitCount = 0;
 
     // Saved, modifiable by user
     private boolean enabled;
     public boolean allowRegex;
     public boolean exclusionEnabled;
     public boolean responseEnabled;
+    public int responseDelay;
+    public int responseStagger;
+    public boolean critical;
     public final Sound sound;
     public final TextStyle textStyle;
     public final ArrayList<Trigger> triggers;
@@ -26,6 +34,9 @@ public class Notification {
         this.allowRegex = false;
         this.exclusionEnabled = false;
         this.responseEnabled = false;
+        this.responseDelay = 0;
+        this.responseStagger = 0;
+        this.critical = false;
         this.sound = new Sound();
         this.textStyle = new TextStyle();
         this.triggers = new ArrayList<>();
@@ -41,6 +52,9 @@ public class Notification {
         this.allowRegex = allowRegex;
         this.exclusionEnabled = exclusionEnabled;
         this.responseEnabled = responseEnabled;
+        this.responseDelay = 0;
+        this.responseStagger = 0;
+        this.critical = false;
         this.sound = sound;
         this.textStyle = textStyle;
         this.triggers = triggers;
@@ -63,10 +77,61 @@ public class Notification {
 
 
 
+    @Override
     public boolean isEnabled() {
         return this.enabled;
     }
 
+    @Override
+    public boolean isEditing() {
+        return editing;
+    }
+
+    @Override
+    public boolean isCritical() {
+        return critical;
+    }
+
+    @Override
+    public boolean isRegexAllowed() {
+        return allowRegex;
+    }
+
+    @Override
+    public boolean isExclusionEnabled() {
+        return exclusionEnabled;
+    }
+
+    @Override
+    public boolean isResponseEnabled() {
+        return responseEnabled;
+    }
+
+    @Override
+    public TextStyle getStyle() {
+        return textStyle;
+    }
+
+    @Override
+    public List<Trigger> getTriggers() {
+        return triggers;
+    }
+
+    @Override
+    public List<Trigger> getExclusionTriggers() {
+        return exclusionTriggers;
+    }
+
+    @Override
+    public int getResponseDelay() {
+        return responseDelay;
+    }
+
+    @Override
+    public int getResponseStagger() {
+        return responseStagger;
+    }
+
     /**
      * If all notification options are disabled and {@code enabled} is true,
      * enables notification sound and text color.
@@ -93,11 +158,15 @@ public class Notification {
     // Validation and cleanup
 
     /**
-     * Disables regex, exclusion triggers and response messages and clears the
-     * lists of the latter two.
+     * Disables regex, exclusion triggers, response messages and critical
+     * status, clears the lists of exclusion triggers and response messages,
+     * and resets response timing.
      */
     public void resetAdvanced() {
         allowRegex = false;
+        critical = false;
+        responseDelay = 0;
+        responseStagger = 0;
         exclusionEnabled = false;
         responseEnabled = false;
         exclusionTriggers.clear();
@@ -128,4 +197,50 @@ public class Notification {
         responseMessages.removeIf(String::isBlank);
         if (responseMessages.isEmpty()) responseEnabled = false;
     }
-}
\ No newline at end of file
+
+    // Response templates
+
+    /**
+     * Parses all response messages into {@code ResponseTemplate}s.
+     */
+    public void compileResponseTemplates() {
+        responseTemplates = new ArrayList<>(responseMessages.size());
+        for (String response : responseMessages) {
+            responseTemplates.add(ResponseTemplate.parse(response));
+        }
+    }
+
+    /**
+     * Returns the parsed {@code ResponseTemplate}s of the response messages,
+     * re-parsing any response message that has been changed since the last
+     * call to {@code compileResponseTemplates()}.
+     * @return the templates, in the same order as the response messages.
+     */
+    @Override
+    public List<ResponseTemplate> getResponseTemplates() {
+        List<ResponseTemplate> templates = responseTemplates;
+        if (templates.size() != responseMessages.size()) {
+            compileResponseTemplates();
+            return responseTemplates;
+        }
+        for (int i = 0; i < templates.size(); i++) {
+            String response = responseMessages.get(i);
+            if (templates.get(i).source != response) {
+                templates.set(i, ResponseTemplate.parse(response));
+            }
+        }
+        return templates;
+    }
+
+    /**
+     * @return the number of times this {@code Notification} has been
+     * activated since the game was started.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void recordHit() {
+        hitCount++;
+    }
+}
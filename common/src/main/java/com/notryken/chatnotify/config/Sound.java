@@ -1,36 +1,50 @@
 package com.notryken.chatnotify.config;
 
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
 
 public class Sound {
     public static final String DEFAULT_SOUND_ID = "block.note_block.bell";
 
+    // Not saved, not modifiable by user
+    private transient long lastPlayTime;
+    private transient @Nullable ResourceLocation location;
+
+    // Saved, modifiable by user
     private boolean enabled;
     private String id;
     private float volume;
     private float pitch;
+    private float cooldown;
 
     public Sound() {
         this.enabled = true;
         this.id = DEFAULT_SOUND_ID;
+        this.location = ResourceLocation.tryParse(DEFAULT_SOUND_ID);
         this.volume = 1f;
         this.pitch = 1f;
+        this.cooldown = 0f;
     }
 
     public Sound(String id) {
         if (!validId(id)) throw new IllegalArgumentException("Specified id is not a valid sound.");
         this.enabled = true;
         this.id = id;
+        this.location = ResourceLocation.tryParse(id);
         this.volume = 1f;
         this.pitch = 1f;
+        this.cooldown = 0f;
     }
 
     public Sound(boolean enabled, String id, float volume, float pitch) {
         if (!validId(id)) throw new IllegalArgumentException("Specified id is not a valid sound.");
         this.enabled = enabled;
         this.id = id;
+        this.location = ResourceLocation.tryParse(id);
         setVolume(volume);
         setPitch(pitch);
+        this.cooldown = 0f;
     }
 
     public boolean isEnabled() {
@@ -49,8 +63,10 @@ public class Sound {
     }
 
     public boolean setId(String id) {
-        if (validId(id)) {
+        ResourceLocation location = ResourceLocation.tryParse(id);
+        if (location != null) {
             this.id = id;
+            this.location = location;
             return true;
         }
         return false;
@@ -60,8 +76,21 @@ public class Sound {
         return ResourceLocation.tryParse(id) != null;
     }
 
+    /**
+     * @return the {@code ResourceLocation} of the sound, parsed when the id
+     * was set.
+     */
     public ResourceLocation getResourceLocation() {
-        return ResourceLocation.tryParse(id);
+        return location;
+    }
+
+    /**
+     * @return {@code true} if the sound is in the sound event registry,
+     * {@code false} otherwise. Sounds added by resource packs are not
+     * registered, but may still be valid.
+     */
+    public boolean isRegistered() {
+        return location != null && BuiltInRegistries.SOUND_EVENT.containsKey(location);
     }
 
 
@@ -85,4 +114,35 @@ public class Sound {
                 "Value out of range. Expected 0.5-2, got " + pitch);
         this.pitch = pitch;
     }
+
+
+    /**
+     * @return the minimum time between plays of this sound, in seconds.
+     */
+    public float getCooldown() {
+        return cooldown;
+    }
+
+    public void setCooldown(float cooldown) {
+        if (cooldown < 0 || cooldown > 10) throw new IllegalArgumentException(
+                "Value out of range. Expected 0-10, got " + cooldown);
+        this.cooldown = cooldown;
+    }
+
+    /**
+     * @param time the current time in milliseconds.
+     * @return {@code true} if the sound was last played less than the
+     * cooldown ago, {@code false} otherwise.
+     */
+    public boolean isCoolingDown(long time) {
+        return cooldown > 0 && time - lastPlayTime < (long)(cooldown * 1000);
+    }
+
+    /**
+     * Starts the cooldown, when the sound is played.
+     * @param time the current time in milliseconds.
+     */
+    public void startCooldown(long time) {
+        lastPlayTime = time;
+    }
 }
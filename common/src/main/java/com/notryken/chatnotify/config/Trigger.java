@@ -1,18 +1,41 @@
 package com.notryken.chatnotify.config;
 
+import com.notryken.chatnotify.ChatNotify;
+import com.notryken.chatnotify.core.match.TextSearch;
+import com.notryken.chatnotify.core.match.TriggerSpec;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+public class Trigger implements TriggerSpec<TextStyle> {
+    private static final Pattern GROUP_NAME_PATTERN =
+            Pattern.compile("(?<!\\\\)\\(\\?<([a-zA-Z][a-zA-Z0-9]*)>");
+
+    // Not saved, not modifiable by user
+    private transient volatile CompiledPattern compiled;
+    private transient long profileNanos = 0;
+    private transient long profileCount = 0;
 
-public class Trigger {
+    // Saved, modifiable by user
     public String string;
     public boolean enabled;
     private boolean isKey;
     public boolean isRegex;
+    public final LinkedHashMap<String,TextStyle> groupStyles;
 
     public Trigger() {
         this.string = "";
         this.enabled = true;
         this.isKey = false;
         this.isRegex = false;
+        this.groupStyles = new LinkedHashMap<>();
     }
 
     public Trigger(String string) {
@@ -20,6 +43,7 @@ public class Trigger {
         this.enabled = true;
         this.isKey = false;
         this.isRegex = false;
+        this.groupStyles = new LinkedHashMap<>();
     }
 
     public Trigger(String string, boolean enabled, boolean isKey, boolean isRegex) {
@@ -27,13 +51,44 @@ public class Trigger {
         this.enabled = enabled;
         this.isKey = isKey;
         this.isRegex = isRegex;
+        this.groupStyles = new LinkedHashMap<>();
+    }
+
+    public Trigger(String string, boolean enabled, boolean isKey, boolean isRegex,
+                   LinkedHashMap<String,TextStyle> groupStyles) {
+        this.string = string;
+        this.enabled = enabled;
+        this.isKey = isKey;
+        this.isRegex = isRegex;
+        this.groupStyles = groupStyles;
+    }
+
+
+    @Override
+    public String getString() {
+        return string;
     }
 
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
 
+    @Override
     public boolean isKey() {
         return isKey;
     }
 
+    @Override
+    public boolean isRegex() {
+        return isRegex;
+    }
+
+    @Override
+    public Map<String,TextStyle> getGroupStyles() {
+        return groupStyles;
+    }
+
     /**
      * If {@code isKey} is {@code true}, converts the trigger string to
      * lowercase.
@@ -42,4 +97,98 @@ public class Trigger {
         this.isKey = isKey;
         if (isKey) string = string.toLowerCase(Locale.ROOT);
     }
+
+    /**
+     * If {@code asRegex} is {@code true}, compiles {@code string} as a regex
+     * pattern. Else, compiles it as a literal trigger.
+     * <p>
+     * The compiled pattern is cached, and only recompiled if {@code string}
+     * or {@code asRegex} has changed since the last call.
+     * @param asRegex control flag for whether to compile string as a pattern.
+     * @return the compiled pattern, or {@code null} if {@code asRegex} is
+     * {@code true} and {@code string} does not represent a valid regex.
+     * @see TextSearch#compileLiteral(String)
+     */
+    @Override
+    public @Nullable Pattern getPattern(boolean asRegex) {
+        CompiledPattern current = compiled;
+        String str = string;
+        if (current == null || current.string != str || current.regex != asRegex) {
+            Pattern pattern = null;
+            try {
+                pattern = asRegex ? Pattern.compile(str) : TextSearch.compileLiteral(str);
+            } catch (PatternSyntaxException e) {
+                ChatNotify.LOG.warn("ChatNotify: Error processing regex: " + e);
+            }
+            current = new CompiledPattern(str, asRegex, pattern);
+            compiled = current;
+        }
+        return current.pattern;
+    }
+
+    /**
+     * Scans the trigger string for named capture groups of the form
+     * {@code (?<name>...)}.
+     * @return the names of all named groups, in order of appearance.
+     */
+    @Override
+    public List<String> getGroupNames() {
+        List<String> names = new ArrayList<>();
+        Matcher matcher = GROUP_NAME_PATTERN.matcher(string);
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        return names;
+    }
+
+    // Profiling
+
+    /**
+     * Records a sampled evaluation of this trigger.
+     * @param nanos the time taken by the evaluation.
+     */
+    @Override
+    public synchronized void recordProfile(long nanos) {
+        profileNanos += nanos;
+        profileCount++;
+    }
+
+    /**
+     * @return the total time taken by all sampled evaluations.
+     */
+    public synchronized long getProfileNanos() {
+        return profileNanos;
+    }
+
+    /**
+     * @return the number of sampled evaluations.
+     */
+    public synchronized long getProfileCount() {
+        return profileCount;
+    }
+
+    /**
+     * @return the mean time taken by a sampled evaluation, or {@code 0} if
+     * there are none.
+     */
+    public synchronized double getProfileMean() {
+        return profileCount == 0 ? 0 : (double)profileNanos / profileCount;
+    }
+
+    public synchronized void resetProfile() {
+        profileNanos = 0;
+        profileCount = 0;
+    }
+
+    private static class CompiledPattern {
+        private final String string;
+        private final boolean regex;
+        private final @Nullable Pattern pattern;
+
+        private CompiledPattern(String string, boolean regex, @Nullable Pattern pattern) {
+            this.string = string;
+            this.regex = regex;
+            this.pattern = pattern;
+        }
+    }
 }
@@ -6,6 +6,8 @@ import net.minecraft.sounds.SoundSource;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class ConfigDeserializer implements JsonDeserializer<Config> {
     @Override
@@ -59,29 +61,28 @@ public class ConfigDeserializer implements JsonDeserializer<Config> {
                     soundObject.get("id").getAsString(),
                     soundObject.get("volume").getAsFloat(),
                     soundObject.get("pitch").getAsFloat());
+            if (soundObject.has("cooldown")) {
+                sound.setCooldown(soundObject.get("cooldown").getAsFloat());
+            }
 
-            JsonObject textStyleObject = notifObject.get("textStyle").getAsJsonObject();
-            textStyle = new TextStyle(
-                    textStyleObject.get("doColor").getAsBoolean(),
-                    textStyleObject.get("color").getAsInt(),
-                    new TriState(TriState.State.valueOf(textStyleObject.get("bold")
-                            .getAsJsonObject().get("state").getAsString())),
-                    new TriState(TriState.State.valueOf(textStyleObject.get("italic")
-                            .getAsJsonObject().get("state").getAsString())),
-                    new TriState(TriState.State.valueOf(textStyleObject.get("underlined")
-                            .getAsJsonObject().get("state").getAsString())),
-                    new TriState(TriState.State.valueOf(textStyleObject.get("strikethrough")
-                            .getAsJsonObject().get("state").getAsString())),
-                    new TriState(TriState.State.valueOf(textStyleObject.get("obfuscated")
-                            .getAsJsonObject().get("state").getAsString())));
+            textStyle = deserializeTextStyle(notifObject.get("textStyle").getAsJsonObject());
 
             for (JsonElement je2 : notifObject.get("triggers").getAsJsonArray()) {
                 JsonObject triggerObject = je2.getAsJsonObject();
+                LinkedHashMap<String,TextStyle> groupStyles = new LinkedHashMap<>();
+                if (triggerObject.has("groupStyles")) {
+                    for (Map.Entry<String,JsonElement> entry :
+                            triggerObject.get("groupStyles").getAsJsonObject().entrySet()) {
+                        groupStyles.put(entry.getKey(),
+                                deserializeTextStyle(entry.getValue().getAsJsonObject()));
+                    }
+                }
                 triggers.add(new Trigger(
                         triggerObject.get("string").getAsString(),
                         triggerObject.get("enabled").getAsBoolean(),
                         triggerObject.get("isKey").getAsBoolean(),
-                        triggerObject.get("isRegex").getAsBoolean()));
+                        triggerObject.get("isRegex").getAsBoolean(),
+                        groupStyles));
             }
 
             for (JsonElement je2 : notifObject.get("exclusionTriggers").getAsJsonArray()) {
@@ -97,8 +98,18 @@ public class ConfigDeserializer implements JsonDeserializer<Config> {
                 responseMessages.add(je2.getAsString());
             }
 
-            notifications.add(new Notification(enabled, allowRegex, exclusionEnabled, responseEnabled,
-                    sound, textStyle, triggers, exclusionTriggers, responseMessages));
+            Notification notif = new Notification(enabled, allowRegex, exclusionEnabled, responseEnabled,
+                    sound, textStyle, triggers, exclusionTriggers, responseMessages);
+            if (notifObject.has("critical")) {
+                notif.critical = notifObject.get("critical").getAsBoolean();
+            }
+            if (notifObject.has("responseDelay")) {
+                notif.responseDelay = notifObject.get("responseDelay").getAsInt();
+            }
+            if (notifObject.has("responseStagger")) {
+                notif.responseStagger = notifObject.get("responseStagger").getAsInt();
+            }
+            notifications.add(notif);
         }
 
         // Ensure username Notification is valid
@@ -109,7 +120,45 @@ public class ConfigDeserializer implements JsonDeserializer<Config> {
             notifications.set(0, Notification.createUserNotification());
         }
 
-        return new Config(mixinEarly, debugShowKey, checkOwnMessages,
+        Config config = new Config(mixinEarly, debugShowKey, checkOwnMessages,
                 soundSource, prefixes, notifications);
+        if (configObject.has("decisionCacheSize")) {
+            config.decisionCacheSize = configObject.get("decisionCacheSize").getAsInt();
+        }
+        if (configObject.has("asyncProcessing")) {
+            config.asyncProcessing = configObject.get("asyncProcessing").getAsBoolean();
+        }
+        if (configObject.has("processingBudget")) {
+            config.processingBudget = configObject.get("processingBudget").getAsInt();
+        }
+        if (configObject.has("loadSheddingThreshold")) {
+            config.loadSheddingThreshold = configObject.get("loadSheddingThreshold").getAsInt();
+        }
+        if (configObject.has("responsesPerTick")) {
+            config.responsesPerTick = configObject.get("responsesPerTick").getAsInt();
+        }
+        if (configObject.has("reprocessHistory")) {
+            config.reprocessHistory = configObject.get("reprocessHistory").getAsBoolean();
+        }
+        if (configObject.has("traceDecisions")) {
+            config.traceDecisions = configObject.get("traceDecisions").getAsBoolean();
+        }
+        return config;
+    }
+
+    private static TextStyle deserializeTextStyle(JsonObject textStyleObject) {
+        return new TextStyle(
+                textStyleObject.get("doColor").getAsBoolean(),
+                textStyleObject.get("color").getAsInt(),
+                new TriState(TriState.State.valueOf(textStyleObject.get("bold")
+                        .getAsJsonObject().get("state").getAsString())),
+                new TriState(TriState.State.valueOf(textStyleObject.get("italic")
+                        .getAsJsonObject().get("state").getAsString())),
+                new TriState(TriState.State.valueOf(textStyleObject.get("underlined")
+                        .getAsJsonObject().get("state").getAsString())),
+                new TriState(TriState.State.valueOf(textStyleObject.get("strikethrough")
+                        .getAsJsonObject().get("state").getAsString())),
+                new TriState(TriState.State.valueOf(textStyleObject.get("obfuscated")
+                        .getAsJsonObject().get("state").getAsString())));
     }
 }
@@ -1,18 +1,28 @@
 package com.notryken.chatnotify.gui.component.listwidget;
 
 import com.notryken.chatnotify.config.Notification;
+import com.notryken.chatnotify.config.TextStyle;
 import com.notryken.chatnotify.config.Trigger;
 import com.notryken.chatnotify.gui.screen.ConfigScreen;
+import com.notryken.chatnotify.util.ColorUtil;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.components.CycleButton;
 import net.minecraft.client.gui.components.EditBox;
+import net.minecraft.client.gui.components.StringWidget;
 import net.minecraft.client.gui.components.Tooltip;
 import net.minecraft.client.gui.screens.ConfirmScreen;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.TextColor;
 import com.notryken.chatnotify.ChatNotify;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * {@code ConfigListWidget} containing controls for advanced settings of the
@@ -42,6 +52,25 @@ public class AdvancedConfigListWidget extends ConfigListWidget {
                 Component.literal("Notification Trigger Regex"), null, -1));
         addEntry(new Entry.RegexToggleButton(entryX, entryWidth, entryHeight, notif, this));
 
+        if (notif.allowRegex) {
+            boolean first = true;
+            for (Trigger trigger : notif.triggers) {
+                if (trigger.isRegex && !trigger.isKey()) {
+                    for (String group : trigger.getGroupNames()) {
+                        if (first) {
+                            addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                                    Component.literal("Regex Group Colors \u2139"),
+                                    Tooltip.create(Component.literal("If any group of a regex trigger " +
+                                            "has a color, only the named groups will be highlighted.")), -1));
+                            first = false;
+                        }
+                        addEntry(new Entry.GroupStyleField(entryX, entryWidth, entryHeight,
+                                this, trigger, group));
+                    }
+                }
+            }
+        }
+
         addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
                 Component.literal("Notification Exclusion Triggers"), null, -1));
         addEntry(new Entry.ExclusionToggleButton(entryX, entryWidth, entryHeight, notif, this));
@@ -64,6 +93,14 @@ public class AdvancedConfigListWidget extends ConfigListWidget {
         addEntry(new Entry.ResponseToggleButton(entryX, entryWidth, entryHeight, notif, this));
 
         if (notif.responseEnabled) {
+            addEntry(new ConfigListWidget.Entry.DoubleSliderEntry(entryX, 0, entryWidth, entryHeight,
+                    0, 10, 1, "Delay (s): ", null, "None", null,
+                    () -> notif.responseDelay / 1000d,
+                    (value) -> notif.responseDelay = (int)(value * 1000)));
+            addEntry(new ConfigListWidget.Entry.DoubleSliderEntry(entryX, 0, entryWidth, entryHeight,
+                    0, 5, 1, "Stagger (s): ", null, "None", null,
+                    () -> notif.responseStagger / 1000d,
+                    (value) -> notif.responseStagger = (int)(value * 1000)));
             for (int i = 0; i < notif.responseMessages.size(); i ++) {
                 addEntry(new Entry.ResponseMessageField(entryX, entryWidth, entryHeight, notif, this, i));
             }
@@ -75,6 +112,17 @@ public class AdvancedConfigListWidget extends ConfigListWidget {
                     }));
         }
 
+        addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                Component.literal("Load Shedding"), null, -1));
+        addEntry(new Entry.CriticalToggleButton(entryX, entryWidth, entryHeight, notif));
+
+        List<Trigger> allTriggers = new ArrayList<>();
+        for (Notification n : ChatNotify.config().getNotifs()) {
+            allTriggers.addAll(n.triggers);
+            allTriggers.addAll(n.exclusionTriggers);
+        }
+        addSlowTriggerEntries("Slowest Triggers (All Notifications)", allTriggers);
+
         addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
                 Component.literal("Broken Everything?"), null, -1));
 
@@ -170,6 +218,83 @@ public class AdvancedConfigListWidget extends ConfigListWidget {
             }
         }
 
+        private static class GroupStyleField extends Entry {
+            GroupStyleField(int x, int width, int height, AdvancedConfigListWidget listWidget,
+                            Trigger trigger, String group) {
+                super();
+
+                Font activeFont = Minecraft.getInstance().font;
+                int spacing = 5;
+                int statusButtonWidth = 25;
+                int colorFieldWidth = activeFont.width("#FFAAFF+++");
+                int labelWidth = width - statusButtonWidth - colorFieldWidth - spacing * 2;
+                TextStyle textStyle = trigger.groupStyles.get(group);
+
+                StringWidget label = new StringWidget(x, 0, labelWidth, height,
+                        getMessage(group, textStyle), activeFont);
+                label.setTooltip(Tooltip.create(Component.literal(trigger.string)));
+                elements.add(label);
+
+                EditBox colorEditBox = new EditBox(activeFont, x + labelWidth + spacing, 0,
+                        colorFieldWidth, height, Component.literal("Hex Color"));
+                colorEditBox.setMaxLength(7);
+                if (textStyle == null) {
+                    colorEditBox.setValue(TextColor.fromRgb(TextStyle.DEFAULT_COLOR).formatValue());
+                    colorEditBox.setEditable(false);
+                    colorEditBox.active = false;
+                }
+                else {
+                    colorEditBox.setValue(textStyle.getTextColor().formatValue());
+                    colorEditBox.setResponder(strColor -> {
+                        TextColor color = ColorUtil.parseColor(strColor);
+                        if (color != null) {
+                            textStyle.color = color.getValue();
+                            label.setMessage(getMessage(group, textStyle));
+                        }
+                    });
+                }
+                elements.add(colorEditBox);
+
+                elements.add(CycleButton.booleanBuilder(
+                                Component.translatable("options.on").withStyle(ChatFormatting.GREEN),
+                                Component.translatable("options.off").withStyle(ChatFormatting.RED))
+                        .displayOnlyValue()
+                        .withInitialValue(textStyle != null)
+                        .create(x + width - statusButtonWidth, 0,
+                                statusButtonWidth, height, Component.empty(),
+                                (button, status) -> {
+                                    if (status) {
+                                        trigger.groupStyles.put(group, new TextStyle());
+                                    }
+                                    else {
+                                        trigger.groupStyles.remove(group);
+                                    }
+                                    listWidget.reload();
+                                }));
+            }
+
+            private Component getMessage(String group, @Nullable TextStyle textStyle) {
+                MutableComponent message = Component.literal("Group: " + group);
+                if (textStyle != null) message.setStyle(textStyle.getStyle());
+                return message;
+            }
+        }
+
+        private static class CriticalToggleButton extends Entry {
+            CriticalToggleButton(int x, int width, int height, Notification notif) {
+                super();
+                elements.add(CycleButton.booleanBuilder(
+                        Component.translatable("options.on").withStyle(ChatFormatting.GREEN),
+                                Component.translatable("options.off").withStyle(ChatFormatting.RED))
+                        .withInitialValue(notif.critical)
+                        .withTooltip((status) -> Tooltip.create(Component.nullToEmpty(
+                                "Critical notifications are still checked when the chat rate " +
+                                "is too high for all notifications to be checked.")))
+                        .create(x, 0, width, height, Component.literal("Critical"),
+                                (button, status) -> notif.critical = status));
+            }
+        }
+
         private static class ExclusionToggleButton extends Entry {
             ExclusionToggleButton(int x, int width, int height, Notification notif,
                               AdvancedConfigListWidget listWidget) {
@@ -308,7 +433,10 @@ public class AdvancedConfigListWidget extends ConfigListWidget {
                         .withInitialValue(notif.responseEnabled)
                         .withTooltip((status) -> Tooltip.create(Component.nullToEmpty(
                                 "Chat messages or commands to be sent by the client " +
-                                        "immediately when this notification is activated.")))
+                                        "when this notification is activated. {match} is " +
+                                        "replaced with the text that activated the trigger, " +
+                                        "{sender} with the sender of the message if known, " +
+                                        "and {group:name} with the regex group 'name'.")))
                         .create(x, 0, width, height, Component.literal("Response Messages"),
                                 (button, status) -> {
                                     notif.responseEnabled = status;
@@ -1,6 +1,9 @@
 package com.notryken.chatnotify.gui.component.listwidget;
 
+import com.notryken.chatnotify.config.Trigger;
+import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.*;
 import net.minecraft.client.gui.components.events.GuiEventListener;
@@ -13,7 +16,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -80,6 +85,67 @@ public abstract class ConfigListWidget extends ContainerObjectSelectionList<Conf
 
     public void onClose() {}
 
+    // Trigger profiling
+
+    private static final int MAX_SLOW_TRIGGERS = 10;
+    private static ProfileSort profileSort = ProfileSort.TOTAL;
+
+    /**
+     * Adds a list of the slowest of the specified triggers, according to
+     * their sampled evaluation times and the selected sort order, with a
+     * button to disable each trigger.
+     * <p>
+     * Disabled triggers are always listed, as they are not sampled and this
+     * is the only place they can be enabled again.
+     * @param title the title of the list.
+     * @param triggers the triggers to include.
+     */
+    protected void addSlowTriggerEntries(String title, List<Trigger> triggers) {
+        addEntry(new Entry.TextEntry(entryX, entryWidth, entryHeight,
+                Component.literal(title + " \u2139"),
+                Tooltip.create(Component.literal("Time taken to check each trigger, sampled " +
+                        "from one in every 16 messages. Turn a trigger OFF to stop checking it.")),
+                -1));
+        addEntry(new Entry.ProfileSortEntry(entryX, entryWidth, entryHeight, this));
+
+        List<Trigger> slowest = new ArrayList<>(triggers.stream()
+                .filter((trigger) -> trigger.enabled && trigger.getProfileCount() > 0)
+                .sorted(profileSort.comparator)
+                .limit(MAX_SLOW_TRIGGERS)
+                .toList());
+        triggers.stream()
+                .filter((trigger) -> !trigger.enabled)
+                .forEach(slowest::add);
+        if (slowest.isEmpty()) {
+            addEntry(new Entry.TextEntry(entryX, entryWidth, entryHeight,
+                    Component.literal("No samples yet").withStyle(ChatFormatting.GRAY), null, -1));
+        }
+        for (Trigger trigger : slowest) {
+            addEntry(new Entry.TriggerProfileEntry(entryX, entryWidth, entryHeight, trigger));
+        }
+
+        addEntry(new Entry.ActionButtonEntry(entryX, 0, entryWidth, entryHeight,
+                Component.literal("Reset Samples"), null, -1,
+                (button) -> {
+                    triggers.forEach(Trigger::resetProfile);
+                    reload();
+                }));
+    }
+
+    private enum ProfileSort {
+        TOTAL("Total Time", Comparator.comparingLong(Trigger::getProfileNanos).reversed()),
+        MEAN("Mean Time", Comparator.comparingDouble(Trigger::getProfileMean).reversed()),
+        COUNT("Samples", Comparator.comparingLong(Trigger::getProfileCount).reversed());
+
+        private final String name;
+        private final Comparator<Trigger> comparator;
+
+        ProfileSort(String name, Comparator<Trigger> comparator) {
+            this.name = name;
+            this.comparator = comparator;
+        }
+    }
+
     /**
      * Base implementation of ChatNotify options list widget entry, with common
      * entries.
@@ -166,6 +232,56 @@ public abstract class ConfigListWidget extends ContainerObjectSelectionList<Conf
             }
         }
 
+        private static class ProfileSortEntry extends Entry {
+            ProfileSortEntry(int x, int width, int height, ConfigListWidget listWidget) {
+                super();
+                elements.add(CycleButton.<ProfileSort>builder((sort) -> Component.literal(sort.name))
+                        .withValues(ProfileSort.values())
+                        .withInitialValue(profileSort)
+                        .create(x, 0, width, height, Component.literal("Sort By"),
+                                (button, sort) -> {
+                                    profileSort = sort;
+                                    listWidget.reload();
+                                }));
+            }
+        }
+
+        private static class TriggerProfileEntry extends Entry {
+            TriggerProfileEntry(int x, int width, int height, Trigger trigger) {
+                super();
+
+                int spacing = 5;
+                int statusButtonWidth = 25;
+                int mainButtonWidth = width - statusButtonWidth - spacing;
+                Font font = Minecraft.getInstance().font;
+
+                String stats = String.format(Locale.ROOT, " %.1f\u00b5s",
+                        trigger.getProfileMean() / 1000);
+                String label = font.plainSubstrByWidth(trigger.isKey() ? "[Key] " + trigger.string :
+                        trigger.string, mainButtonWidth - 10 - font.width(stats));
+                Button button = Button.builder(Component.literal(label)
+                                        .append(Component.literal(stats).withStyle(ChatFormatting.GOLD)),
+                                (b) -> {})
+                        .pos(x, 0)
+                        .size(mainButtonWidth, height)
+                        .build();
+                button.setTooltip(Tooltip.create(Component.literal(trigger.string + String.format(Locale.ROOT,
+                        "\n\nSamples: %d\nTotal: %.2fms\nMean: %.1f\u00b5s",
+                        trigger.getProfileCount(), trigger.getProfileNanos() / 1_000_000d,
+                        trigger.getProfileMean() / 1000))));
+                elements.add(button);
+
+                elements.add(CycleButton.booleanBuilder(
+                                Component.translatable("options.on").withStyle(ChatFormatting.GREEN),
+                                Component.translatable("options.off").withStyle(ChatFormatting.RED))
+                        .displayOnlyValue()
+                        .withInitialValue(trigger.enabled)
+                        .create(x + mainButtonWidth + spacing, 0, statusButtonWidth, height,
+                                Component.empty(),
+                                (b, status) -> trigger.enabled = status));
+            }
+        }
+
         public static class DoubleSliderEntry extends Entry {
             public DoubleSliderEntry(int x, int y, int width, int height, double min, double max, int precision,
                                      @Nullable String messagePrefix, @Nullable String messageSuffix,
@@ -0,0 +1,133 @@
+package com.notryken.chatnotify.gui.component.listwidget;
+
+import com.notryken.chatnotify.ChatNotify;
+import com.notryken.chatnotify.processor.DecisionTrace;
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.components.Button;
+import net.minecraft.client.gui.components.Tooltip;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * {@code ConfigListWidget} listing the records of the {@code DecisionTrace}.
+ */
+public class DecisionTraceListWidget extends ConfigListWidget {
+    // Result of the last dump, shown until the screen is closed
+    private static @Nullable Component dumpStatus;
+
+    public DecisionTraceListWidget(Minecraft minecraft, int width, int height,
+                                   int top, int bottom, int itemHeight,
+                                   int entryRelX, int entryWidth, int entryHeight,
+                                   int scrollWidth) {
+        super(minecraft, width, height, top, bottom, itemHeight,
+                entryRelX, entryWidth, entryHeight, scrollWidth);
+
+        addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                Component.literal("Recent Decisions \u2139"),
+                Tooltip.create(Component.literal("How the most recent messages were matched, " +
+                        "newest first. Hover over a message for the notifications checked, " +
+                        "the triggers hit and the action taken. Only recorded while Trace " +
+                        "Decisions is ON.")), -1));
+
+        if (!ChatNotify.config().traceDecisions) {
+            addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                    Component.literal("Trace Decisions is OFF").withStyle(ChatFormatting.GRAY), null, -1));
+        }
+        if (dumpStatus != null) {
+            addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                    dumpStatus, null, -1));
+        }
+
+        int max = DecisionTrace.size();
+        for (int i = 0; i < max; i++) {
+            addEntry(new Entry.RecordEntry(entryX, entryWidth, entryHeight, i));
+        }
+
+        addEntry(new Entry.DumpAndClearEntry(entryX, entryWidth, entryHeight, this));
+    }
+
+    @Override
+    public DecisionTraceListWidget resize(int width, int height, int top, int bottom,
+                                          int itemHeight, double scrollAmount) {
+        DecisionTraceListWidget newListWidget = new DecisionTraceListWidget(
+                minecraft, width, height, top, bottom, itemHeight,
+                entryRelX, entryWidth, entryHeight, scrollWidth);
+        newListWidget.setScrollAmount(scrollAmount);
+        return newListWidget;
+    }
+
+    @Override
+    public void onClose() {
+        dumpStatus = null;
+    }
+
+    private void dump() {
+        try {
+            Path path = DecisionTrace.dump();
+            dumpStatus = Component.literal("Saved to " + path).withStyle(ChatFormatting.GREEN);
+        }
+        catch (IOException e) {
+            ChatNotify.LOG.error("ChatNotify: Unable to write decision trace", e);
+            dumpStatus = Component.literal("Unable to save, see log").withStyle(ChatFormatting.RED);
+        }
+        reload();
+    }
+
+    private abstract static class Entry extends ConfigListWidget.Entry {
+
+        private static class RecordEntry extends Entry {
+            RecordEntry(int x, int width, int height, int index) {
+                super();
+
+                ChatFormatting color = DecisionTrace.getOutcome(index) == DecisionTrace.OWN_IGNORED
+                        ? ChatFormatting.GRAY
+                        : DecisionTrace.getActivated(index) == -1
+                                ? ChatFormatting.WHITE : ChatFormatting.GREEN;
+                MutableComponent tooltip = Component.literal(DecisionTrace.getMessage(index));
+                tooltip.append(Component.literal("\n\n" + String.join("\n",
+                        DecisionTrace.describe(index))).withStyle(ChatFormatting.GRAY));
+
+                Button button = Button.builder(Component.literal(DecisionTrace.getMessage(index))
+                                        .withStyle(color),
+                                (b) -> {})
+                        .pos(x, 0)
+                        .size(width, height)
+                        .build();
+                button.setTooltip(Tooltip.create(tooltip));
+                button.setTooltipDelay(500);
+                elements.add(button);
+            }
+        }
+
+        private static class DumpAndClearEntry extends Entry {
+            DumpAndClearEntry(int x, int width, int height, DecisionTraceListWidget listWidget) {
+                super();
+
+                int spacing = 4;
+                int buttonWidth = (width - spacing) / 2;
+
+                elements.add(Button.builder(Component.literal("Save to File"),
+                                (button) -> listWidget.dump())
+                        .pos(x, 0)
+                        .size(buttonWidth, height)
+                        .tooltip(Tooltip.create(Component.literal(
+                                "Write all records to a file in the logs folder.")))
+                        .build());
+
+                elements.add(Button.builder(Component.literal("Clear"),
+                                (button) -> {
+                                    DecisionTrace.clear();
+                                    listWidget.reload();
+                                })
+                        .pos(x + buttonWidth + spacing, 0)
+                        .size(buttonWidth, height)
+                        .build());
+            }
+        }
+    }
+}
@@ -4,6 +4,9 @@ import com.notryken.chatnotify.ChatNotify;
 import com.notryken.chatnotify.config.Notification;
 import com.notryken.chatnotify.config.Trigger;
 import com.notryken.chatnotify.gui.screen.ConfigScreen;
+import com.notryken.chatnotify.gui.screen.StatsScreen;
+import com.notryken.chatnotify.processor.DecisionCache;
+import com.notryken.chatnotify.processor.MessageProcessor;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.Font;
@@ -16,6 +19,8 @@ import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.sounds.SoundSource;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 /**
  * {@code ConfigListWidget} containing global ChatNotify controls and a list
@@ -33,8 +38,21 @@ public class GlobalConfigListWidget extends ConfigListWidget {
                 Component.literal("Global Options"), null, -1));
 
         addEntry(new Entry.MixinAndKeyDebugEntry(entryX, entryWidth, entryHeight));
+        addEntry(new ConfigListWidget.Entry.ActionButtonEntry(entryX, 0, entryWidth, entryHeight,
+                Component.literal("Recent Message Keys"), null, -1,
+                (button) -> openKeyInspector()));
+        addEntry(new ConfigListWidget.Entry.ActionButtonEntry(entryX, 0, entryWidth, entryHeight,
+                Component.literal("Statistics"), null, -1,
+                (button) -> minecraft.setScreen(new StatsScreen(minecraft.screen))));
         addEntry(new Entry.OwnMsgToggleEntry(entryX, entryWidth, entryHeight));
         addEntry(new Entry.SoundSourceEntry(entryX, entryWidth, entryHeight));
+        addEntry(new Entry.DecisionCacheEntry(entryX, entryWidth, entryHeight));
+        addEntry(new Entry.AsyncProcessingEntry(entryX, entryWidth, entryHeight));
+        addEntry(new Entry.ProcessingBudgetEntry(entryX, entryWidth, entryHeight));
+        addEntry(new Entry.LoadSheddingEntry(entryX, entryWidth, entryHeight));
+        addEntry(new Entry.ResponseRateEntry(entryX, entryWidth, entryHeight));
+        addEntry(new Entry.ReprocessHistoryEntry(entryX, entryWidth, entryHeight));
+        addEntry(new Entry.DecisionTraceEntry(entryX, entryWidth, entryHeight, this));
         addEntry(new Entry.PrefixConfigEntry(entryX, entryWidth, entryHeight, this));
 
         addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
@@ -97,6 +115,20 @@ public class GlobalConfigListWidget extends ConfigListWidget {
                         itemHeight, entryRelX, entryWidth, entryHeight, scrollWidth)));
     }
 
+    private void openDecisionTrace() {
+        minecraft.setScreen(new ConfigScreen(minecraft.screen,
+                Component.translatable("screen.chatnotify.title.trace"),
+                new DecisionTraceListWidget(minecraft, screen.width, screen.height, y0, y1,
+                        itemHeight, entryRelX, entryWidth, entryHeight, scrollWidth)));
+    }
+
+    private void openKeyInspector() {
+        minecraft.setScreen(new ConfigScreen(minecraft.screen,
+                Component.translatable("screen.chatnotify.title.keys"),
+                new KeyInspectorListWidget(minecraft, screen.width, screen.height, y0, y1,
+                        itemHeight, entryRelX, entryWidth, entryHeight, scrollWidth)));
+    }
+
     private void openNotificationConfig(int index) {
         minecraft.setScreen(new ConfigScreen(minecraft.screen,
                 Component.translatable("screen.chatnotify.title.notif"),
@@ -128,7 +160,8 @@ public class GlobalConfigListWidget extends ConfigListWidget {
                                 Component.translatable("options.off").withStyle(ChatFormatting.RED))
                         .withInitialValue(ChatNotify.config().debugShowKey)
                         .withTooltip((value) -> Tooltip.create(Component.literal(("Turn ON to show " +
-                                "translation key info of new messages when you hover over them in chat." +
+                                "translation key info of new messages when you hover over them in chat, " +
+                                "and record them in Recent Message Keys." +
                                 "\nTurn OFF if not in use."))))
                         .create(x + buttonWidth + spacing, 0, buttonWidth, height, Component.literal("Debug Keys"),
                                 (button, status) -> ChatNotify.config().debugShowKey = status));
@@ -163,6 +196,152 @@ public class GlobalConfigListWidget extends ConfigListWidget {
             }
         }
 
+        private static class DecisionCacheEntry extends Entry {
+            private static final List<Integer> SIZES = List.of(0, 64, 256, 1024, 4096);
+
+            DecisionCacheEntry(int x, int width, int height) {
+                super();
+                DecisionCache cache = MessageProcessor.getDecisionCache();
+                Tooltip tooltip = Tooltip.create(Component.nullToEmpty(String.format(Locale.ROOT,
+                        "Number of recent messages to remember the result of processing, " +
+                                "to avoid re-processing repeated messages." +
+                                "\nHit rate: %.1f%% (%d hits, %d misses, %d cached)",
+                        cache.getHitRate() * 100, cache.getHits(), cache.getMisses(), cache.size())));
+                int initialSize = ChatNotify.config().decisionCacheSize;
+                List<Integer> sizes = SIZES.contains(initialSize) ? SIZES :
+                        Stream.concat(SIZES.stream(), Stream.of(initialSize)).sorted().toList();
+                elements.add(CycleButton.<Integer>builder((size) -> size == 0 ?
+                                Component.translatable("options.off").withStyle(ChatFormatting.RED) :
+                                Component.literal(String.valueOf(size)))
+                        .withValues(sizes)
+                        .withInitialValue(initialSize)
+                        .withTooltip((size) -> tooltip)
+                        .create(x, 0, width, height, Component.literal("Message Cache Size"),
+                                (button, size) -> ChatNotify.config().decisionCacheSize = size));
+            }
+        }
+
+        private static class AsyncProcessingEntry extends Entry {
+            AsyncProcessingEntry(int x, int width, int height) {
+                super();
+                elements.add(CycleButton.booleanBuilder(
+                                Component.translatable("options.on").withStyle(ChatFormatting.GREEN),
+                                Component.translatable("options.off").withStyle(ChatFormatting.RED))
+                        .withInitialValue(ChatNotify.config().asyncProcessing)
+                        .withTooltip((status) -> Tooltip.create(Component.nullToEmpty(
+                                "Turn ON to check server messages for triggers in the background " +
+                                        "as soon as they are received, reducing lag spikes from " +
+                                        "chat floods.")))
+                        .create(x, 0, width, height, Component.literal("Background Processing"),
+                                (button, status) -> ChatNotify.config().asyncProcessing = status));
+            }
+        }
+
+        private static class ProcessingBudgetEntry extends Entry {
+            private static final List<Integer> BUDGETS = List.of(0, 1, 2, 5, 10, 20);
+
+            ProcessingBudgetEntry(int x, int width, int height) {
+                super();
+                int initialBudget = ChatNotify.config().processingBudget;
+                List<Integer> budgets = BUDGETS.contains(initialBudget) ? BUDGETS :
+                        Stream.concat(BUDGETS.stream(), Stream.of(initialBudget)).sorted().toList();
+                elements.add(CycleButton.<Integer>builder((budget) -> budget == 0 ?
+                                Component.translatable("options.off").withStyle(ChatFormatting.RED) :
+                                Component.literal(budget + " ms"))
+                        .withValues(budgets)
+                        .withInitialValue(initialBudget)
+                        .withTooltip((budget) -> Tooltip.create(Component.nullToEmpty(
+                                "Maximum time per tick to spend checking messages. When used up, " +
+                                        "further messages are not highlighted and regex triggers " +
+                                        "are checked on a later tick.")))
+                        .create(x, 0, width, height, Component.literal("Processing Budget"),
+                                (button, budget) -> ChatNotify.config().processingBudget = budget));
+            }
+        }
+
+        private static class LoadSheddingEntry extends Entry {
+            private static final List<Integer> THRESHOLDS = List.of(0, 10, 20, 30, 50, 100);
+
+            LoadSheddingEntry(int x, int width, int height) {
+                super();
+                int initialThreshold = ChatNotify.config().loadSheddingThreshold;
+                List<Integer> thresholds = THRESHOLDS.contains(initialThreshold) ? THRESHOLDS :
+                        Stream.concat(THRESHOLDS.stream(), Stream.of(initialThreshold)).sorted().toList();
+                elements.add(CycleButton.<Integer>builder((threshold) -> threshold == 0 ?
+                                Component.translatable("options.off").withStyle(ChatFormatting.RED) :
+                                Component.literal(threshold + "/s"))
+                        .withValues(thresholds)
+                        .withInitialValue(initialThreshold)
+                        .withTooltip((threshold) -> Tooltip.create(Component.nullToEmpty(
+                                "When messages arrive faster than this, only the username " +
+                                        "notification and critical notifications are checked, " +
+                                        "without regex or trigger highlighting.")))
+                        .create(x, 0, width, height, Component.literal("Load Shedding"),
+                                (button, threshold) -> ChatNotify.config().loadSheddingThreshold = threshold));
+            }
+        }
+
+        private static class ResponseRateEntry extends Entry {
+            private static final List<Integer> RATES = List.of(1, 2, 5, 10);
+
+            ResponseRateEntry(int x, int width, int height) {
+                super();
+                int initialRate = ChatNotify.config().responsesPerTick;
+                List<Integer> rates = RATES.contains(initialRate) ? RATES :
+                        Stream.concat(RATES.stream(), Stream.of(initialRate)).sorted().toList();
+                elements.add(CycleButton.<Integer>builder((rate) -> Component.literal(rate + "/tick"))
+                        .withValues(rates)
+                        .withInitialValue(initialRate)
+                        .withTooltip((rate) -> Tooltip.create(Component.nullToEmpty(
+                                "Maximum number of response messages to send per tick. " +
+                                        "Further responses are queued.")))
+                        .create(x, 0, width, height, Component.literal("Response Rate Limit"),
+                                (button, rate) -> ChatNotify.config().responsesPerTick = rate));
+            }
+        }
+
+        private static class ReprocessHistoryEntry extends Entry {
+            ReprocessHistoryEntry(int x, int width, int height) {
+                super();
+                elements.add(CycleButton.booleanBuilder(
+                                Component.translatable("options.on").withStyle(ChatFormatting.GREEN),
+                                Component.translatable("options.off").withStyle(ChatFormatting.RED))
+                        .withInitialValue(ChatNotify.config().reprocessHistory)
+                        .withTooltip((status) -> Tooltip.create(Component.nullToEmpty(
+                                "Turn ON to re-check the messages already in chat when the " +
+                                        "config is saved, so that new notifications highlight " +
+                                        "them. Sounds and responses are not activated.")))
+                        .create(x, 0, width, height, Component.literal("Update Chat History"),
+                                (button, status) -> ChatNotify.config().reprocessHistory = status));
+            }
+        }
+
+        private static class DecisionTraceEntry extends Entry {
+            DecisionTraceEntry(int x, int width, int height, GlobalConfigListWidget listWidget) {
+                super();
+
+                int spacing = 5;
+                int buttonWidth = (width - spacing) / 2;
+
+                elements.add(CycleButton.booleanBuilder(
+                                Component.translatable("options.on").withStyle(ChatFormatting.GREEN),
+                                Component.translatable("options.off").withStyle(ChatFormatting.RED))
+                        .withInitialValue(ChatNotify.config().traceDecisions)
+                        .withTooltip((status) -> Tooltip.create(Component.nullToEmpty(
+                                "Turn ON to record how recent messages were matched, to find " +
+                                        "out why a notification did or did not activate." +
+                                        "\nTurn OFF if not in use.")))
+                        .create(x, 0, buttonWidth, height, Component.literal("Trace Decisions"),
+                                (button, status) -> ChatNotify.config().traceDecisions = status));
+
+                elements.add(Button.builder(Component.literal("View Trace"),
+                                (button) -> listWidget.openDecisionTrace())
+                        .pos(x + buttonWidth + spacing, 0)
+                        .size(buttonWidth, height)
+                        .build());
+            }
+        }
+
         private static class PrefixConfigEntry extends Entry {
             PrefixConfigEntry(int x, int width, int height, GlobalConfigListWidget listWidget) {
                 super();
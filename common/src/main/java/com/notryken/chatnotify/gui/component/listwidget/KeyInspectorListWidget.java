@@ -0,0 +1,88 @@
+package com.notryken.chatnotify.gui.component.listwidget;
+
+import com.notryken.chatnotify.ChatNotify;
+import com.notryken.chatnotify.processor.KeyInspector;
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.components.Button;
+import net.minecraft.client.gui.components.Tooltip;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+
+/**
+ * {@code ConfigListWidget} listing the translation keys of recent messages,
+ * as recorded by the {@code KeyInspector}.
+ */
+public class KeyInspectorListWidget extends ConfigListWidget {
+    public KeyInspectorListWidget(Minecraft minecraft, int width, int height,
+                                  int top, int bottom, int itemHeight,
+                                  int entryRelX, int entryWidth, int entryHeight,
+                                  int scrollWidth) {
+        super(minecraft, width, height, top, bottom, itemHeight,
+                entryRelX, entryWidth, entryHeight, scrollWidth);
+
+        addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                Component.literal("Recent Messages \u2139"),
+                Tooltip.create(Component.literal("Translation keys of the most recent " +
+                        "messages, newest first. Hover for the message and the type of each " +
+                        "argument, click to copy the key. Only recorded while Debug Keys is ON.")),
+                -1));
+
+        if (!ChatNotify.config().debugShowKey) {
+            addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                    Component.literal("Debug Keys is OFF").withStyle(ChatFormatting.GRAY), null, -1));
+        }
+
+        int max = KeyInspector.size();
+        for (int i = 0; i < max; i++) {
+            addEntry(new Entry.KeyEntry(entryX, entryWidth, entryHeight, i));
+        }
+
+        addEntry(new ConfigListWidget.Entry.ActionButtonEntry(entryX, 0, entryWidth, entryHeight,
+                Component.literal("Clear"), null, -1,
+                (button) -> {
+                    KeyInspector.clear();
+                    reload();
+                }));
+    }
+
+    @Override
+    public KeyInspectorListWidget resize(int width, int height, int top, int bottom,
+                                         int itemHeight, double scrollAmount) {
+        KeyInspectorListWidget newListWidget = new KeyInspectorListWidget(
+                minecraft, width, height, top, bottom, itemHeight,
+                entryRelX, entryWidth, entryHeight, scrollWidth);
+        newListWidget.setScrollAmount(scrollAmount);
+        return newListWidget;
+    }
+
+    private abstract static class Entry extends ConfigListWidget.Entry {
+
+        private static class KeyEntry extends Entry {
+            KeyEntry(int x, int width, int height, int index) {
+                super();
+
+                String key = KeyInspector.getKey(index);
+                MutableComponent tooltip = Component.literal(KeyInspector.getMessage(index));
+                String argShape = KeyInspector.getArgShape(index);
+                if (!argShape.isEmpty()) {
+                    tooltip.append(Component.literal("\n\nArgs: " + argShape)
+                            .withStyle(ChatFormatting.GRAY));
+                }
+
+                Button button = Button.builder(key == null
+                                        ? Component.literal("Not translatable").withStyle(ChatFormatting.GRAY)
+                                        : Component.literal(key),
+                                (b) -> {
+                                    if (key != null) Minecraft.getInstance().keyboardHandler.setClipboard(key);
+                                })
+                        .pos(x, 0)
+                        .size(width, height)
+                        .build();
+                button.setTooltip(Tooltip.create(tooltip));
+                button.setTooltipDelay(500);
+                elements.add(button);
+            }
+        }
+    }
+}
@@ -63,6 +63,8 @@ public class NotifConfigListWidget extends ConfigListWidget {
                 Component.literal("Advanced Settings"),
                 Tooltip.create(Component.literal("Here be Dragons!")), 500,
                 (button) -> openAdvancedConfig()));
+
+        addSlowTriggerEntries("Slowest Triggers", notif.triggers);
     }
 
     @Override
@@ -127,6 +129,12 @@ public class NotifConfigListWidget extends ConfigListWidget {
                 triggerEditBox.setMaxLength(120);
                 triggerEditBox.setValue(trigger.string);
                 triggerEditBox.setResponder((string) -> trigger.string = string.strip());
+                if (!trigger.enabled) {
+                    triggerEditBox.setTextColor(0x808080);
+                    triggerEditBox.setTooltip(Tooltip.create(Component.literal(
+                            "Trigger is OFF, turn it ON in Slowest Triggers")));
+                    triggerEditBox.setTooltipDelay(500);
+                }
 
                 if (listWidget.isUsernameNotif && index <= 1) {
                     triggerEditBox.setEditable(false);
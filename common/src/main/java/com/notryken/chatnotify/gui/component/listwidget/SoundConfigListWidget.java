@@ -37,6 +37,11 @@ public class SoundConfigListWidget extends ConfigListWidget {
                 () -> (double)notif.sound.getPitch(),
                 (value) -> notif.sound.setPitch(value.floatValue())));
 
+        addEntry(new ConfigListWidget.Entry.DoubleSliderEntry(entryX, 0, entryWidth, entryHeight, 0, 10, 1,
+                "Cooldown (s): ", null, "OFF", null,
+                () -> (double)notif.sound.getCooldown(),
+                (value) -> notif.sound.setCooldown(value.floatValue())));
+
         addEntry(new ConfigListWidget.Entry.SilentActionButtonEntry(entryX, 0, entryWidth, entryHeight,
                 Component.literal("> Click to Test Sound <"),
                 Tooltip.create(Component.literal("Volume category currently set to ")
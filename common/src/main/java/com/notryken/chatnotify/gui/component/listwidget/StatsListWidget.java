@@ -0,0 +1,137 @@
+package com.notryken.chatnotify.gui.component.listwidget;
+
+import com.notryken.chatnotify.ChatNotify;
+import com.notryken.chatnotify.config.Notification;
+import com.notryken.chatnotify.core.util.LogHistogram;
+import com.notryken.chatnotify.processor.DecisionCache;
+import com.notryken.chatnotify.processor.MessageProcessor;
+import com.notryken.chatnotify.processor.Metrics;
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.components.Button;
+import net.minecraft.client.gui.components.Tooltip;
+import net.minecraft.network.chat.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@code ConfigListWidget} displaying the counters and timers of the message
+ * processing pipeline.
+ */
+public class StatsListWidget extends ConfigListWidget {
+    public StatsListWidget(Minecraft minecraft, int width, int height,
+                           int top, int bottom, int itemHeight,
+                           int entryRelX, int entryWidth, int entryHeight,
+                           int scrollWidth) {
+        super(minecraft, width, height, top, bottom, itemHeight,
+                entryRelX, entryWidth, entryHeight, scrollWidth);
+
+        addEntry(new Entry.RefreshAndResetEntry(entryX, entryWidth, entryHeight, this));
+
+        addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                Component.literal("Timings \u2139"),
+                Tooltip.create(Component.literal("Time spent in each stage of message " +
+                        "processing, as the median and 99th percentile. Hover over a stage " +
+                        "for details.")), -1));
+        for (Metrics.Timer timer : Metrics.Timer.values()) {
+            addEntry(new Entry.TimerEntry(entryX, entryWidth, entryHeight, timer));
+        }
+
+        addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                Component.literal("Counters"), null, -1));
+        for (Metrics.Counter counter : Metrics.Counter.values()) {
+            addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                    Component.literal(counter.name + ": " + Metrics.get(counter)), null, -1));
+        }
+        DecisionCache cache = MessageProcessor.getDecisionCache();
+        addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                Component.literal(String.format(Locale.ROOT, "Decision Cache Hit Rate: %.1f%%",
+                        cache.getHitRate() * 100)), null, -1));
+
+        addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                Component.literal("Notification Activations"), null, -1));
+        for (Notification notif : ChatNotify.config().getNotifs()) {
+            String label = notif.triggers.isEmpty() || notif.triggers.get(0).string.isBlank()
+                    ? "(No Trigger)" : notif.triggers.get(0).string;
+            addEntry(new ConfigListWidget.Entry.TextEntry(entryX, entryWidth, entryHeight,
+                    Component.literal(label + ": " + notif.getHitCount())
+                            .withStyle(notif.isEnabled() ? ChatFormatting.WHITE : ChatFormatting.GRAY),
+                    null, -1));
+        }
+    }
+
+    @Override
+    public StatsListWidget resize(int width, int height, int top, int bottom,
+                                  int itemHeight, double scrollAmount) {
+        StatsListWidget newListWidget = new StatsListWidget(
+                minecraft, width, height, top, bottom, itemHeight,
+                entryRelX, entryWidth, entryHeight, scrollWidth);
+        newListWidget.setScrollAmount(scrollAmount);
+        return newListWidget;
+    }
+
+    /**
+     * @param nanos a duration in nanoseconds.
+     * @return the duration in the most readable unit.
+     */
+    private static String formatNanos(double nanos) {
+        if (nanos < 1_000) return String.format(Locale.ROOT, "%.0fns", nanos);
+        if (nanos < 1_000_000) return String.format(Locale.ROOT, "%.1f\u00b5s", nanos / 1_000);
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000);
+    }
+
+    private abstract static class Entry extends ConfigListWidget.Entry {
+
+        private static class RefreshAndResetEntry extends Entry {
+            RefreshAndResetEntry(int x, int width, int height, StatsListWidget listWidget) {
+                super();
+
+                int spacing = 4;
+                int buttonWidth = (width - spacing) / 2;
+
+                elements.add(Button.builder(Component.literal("Refresh"),
+                                (button) -> listWidget.reload())
+                        .pos(x, 0)
+                        .size(buttonWidth, height)
+                        .build());
+
+                elements.add(Button.builder(Component.literal("Reset"),
+                                (button) -> {
+                                    Metrics.reset();
+                                    listWidget.reload();
+                                })
+                        .pos(x + buttonWidth + spacing, 0)
+                        .size(buttonWidth, height)
+                        .build());
+            }
+        }
+
+        private static class TimerEntry extends Entry {
+            TimerEntry(int x, int width, int height, Metrics.Timer timer) {
+                super();
+
+                LogHistogram histogram = Metrics.get(timer);
+                Component message = histogram.getCount() == 0
+                        ? Component.literal(timer.name + ": -").withStyle(ChatFormatting.GRAY)
+                        : Component.literal(timer.name + ": " +
+                                formatNanos(histogram.getPercentile(50)) + " / " +
+                                formatNanos(histogram.getPercentile(99)));
+                Tooltip tooltip = Tooltip.create(Component.literal(String.join("\n", List.of(
+                        "Count: " + histogram.getCount(),
+                        "Mean: " + formatNanos(histogram.getMean()),
+                        "50%: " + formatNanos(histogram.getPercentile(50)),
+                        "90%: " + formatNanos(histogram.getPercentile(90)),
+                        "99%: " + formatNanos(histogram.getPercentile(99)),
+                        "99.9%: " + formatNanos(histogram.getPercentile(99.9)),
+                        "Max: " + formatNanos(histogram.getMax())))));
+
+                elements.add(Button.builder(message, (button) -> {})
+                        .pos(x, 0)
+                        .size(width, height)
+                        .tooltip(tooltip)
+                        .build());
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.notryken.chatnotify.gui.screen;
 
+import com.notryken.chatnotify.ChatNotify;
 import com.notryken.chatnotify.gui.component.listwidget.ConfigListWidget;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
@@ -52,6 +53,7 @@ public class ConfigScreen extends OptionsSubScreen {
     @Override
     public void onClose() {
         listWidget.onClose();
+        ChatNotify.config().markChanged();
         super.onClose();
     }
 
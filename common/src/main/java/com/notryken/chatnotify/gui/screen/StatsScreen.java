@@ -0,0 +1,35 @@
+package com.notryken.chatnotify.gui.screen;
+
+import com.notryken.chatnotify.gui.component.listwidget.ConfigListWidget;
+import com.notryken.chatnotify.gui.component.listwidget.StatsListWidget;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.network.chat.Component;
+
+/**
+ * Read-only screen displaying the message processing metrics.
+ */
+public class StatsScreen extends ConfigScreen {
+
+    public StatsScreen(Screen lastScreen) {
+        super(lastScreen, Component.translatable("screen.chatnotify.title.stats"),
+                new StatsListWidget(Minecraft.getInstance(), 0, 0, 0, 0,
+                        0, -120, 240, 20, 320));
+    }
+
+    public StatsScreen(Screen lastScreen, Component title, ConfigListWidget listWidget) {
+        super(lastScreen, title, listWidget);
+    }
+
+    @Override
+    public void onClose() {
+        // Nothing is edited, so the config is not marked as changed
+        listWidget.onClose();
+        minecraft.setScreen(lastScreen);
+    }
+
+    @Override
+    public void reloadListWidget() {
+        minecraft.setScreen(new StatsScreen(lastScreen, title, listWidget));
+    }
+}
@@ -0,0 +1,22 @@
+package com.notryken.chatnotify.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("chatnotify.ConfigCompiled")
+@Label("Config Compiled")
+@Category("ChatNotify")
+@Description("The config was validated and its derived state rebuilt")
+public class ConfigCompiledEvent extends Event {
+    @Label("Generation")
+    public int generation;
+
+    @Label("Notifications")
+    public int notifications;
+
+    @Label("Triggers")
+    public int triggers;
+}
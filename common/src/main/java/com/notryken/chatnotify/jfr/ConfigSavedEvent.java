@@ -0,0 +1,14 @@
+package com.notryken.chatnotify.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("chatnotify.ConfigSaved")
+@Label("Config Saved")
+@Category("ChatNotify")
+public class ConfigSavedEvent extends Event {
+    @Label("Notifications")
+    public int notifications;
+}
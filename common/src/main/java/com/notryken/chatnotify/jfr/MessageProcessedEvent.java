@@ -0,0 +1,25 @@
+package com.notryken.chatnotify.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("chatnotify.MessageProcessed")
+@Label("Message Processed")
+@Category("ChatNotify")
+@Description("A chat message was processed on the client thread")
+@StackTrace(false)
+public class MessageProcessedEvent extends Event {
+    @Label("Message Length")
+    public int length;
+
+    @Label("Prepared Off-Thread")
+    public boolean prepared;
+
+    @Label("Modified")
+    @Description("Whether the displayed message differs from the original")
+    public boolean modified;
+}
@@ -0,0 +1,27 @@
+package com.notryken.chatnotify.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("chatnotify.NotificationFired")
+@Label("Notification Fired")
+@Category("ChatNotify")
+@Description("A notification was activated by a chat message")
+@StackTrace(false)
+public class NotificationFiredEvent extends Event {
+    @Label("Notification Index")
+    public int index;
+
+    @Label("Trigger")
+    public String trigger;
+
+    @Label("Sound")
+    public boolean sound;
+
+    @Label("Responses")
+    public int responses;
+}
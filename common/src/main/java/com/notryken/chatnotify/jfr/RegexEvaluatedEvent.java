@@ -0,0 +1,34 @@
+package com.notryken.chatnotify.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Disabled by default, as it is emitted for every regex trigger of every
+ * message.
+ */
+@Name("chatnotify.RegexEvaluated")
+@Label("Regex Evaluated")
+@Category("ChatNotify")
+@Description("A regex trigger was searched for in a chat message")
+@Enabled(false)
+@StackTrace(false)
+public class RegexEvaluatedEvent extends Event {
+    @Label("Pattern Id")
+    @Description("Identity hash code of the trigger, stable while the game is running")
+    public int patternId;
+
+    @Label("Pattern")
+    public String pattern;
+
+    @Label("Message Length")
+    public int length;
+
+    @Label("Matched")
+    public boolean matched;
+}
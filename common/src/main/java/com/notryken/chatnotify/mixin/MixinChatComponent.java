@@ -1,7 +1,7 @@
 package com.notryken.chatnotify.mixin;
 
 import com.notryken.chatnotify.ChatNotify;
-import com.notryken.chatnotify.processor.MessageProcessor;
+import com.notryken.chatnotify.processor.MessagePipeline;
 import net.minecraft.client.gui.components.ChatComponent;
 import net.minecraft.network.chat.Component;
 import org.spongepowered.asm.mixin.Mixin;
@@ -41,7 +41,7 @@ public class MixinChatComponent {
             argsOnly = true)
     private Component replaceMessage(Component message) {
         if (!ChatNotify.config().mixinEarly) {
-            return MessageProcessor.processMessage(message);
+            return MessagePipeline.process(message);
         }
         else {
             return message;
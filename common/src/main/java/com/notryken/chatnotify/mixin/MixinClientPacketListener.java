@@ -6,7 +6,14 @@ import net.minecraft.client.multiplayer.ClientPacketListener;
 import net.minecraft.client.multiplayer.PlayerInfo;
 import net.minecraft.network.protocol.game.ClientboundLoginPacket;
 import net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket;
+import net.minecraft.network.protocol.game.ClientboundSystemChatPacket;
+import net.minecraft.network.chat.Component;
 import com.notryken.chatnotify.ChatNotify;
+import com.notryken.chatnotify.processor.HistoryReprocessor;
+import com.notryken.chatnotify.processor.MessagePipeline;
+import com.notryken.chatnotify.processor.ProcessingScheduler;
+import com.notryken.chatnotify.processor.ResponseQueue;
+import com.notryken.chatnotify.processor.SoundDispatcher;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
@@ -63,6 +70,7 @@ public class MixinClientPacketListener {
         String name = Minecraft.getInstance().player.getName().getString();
         ChatNotify.config().setProfileName(name);
         ChatNotify.config().setDisplayName(name);
+        SoundDispatcher.preload();
     }
 
     /**
@@ -84,6 +92,30 @@ public class MixinClientPacketListener {
         }
     }
 
+    // Message pipeline mixins /////////////////////////////////////////////////
+
+    /**
+     * Flatten system messages and start matching them off-thread as soon as
+     * they are received, before the packet is handed over to the client
+     * thread.
+     */
+    @Inject(method = "handleSystemChat", at = @At("HEAD"))
+    private void prefetchSystemChat(ClientboundSystemChatPacket packet, CallbackInfo ci) {
+        if (!Minecraft.getInstance().isSameThread() &&
+                (!packet.overlay() || ChatNotify.config().mixinEarly)) {
+            MessagePipeline.prefetch(packet.content());
+        }
+    }
+
+    @Inject(method = "onDisconnect", at = @At("HEAD"))
+    private void clearPending(Component reason, CallbackInfo ci) {
+        MessagePipeline.clear();
+        ProcessingScheduler.clear();
+        SoundDispatcher.clear();
+        ResponseQueue.clear();
+        HistoryReprocessor.clear();
+    }
+
     // Chat message and command storage mixins /////////////////////////////////
 
     @Inject(method = "sendChat", at = @At("HEAD"))
@@ -0,0 +1,30 @@
+package com.notryken.chatnotify.mixin;
+
+import com.notryken.chatnotify.processor.HistoryReprocessor;
+import com.notryken.chatnotify.processor.LoadMonitor;
+import com.notryken.chatnotify.processor.MessagePipeline;
+import com.notryken.chatnotify.processor.ProcessingScheduler;
+import com.notryken.chatnotify.processor.ResponseQueue;
+import com.notryken.chatnotify.processor.SoundDispatcher;
+import net.minecraft.client.Minecraft;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/*
+ * Client tick hook for tick-scoped processing.
+ */
+@Mixin(value = Minecraft.class, priority = 800)
+public class MixinMinecraft {
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void onTick(CallbackInfo ci) {
+        ProcessingScheduler.tick();
+        LoadMonitor.tick();
+        MessagePipeline.tick();
+        SoundDispatcher.tick();
+        ResponseQueue.tick();
+        HistoryReprocessor.tick();
+    }
+}
@@ -0,0 +1,17 @@
+package com.notryken.chatnotify.mixin.accessor;
+
+import net.minecraft.client.GuiMessage;
+import net.minecraft.client.gui.components.ChatComponent;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import java.util.List;
+
+@Mixin(ChatComponent.class)
+public interface ChatComponentAccessor {
+    @Accessor("allMessages")
+    List<GuiMessage> chatNotify$getAllMessages();
+
+    @Accessor("trimmedMessages")
+    List<GuiMessage.Line> chatNotify$getTrimmedMessages();
+}
@@ -0,0 +1,89 @@
+package com.notryken.chatnotify.processor;
+
+import com.notryken.chatnotify.config.Config;
+import com.notryken.chatnotify.config.Notification;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * The parts of the config read when preparing a message, either as a view of
+ * the live config or as a copy for the worker thread of the
+ * {@code MessagePipeline}.
+ * <p>
+ * A copy is taken on the client thread for a single config generation, and is
+ * never modified, so the worker never reads {@code Notification}s or
+ * {@code Trigger}s that may be modified concurrently. Activated copies are
+ * mapped back to the live {@code Notification}s, so that decisions may be
+ * shared with the client thread.
+ */
+class ConfigSnapshot {
+    final int generation;
+    final int decisionCacheSize;
+    final boolean traceDecisions;
+    // Whether a ConfigScreen was open
+    final boolean editing;
+    final List<Notification> notifs;
+    // Copies to live Notifications, or null if notifs are the live ones
+    private final @Nullable IdentityHashMap<Notification,Notification> live;
+
+    private ConfigSnapshot(Config config, boolean editing, List<Notification> notifs,
+                           @Nullable IdentityHashMap<Notification,Notification> live) {
+        this.generation = config.getGeneration();
+        this.decisionCacheSize = config.decisionCacheSize;
+        this.traceDecisions = config.traceDecisions;
+        this.editing = editing;
+        this.notifs = notifs;
+        this.live = live;
+    }
+
+    /**
+     * Must be called from the client thread.
+     * @return a view of the live config.
+     */
+    static ConfigSnapshot of(Config config, boolean editing) {
+        return new ConfigSnapshot(config, editing, config.getNotifs(), null);
+    }
+
+    /**
+     * Copies all {@code Notification}s of the specified config.
+     * <p>
+     * Must be called from the client thread, while no {@code ConfigScreen} is
+     * open.
+     * @return an immutable copy of the config, safe to read from any thread.
+     */
+    static ConfigSnapshot copyOf(Config config) {
+        List<Notification> copies = new ArrayList<>(config.getNotifs().size());
+        IdentityHashMap<Notification,Notification> live = new IdentityHashMap<>();
+        for (Notification notif : config.getNotifs()) {
+            Notification copy = Config.CONFIG_GSON.fromJson(
+                    Config.CONFIG_GSON.toJsonTree(notif), Notification.class);
+            copies.add(copy);
+            live.put(copy, notif);
+        }
+        return new ConfigSnapshot(config, false, Collections.unmodifiableList(copies), live);
+    }
+
+    Notification getUserNotification() {
+        return notifs.get(0);
+    }
+
+    /**
+     * @return {@code true} if the {@code Notification}s are copies, and must
+     * be mapped with {@code toLive()} before use on the client thread.
+     */
+    boolean isCopy() {
+        return live != null;
+    }
+
+    /**
+     * @return the live {@code Notification} of which {@code notif} is a copy,
+     * or {@code notif} itself if this is a view of the live config.
+     */
+    @Nullable Notification toLive(@Nullable Notification notif) {
+        return live == null || notif == null ? notif : live.get(notif);
+    }
+}
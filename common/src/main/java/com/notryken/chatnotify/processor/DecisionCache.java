@@ -0,0 +1,94 @@
+package com.notryken.chatnotify.processor;
+
+import com.notryken.chatnotify.config.Notification;
+import com.notryken.chatnotify.config.TextStyle;
+import com.notryken.chatnotify.config.Trigger;
+import com.notryken.chatnotify.core.match.Captures;
+import com.notryken.chatnotify.core.match.SpanList;
+import com.notryken.chatnotify.core.util.MessageCache;
+import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The cache of message processing decisions. Decisions are made with a
+ * snapshot of the config, so are stored with its generation.
+ */
+public class DecisionCache extends MessageCache<DecisionCache.Decision> {
+    /**
+     * The outcome of matching a message against the config.
+     * <p>
+     * The restyled {@code Component} is only valid for a message equal to
+     * {@code source}, as messages with the same flattened {@code String} may
+     * differ in style or structure.
+     */
+    public static class Decision {
+        public static final Decision NONE = new Decision(null, -1, null, null, null,
+                new SpanList<>());
+        // No notification activated, but not all triggers were checked
+        public static final Decision INCOMPLETE = new Decision(null, -1, null, null, null,
+                new SpanList<>(), true, null);
+
+        public final @Nullable Notification notif;
+        // The index of notif in the config of the decision's generation, or -1
+        public final int notifIndex;
+        // The trigger that activated notif, read-only as it may be a copy
+        public final @Nullable Trigger trigger;
+        // Match values for the response templates of notif, if enabled
+        public final @Nullable Captures captures;
+        public final @Nullable Notification simpleNotif;
+        // The parts of the message to restyle, never modified
+        public final SpanList<TextStyle> highlights;
+        public final boolean incomplete;
+        // Packed DecisionTrace events, if tracing was enabled
+        public final @Nullable long[] trace;
+        private volatile @Nullable Restyle lastRestyle;
+
+        public Decision(@Nullable Notification notif, int notifIndex, @Nullable Trigger trigger,
+                        @Nullable Captures captures, @Nullable Notification simpleNotif,
+                        SpanList<TextStyle> highlights) {
+            this(notif, notifIndex, trigger, captures, simpleNotif, highlights, false, null);
+        }
+
+        public Decision(@Nullable Notification notif, int notifIndex, @Nullable Trigger trigger,
+                        @Nullable Captures captures,
+                        @Nullable Notification simpleNotif,
+                        SpanList<TextStyle> highlights,
+                        boolean incomplete, @Nullable long[] trace) {
+            this.notif = notif;
+            this.notifIndex = notifIndex;
+            this.trigger = trigger;
+            this.captures = captures;
+            this.simpleNotif = simpleNotif;
+            this.highlights = highlights;
+            this.incomplete = incomplete;
+            this.trace = trace;
+        }
+
+        /**
+         * @return the restyled {@code Component} for {@code message}, or
+         * {@code null} if {@code message} has not been restyled using this
+         * decision.
+         */
+        public @Nullable Component getRestyled(Component message) {
+            Restyle last = lastRestyle;
+            if (last != null && (last.source == message || last.source.equals(message))) {
+                return last.restyled;
+            }
+            return null;
+        }
+
+        public void setRestyled(Component message, Component restyled) {
+            lastRestyle = new Restyle(message, restyled);
+        }
+    }
+
+    private static class Restyle {
+        private final Component source;
+        private final Component restyled;
+
+        private Restyle(Component source, Component restyled) {
+            this.source = source;
+            this.restyled = restyled;
+        }
+    }
+}
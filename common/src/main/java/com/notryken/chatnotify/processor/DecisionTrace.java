@@ -0,0 +1,294 @@
+package com.notryken.chatnotify.processor;
+
+import com.notryken.chatnotify.ChatNotify;
+import com.notryken.chatnotify.config.Notification;
+import com.notryken.chatnotify.config.Trigger;
+import com.notryken.chatnotify.core.match.MatchListener;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ring buffer of compact records of how recent messages were matched,
+ * recorded while the {@code traceDecisions} config option is enabled.
+ * <p>
+ * Each record holds the owner check outcome, the actions taken, and the
+ * events of the decision: candidate {@code Notification}s, trigger hits,
+ * skipped regex triggers and exclusion vetoes. Events are packed into
+ * {@code long}s of notification and trigger indices, so recording does not
+ * create any {@code String}s, and names are only looked up when a record is
+ * described. The events of a decision are limited to {@code MAX_EVENTS}.
+ * <p>
+ * Records are only accessed from the client thread, but event
+ * {@code Buffer}s may be used from any thread.
+ */
+public class DecisionTrace {
+    public static final int CAPACITY = 64;
+    public static final int MAX_EVENTS = 64;
+
+    // Owner check outcomes
+    public static final byte NOT_OWN = 0;
+    public static final byte OWN_STRIPPED = 1;
+    public static final byte OWN_IGNORED = 2;
+
+    // Record flags
+    public static final int SOUND = 1;
+    public static final int RESPONSE = 1 << 1;
+    public static final int DEGRADED = 1 << 2;
+    public static final int DEFERRED = 1 << 3;
+    public static final int DEFER_QUEUED = 1 << 4;
+
+    // Event types, in the top 4 bits of an event
+    public static final int CANDIDATE = 1;
+    public static final int HIT = 2;
+    public static final int SKIPPED = 3;
+    public static final int VETO = 4;
+    public static final int TRUNCATED = 5;
+
+    // Notification index of an event, in the 28 bits below the type
+    private static final int NOTIF_MASK = 0xFFFFFFF;
+    // Notification index of an event whose index was out of the packed range
+    private static final int UNKNOWN_NOTIF = NOTIF_MASK;
+
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(Buffer::new);
+
+    private static final long[] times = new long[CAPACITY];
+    private static final int[] generations = new int[CAPACITY];
+    private static final byte[] outcomes = new byte[CAPACITY];
+    private static final int[] activated = new int[CAPACITY];
+    private static final int[] flags = new int[CAPACITY];
+    private static final long[][] events = new long[CAPACITY][];
+    private static final String[] messages = new String[CAPACITY];
+    private static int next = 0;
+    private static int size = 0;
+
+    public static boolean isEnabled() {
+        return ChatNotify.config().traceDecisions;
+    }
+
+    /**
+     * @return the event {@code Buffer} of the current thread, cleared.
+     */
+    public static Buffer buffer() {
+        Buffer buffer = BUFFERS.get();
+        buffer.size = 0;
+        return buffer;
+    }
+
+    /**
+     * Records the outcome of processing a message.
+     * @param msgStr the message {@code String}.
+     * @param outcome the owner check outcome.
+     * @param notifIndex the index of the activated {@code Notification}, or
+     *                   {@code -1} if none.
+     * @param recordFlags the record flags.
+     * @param decisionEvents the events of the decision, or {@code null} if
+     *                       there was no decision or it was made before
+     *                       tracing was enabled.
+     */
+    public static void record(String msgStr, byte outcome, int notifIndex, int recordFlags,
+                              @Nullable long[] decisionEvents) {
+        times[next] = System.currentTimeMillis();
+        generations[next] = ChatNotify.config().getGeneration();
+        outcomes[next] = outcome;
+        activated[next] = notifIndex;
+        flags[next] = recordFlags;
+        events[next] = decisionEvents;
+        messages[next] = msgStr;
+        next = (next + 1) % CAPACITY;
+        if (size < CAPACITY) size++;
+    }
+
+    public static int size() {
+        return size;
+    }
+
+    /**
+     * @param index the index, where {@code 0} is the most recent record.
+     * @return the message {@code String}.
+     */
+    public static String getMessage(int index) {
+        return messages[slot(index)];
+    }
+
+    /**
+     * @param index the index, where {@code 0} is the most recent record.
+     * @return the index of the activated {@code Notification}, or {@code -1}
+     * if none.
+     */
+    public static int getActivated(int index) {
+        return activated[slot(index)];
+    }
+
+    public static byte getOutcome(int index) {
+        return outcomes[slot(index)];
+    }
+
+    /**
+     * Describes the specified record, one line per event, using the names of
+     * the current config. If the config has changed since the record was
+     * made, the names may not be those of the notifications at the time.
+     * @param index the index, where {@code 0} is the most recent record.
+     * @return the lines of the description.
+     */
+    public static List<String> describe(int index) {
+        int slot = slot(index);
+        List<Notification> notifs = ChatNotify.config().getNotifs();
+        List<String> lines = new ArrayList<>();
+        lines.add("Owner: " + switch (outcomes[slot]) {
+            case OWN_STRIPPED -> "sent by you, name removed";
+            case OWN_IGNORED -> "sent by you, ignored";
+            default -> "not sent by you";
+        });
+        if (generations[slot] != ChatNotify.config().getGeneration()) {
+            lines.add("(Config changed since)");
+        }
+        if (events[slot] == null) {
+            if (outcomes[slot] != OWN_IGNORED) lines.add("(Decision made before tracing was enabled)");
+        }
+        else {
+            for (long event : events[slot]) {
+                int type = (int) (event >>> 60);
+                int notif = (int) (event >>> 32) & NOTIF_MASK;
+                int trigger = (int) event;
+                lines.add(switch (type) {
+                    case CANDIDATE -> "Checked " + describeNotif(notifs, notif);
+                    case HIT -> "  Hit " + describeTrigger(notifs, notif, trigger, false);
+                    case SKIPPED -> "  Skipped " + describeTrigger(notifs, notif, trigger, false);
+                    case VETO -> "  Excluded by " + describeTrigger(notifs, notif, trigger, true);
+                    case TRUNCATED -> "(More events not recorded)";
+                    default -> "Unknown event " + type;
+                });
+            }
+        }
+        int f = flags[slot];
+        StringBuilder action = new StringBuilder("Action: ");
+        action.append(activated[slot] == -1
+                ? "none" : "activated " + describeNotif(notifs, activated[slot]));
+        if ((f & SOUND) != 0) action.append(", sound");
+        if ((f & RESPONSE) != 0) action.append(", response");
+        if ((f & DEGRADED) != 0) action.append(", degraded");
+        if ((f & DEFERRED) != 0) action.append(", deferred check");
+        if ((f & DEFER_QUEUED) != 0) action.append(", deferred for full check");
+        lines.add(action.toString());
+        return lines;
+    }
+
+    /**
+     * Writes all records to a new file in the logs directory, oldest first.
+     * @return the path of the file.
+     * @throws IOException if the file could not be written.
+     */
+    public static Path dump() throws IOException {
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS", Locale.ROOT);
+        Path path = Path.of("logs").resolve("chatnotify-trace-" +
+                new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss", Locale.ROOT).format(new Date()) + ".txt");
+        Files.createDirectories(path.getParent());
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int i = size - 1; i >= 0; i--) {
+                writer.write("[" + timeFormat.format(new Date(times[slot(i)])) + "] " +
+                        getMessage(i) + "\n");
+                for (String line : describe(i)) {
+                    writer.write("    " + line + "\n");
+                }
+            }
+        }
+        ChatNotify.LOG.info("ChatNotify: Decision trace written to {}", path);
+        return path;
+    }
+
+    public static void clear() {
+        Arrays.fill(events, null);
+        Arrays.fill(messages, null);
+        next = 0;
+        size = 0;
+    }
+
+    private static String describeNotif(List<Notification> notifs, int index) {
+        if (index == UNKNOWN_NOTIF) return "unknown notification";
+        if (index >= notifs.size()) return "notification " + (index + 1);
+        List<Trigger> triggers = notifs.get(index).triggers;
+        return "notification " + (index + 1) + " (" +
+                (triggers.isEmpty() ? "No Trigger" : triggers.get(0).string) + ")";
+    }
+
+    private static String describeTrigger(List<Notification> notifs, int notifIndex,
+                                          int index, boolean exclusion) {
+        if (notifIndex != UNKNOWN_NOTIF && notifIndex < notifs.size()) {
+            Notification notif = notifs.get(notifIndex);
+            List<Trigger> triggers = exclusion ? notif.exclusionTriggers : notif.triggers;
+            if (index < triggers.size()) return "'" + triggers.get(index).string + "'";
+        }
+        return (exclusion ? "exclusion trigger " : "trigger ") + (index + 1);
+    }
+
+    private static int slot(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return Math.floorMod(next - 1 - index, CAPACITY);
+    }
+
+    /**
+     * Fixed-size buffer of the events of a single decision.
+     */
+    public static class Buffer implements MatchListener {
+        private final long[] events = new long[MAX_EVENTS];
+        private int size;
+
+        private Buffer() {}
+
+        /**
+         * Adds an event. Notification indices beyond the packed range are
+         * recorded as unknown, and events beyond {@code MAX_EVENTS} are
+         * replaced by a single {@code TRUNCATED} event.
+         * @param type the event type.
+         * @param notif the index of the {@code Notification}.
+         * @param trigger the index of the trigger, or {@code 0} if not
+         *                applicable.
+         */
+        public void add(int type, int notif, int trigger) {
+            if (size == MAX_EVENTS) {
+                events[MAX_EVENTS - 1] = (long) TRUNCATED << 60;
+                return;
+            }
+            if (notif < 0 || notif >= UNKNOWN_NOTIF) notif = UNKNOWN_NOTIF;
+            events[size++] = (long) type << 60 | (long) notif << 32 | trigger & 0xFFFFFFFFL;
+        }
+
+        @Override
+        public void candidate(int notif) {
+            add(CANDIDATE, notif, 0);
+        }
+
+        @Override
+        public void hit(int notif, int trigger) {
+            add(HIT, notif, trigger);
+        }
+
+        @Override
+        public void skipped(int notif, int trigger) {
+            add(SKIPPED, notif, trigger);
+        }
+
+        @Override
+        public void vetoed(int notif, int exclusion) {
+            add(VETO, notif, exclusion);
+        }
+
+        /**
+         * @return a copy of the events.
+         */
+        public long[] toArray() {
+            return Arrays.copyOf(events, size);
+        }
+    }
+}
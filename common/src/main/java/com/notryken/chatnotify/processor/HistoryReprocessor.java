@@ -0,0 +1,169 @@
+package com.notryken.chatnotify.processor;
+
+import com.google.common.collect.MapMaker;
+import com.notryken.chatnotify.config.Config;
+import com.notryken.chatnotify.gui.screen.ConfigScreen;
+import com.notryken.chatnotify.mixin.accessor.ChatComponentAccessor;
+import net.minecraft.client.GuiMessage;
+import net.minecraft.client.GuiMessageTag;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.components.ChatComponent;
+import net.minecraft.client.gui.components.ComponentRenderUtils;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.FormattedCharSequence;
+import net.minecraft.util.Mth;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.notryken.chatnotify.ChatNotify.config;
+
+/**
+ * Re-checks the messages already in the chat history when the config is
+ * changed, so that they are restyled according to the new config.
+ * <p>
+ * Each pass runs incrementally over a snapshot of the history, limited to
+ * half of the processing budget per tick, or of {@code FALLBACK_BUDGET_MILLIS}
+ * if the budget is off, so that it does not delay new messages. Only messages
+ * whose result has changed are replaced, and only their own chat lines are
+ * re-wrapped. Sounds and responses are never activated.
+ * <p>
+ * Only messages that were processed when displayed, and found by the owner
+ * check not to have been sent by the user, are re-checked.
+ * <p>
+ * Only accessed from the client thread.
+ */
+public class HistoryReprocessor {
+    private static final int MAX_LINES = 100;
+    private static final int FALLBACK_BUDGET_MILLIS = 5;
+
+    // Displayed message to original message, or UNMODIFIED, for messages
+    // that were processed and not sent by the user. Weak identity keys, so
+    // entries are dropped with the chat history.
+    private static final Map<Component,Component> ORIGINALS = new MapMaker().weakKeys().makeMap();
+    // Marks a displayed message that is its own original, as the value must
+    // not strongly reference the key
+    private static final Component UNMODIFIED = Component.empty();
+
+    private static final List<GuiMessage> PASS = new ArrayList<>();
+    private static int passIndex = 0;
+    private static int passGeneration = 0;
+
+    /**
+     * Records the original version of a message that has been processed for
+     * display.
+     * @param original the original message.
+     * @param displayed the processed message.
+     * @param notOwn whether the owner check found that the message was not
+     *               sent by the user. Otherwise, the message is never
+     *               re-checked.
+     */
+    public static void record(Component original, Component displayed, boolean notOwn) {
+        if (notOwn) ORIGINALS.put(displayed, displayed == original ? UNMODIFIED : original);
+    }
+
+    /**
+     * Starts a new pass if the config has changed, and continues the current
+     * pass until the budget is used up. Called at the start of each client
+     * tick.
+     */
+    public static void tick() {
+        Config config = config();
+        Minecraft minecraft = Minecraft.getInstance();
+        ChatComponent chat = minecraft.gui.getChat();
+        List<GuiMessage> messages = ((ChatComponentAccessor)chat).chatNotify$getAllMessages();
+
+        if (config.getGeneration() != passGeneration) {
+            passGeneration = config.getGeneration();
+            PASS.clear();
+            passIndex = 0;
+            if (config.reprocessHistory) PASS.addAll(messages);
+        }
+        // Wait until editing is finished and the chat rate is normal
+        if (passIndex >= PASS.size() || minecraft.screen instanceof ConfigScreen
+                || LoadMonitor.isDegraded()) return;
+
+        int budgetMillis = config.processingBudget > 0
+                ? config.processingBudget : FALLBACK_BUDGET_MILLIS;
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L / 2;
+        do {
+            reprocess(chat, messages, PASS.get(passIndex++));
+        } while (passIndex < PASS.size() && System.nanoTime() < deadline);
+
+        if (passIndex >= PASS.size()) PASS.clear();
+    }
+
+    /**
+     * Cancels the current pass, such as on disconnect.
+     */
+    public static void clear() {
+        PASS.clear();
+        passIndex = 0;
+    }
+
+    private static void reprocess(ChatComponent chat, List<GuiMessage> messages, GuiMessage message) {
+        // The message may have been removed or moved since the pass started
+        int index = -1;
+        for (int i = 0; i < messages.size(); i++) {
+            if (messages.get(i) == message) {
+                index = i;
+                break;
+            }
+        }
+        if (index == -1) return;
+
+        Component original = ORIGINALS.get(message.content());
+        if (original == null) return; // Sent by the user, or not processed
+        if (original == UNMODIFIED) original = message.content();
+        Component displayed = MessageProcessor.reprocessMessage(original);
+        if (displayed.equals(message.content())) return;
+
+        record(original, displayed, true);
+        messages.set(index, new GuiMessage(message.addedTime(), displayed,
+                message.signature(), message.tag()));
+        replaceLines(chat, index, message.addedTime(), displayed, message.tag());
+    }
+
+    /**
+     * Replaces the wrapped lines of the message at the specified index of the
+     * chat history, in the same way as {@code ChatComponent#addMessage}.
+     */
+    private static void replaceLines(ChatComponent chat, int index, int addedTime,
+                                     Component content, @Nullable GuiMessageTag tag) {
+        List<GuiMessage.Line> lines = ((ChatComponentAccessor)chat).chatNotify$getTrimmedMessages();
+
+        // Lines are stored newest first, with the last line of each message
+        // marked as the end of its entry.
+        int start = -1;
+        int entry = -1;
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).endOfEntry() && ++entry == index) {
+                start = i;
+                break;
+            }
+        }
+        if (start == -1) return; // Already trimmed
+        int end = start + 1;
+        while (end < lines.size() && !lines.get(end).endOfEntry()) end++;
+
+        int width = Mth.floor((double)chat.getWidth() / chat.getScale());
+        if (tag != null && tag.icon() != null) {
+            width -= tag.icon().width + 4 + 2;
+        }
+        List<FormattedCharSequence> wrapped = ComponentRenderUtils.wrapComponents(
+                content, width, Minecraft.getInstance().font);
+        List<GuiMessage.Line> replacement = new ArrayList<>(wrapped.size());
+        for (int i = wrapped.size() - 1; i >= 0; i--) {
+            replacement.add(new GuiMessage.Line(addedTime, wrapped.get(i), tag, i == wrapped.size() - 1));
+        }
+
+        lines.subList(start, end).clear();
+        lines.addAll(start, replacement);
+        // Re-wrapping may add lines, so trim as ChatComponent#addMessage does
+        while (lines.size() > MAX_LINES) {
+            lines.remove(lines.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.notryken.chatnotify.processor;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.contents.TranslatableContents;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Ring buffer of the translation keys of recent messages, recorded while
+ * debug keys are enabled.
+ * <p>
+ * Recording only stores references to the key, arguments and message
+ * {@code String}, so it does not allocate. Argument shapes are described
+ * when read.
+ * <p>
+ * Only accessed from the client thread.
+ */
+public class KeyInspector {
+    public static final int CAPACITY = 100;
+
+    private static final String[] keys = new String[CAPACITY];
+    private static final Object[][] args = new Object[CAPACITY][];
+    private static final String[] messages = new String[CAPACITY];
+    private static int next = 0;
+    private static int size = 0;
+
+    /**
+     * Records the translation key and arguments of the specified message.
+     * @param msg the message {@code Component}.
+     * @param msgStr the message {@code String}.
+     */
+    public static void record(Component msg, String msgStr) {
+        if (msg.getContents() instanceof TranslatableContents tc) {
+            keys[next] = tc.getKey();
+            args[next] = tc.getArgs();
+        }
+        else {
+            keys[next] = null;
+            args[next] = null;
+        }
+        messages[next] = msgStr;
+        next = (next + 1) % CAPACITY;
+        if (size < CAPACITY) size++;
+    }
+
+    public static int size() {
+        return size;
+    }
+
+    /**
+     * @param index the index, where {@code 0} is the most recent message.
+     * @return the translation key of the message, or {@code null} if the
+     * message is not translatable.
+     */
+    public static @Nullable String getKey(int index) {
+        return keys[slot(index)];
+    }
+
+    /**
+     * @param index the index, where {@code 0} is the most recent message.
+     * @return the message {@code String}.
+     */
+    public static String getMessage(int index) {
+        return messages[slot(index)];
+    }
+
+    /**
+     * @param index the index, where {@code 0} is the most recent message.
+     * @return a description of the type of each translation argument of the
+     * message, or an empty {@code String} if there are none.
+     */
+    public static String getArgShape(int index) {
+        return describeArgs(args[slot(index)]);
+    }
+
+    /**
+     * Describes the type of each of the specified translation arguments, for
+     * example {@code "Component(chat.type.team.text), String"}.
+     * @param args the arguments, or {@code null} if not translatable.
+     * @return the description, or an empty {@code String} if there are no
+     * arguments.
+     */
+    public static String describeArgs(@Nullable Object[] args) {
+        if (args == null || args.length == 0) return "";
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) builder.append(", ");
+            Object arg = args[i];
+            if (arg instanceof Component component) {
+                builder.append("Component");
+                if (component.getContents() instanceof TranslatableContents tc) {
+                    builder.append('(').append(tc.getKey()).append(')');
+                }
+            }
+            else {
+                builder.append(arg == null ? "null" : arg.getClass().getSimpleName());
+            }
+        }
+        return builder.toString();
+    }
+
+    public static void clear() {
+        for (int i = 0; i < CAPACITY; i++) {
+            keys[i] = null;
+            args[i] = null;
+            messages[i] = null;
+        }
+        next = 0;
+        size = 0;
+    }
+
+    private static int slot(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return Math.floorMod(next - 1 - index, CAPACITY);
+    }
+}
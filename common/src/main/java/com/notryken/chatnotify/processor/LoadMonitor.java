@@ -0,0 +1,95 @@
+package com.notryken.chatnotify.processor;
+
+import com.notryken.chatnotify.ChatNotify;
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.chat.Component;
+
+import java.util.Locale;
+
+import static com.notryken.chatnotify.ChatNotify.config;
+
+/**
+ * Tracks the rate of incoming messages over a sliding window, and switches to
+ * a degraded processing mode while the rate is above the configured
+ * threshold.
+ * <p>
+ * In degraded mode, only the username {@code Notification} and
+ * {@code Notification}s marked as critical are checked, regex triggers are
+ * skipped and messages are not restyled by trigger. Normal mode resumes once
+ * the rate drops below half of the threshold.
+ * <p>
+ * Updated only from the client thread, but {@code isDegraded()} may be called
+ * from any thread.
+ */
+public class LoadMonitor {
+    private static final int BUCKET_MILLIS = 250;
+    private static final int BUCKET_COUNT = 20;
+    private static final double WINDOW_SECONDS = BUCKET_MILLIS * BUCKET_COUNT / 1000.0;
+
+    private static final int[] counts = new int[BUCKET_COUNT];
+    private static final long[] epochs = new long[BUCKET_COUNT];
+    private static volatile boolean degraded = false;
+
+    /**
+     * Records the arrival of a message.
+     */
+    public static void record() {
+        long epoch = System.currentTimeMillis() / BUCKET_MILLIS;
+        int index = (int)(epoch % BUCKET_COUNT);
+        if (epochs[index] != epoch) {
+            epochs[index] = epoch;
+            counts[index] = 0;
+        }
+        counts[index]++;
+        update(epoch);
+    }
+
+    /**
+     * Re-evaluates the mode, so that normal mode resumes even if no further
+     * messages arrive. Called each client tick.
+     */
+    public static void tick() {
+        if (degraded) update(System.currentTimeMillis() / BUCKET_MILLIS);
+    }
+
+    public static boolean isDegraded() {
+        return degraded;
+    }
+
+    /**
+     * @return the number of messages per second over the window.
+     */
+    public static double getRate() {
+        return count(System.currentTimeMillis() / BUCKET_MILLIS) / WINDOW_SECONDS;
+    }
+
+    private static int count(long epoch) {
+        int total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (epoch - epochs[i] < BUCKET_COUNT) total += counts[i];
+        }
+        return total;
+    }
+
+    private static void update(long epoch) {
+        int threshold = config().loadSheddingThreshold;
+        double rate = count(epoch) / WINDOW_SECONDS;
+        if (!degraded && threshold > 0 && rate > threshold) {
+            setDegraded(true, rate);
+        }
+        else if (degraded && (threshold <= 0 || rate < threshold / 2.0)) {
+            setDegraded(false, rate);
+        }
+    }
+
+    private static void setDegraded(boolean degraded, double rate) {
+        LoadMonitor.degraded = degraded;
+        String message = degraded ?
+                String.format(Locale.ROOT, "High chat rate (%.1f/s), only checking critical notifications", rate) :
+                String.format(Locale.ROOT, "Chat rate normal (%.1f/s), checking all notifications", rate);
+        ChatNotify.LOG.info("ChatNotify: " + message);
+        Minecraft.getInstance().gui.setOverlayMessage(Component.literal("ChatNotify: " + message)
+                .withStyle(degraded ? ChatFormatting.GOLD : ChatFormatting.GREEN), false);
+    }
+}
@@ -0,0 +1,189 @@
+package com.notryken.chatnotify.processor;
+
+import com.notryken.chatnotify.ChatNotify;
+import com.notryken.chatnotify.jfr.MessageProcessedEvent;
+import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.notryken.chatnotify.ChatNotify.config;
+
+/**
+ * Optional off-thread processing pipeline.
+ * <p>
+ * When enabled, messages are matched on a worker thread as soon as their
+ * packet is received, using {@link MessageProcessor#prepareMessage}. When the
+ * message later reaches the chat mixins on the client thread, the prepared
+ * decision is collected and completed using
+ * {@link MessageProcessor#completeMessage}, so that the owner check, sounds,
+ * responses and the returned {@code Component} are unchanged, and in the same
+ * order.
+ * <p>
+ * The worker never reads the message {@code Component}, as decomposing its
+ * {@code TranslatableContents} is not thread-safe and the client thread
+ * decomposes the same instance when displaying it. The message is flattened
+ * by {@code prefetch()} before its packet is handed over to the client
+ * thread, and the worker only receives the {@code String} and translation
+ * key. Restyling is done on the client thread.
+ * <p>
+ * The worker only reads a {@link ConfigSnapshot} copied on the client thread
+ * for each config generation, and nothing is prefetched while a
+ * {@code ConfigScreen} is open. Results prepared with an older generation, or
+ * collected while a {@code ConfigScreen} is open, are discarded.
+ * <p>
+ * Messages that were not prepared in advance, for example player chat which
+ * is decorated on the client thread, are processed inline.
+ */
+public class MessagePipeline {
+    private static final int MAX_PENDING = 256;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor((runnable) -> {
+        Thread thread = new Thread(runnable, "ChatNotify Message Processor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Oldest first, guarded by itself
+    private static final ArrayDeque<Pending> PENDING = new ArrayDeque<>();
+
+    // Copy of the current config generation, or null if the pipeline is
+    // disabled or a ConfigScreen is open
+    private static volatile @Nullable ConfigSnapshot snapshot = null;
+
+    /**
+     * Updates the config snapshot used by the worker thread. Called each
+     * client tick.
+     */
+    public static void tick() {
+        if (!config().asyncProcessing || MessageProcessor.isEditingConfig()) {
+            snapshot = null;
+        }
+        else {
+            ConfigSnapshot current = snapshot;
+            if (current == null || current.generation != config().getGeneration()) {
+                snapshot = ConfigSnapshot.copyOf(config());
+            }
+        }
+    }
+
+    /**
+     * Flattens the specified message and starts preparing it on the worker
+     * thread, if the pipeline is enabled.
+     * <p>
+     * Must be called from the network thread before the packet is handed over
+     * to the client thread, which publishes the decomposition of the message
+     * to the client thread.
+     * @param msg the message, which must be the same instance later passed to
+     *            {@code process()}.
+     */
+    public static void prefetch(Component msg) {
+        ConfigSnapshot current = snapshot;
+        if (current == null) return;
+        String msgStr = msg.getString();
+        String translationKey = MessageProcessor.getTranslationKey(msg);
+        CompletableFuture<MessageProcessor.PreparedMessage> future = CompletableFuture.supplyAsync(
+                () -> MessageProcessor.prepareMessage(msgStr, translationKey, current), EXECUTOR);
+        synchronized (PENDING) {
+            if (PENDING.size() >= MAX_PENDING) PENDING.poll();
+            PENDING.add(new Pending(msg, future));
+        }
+    }
+
+    /**
+     * Processes the specified message, using the prepared result if it was
+     * prefetched.
+     * <p>
+     * Must be called from the client thread.
+     * @param msg the original message.
+     * @return A modified copy of {@code msg}, or the original if no modifying
+     * was required.
+     * @see MessageProcessor#processMessage
+     */
+    public static Component process(Component msg) {
+        LoadMonitor.record();
+        Metrics.increment(Metrics.Counter.MESSAGES);
+        MessageProcessedEvent event = new MessageProcessedEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Component result = null;
+        CompletableFuture<MessageProcessor.PreparedMessage> future = take(msg);
+        if (future != null) {
+            try {
+                MessageProcessor.PreparedMessage prepared = future.join();
+                // Otherwise prepared with an outdated snapshot, so try again inline
+                if (prepared.isCurrent()) result = MessageProcessor.completeMessage(msg, prepared);
+            } catch (CompletionException e) {
+                ChatNotify.LOG.warn("ChatNotify: Error preparing message off-thread: " + e.getCause());
+            }
+        }
+        if (result == null) {
+            result = MessageProcessor.processMessage(msg);
+        }
+        else {
+            event.prepared = true;
+        }
+        Metrics.time(Metrics.Timer.PROCESS, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.length = msg.getString().length();
+            event.modified = result != msg;
+            event.commit();
+        }
+        HistoryReprocessor.record(msg, result, MessageProcessor.wasLastNotOwn());
+        return result;
+    }
+
+    /**
+     * Discards all pending messages, such as on disconnect.
+     */
+    public static void clear() {
+        synchronized (PENDING) {
+            PENDING.clear();
+        }
+    }
+
+    /**
+     * Removes and returns the pending result for the specified message.
+     * <p>
+     * Messages arrive in the same order as they were prefetched, so any
+     * pending messages before the specified one were never displayed and are
+     * discarded.
+     */
+    private static @Nullable CompletableFuture<MessageProcessor.PreparedMessage> take(Component msg) {
+        synchronized (PENDING) {
+            if (PENDING.isEmpty()) return null;
+            boolean found = false;
+            for (Pending pending : PENDING) {
+                if (pending.message == msg) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return null;
+
+            Iterator<Pending> iter = PENDING.iterator();
+            while (iter.hasNext()) {
+                Pending pending = iter.next();
+                iter.remove();
+                if (pending.message == msg) return pending.future;
+            }
+            return null;
+        }
+    }
+
+    private static class Pending {
+        private final Component message;
+        private final CompletableFuture<MessageProcessor.PreparedMessage> future;
+
+        private Pending(Component message, CompletableFuture<MessageProcessor.PreparedMessage> future) {
+            this.message = message;
+            this.future = future;
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.notryken.chatnotify.processor;
 
-import com.mojang.datafixers.util.Pair;
-import com.notryken.chatnotify.ChatNotify;
 import com.notryken.chatnotify.config.Notification;
 import com.notryken.chatnotify.config.TextStyle;
 import com.notryken.chatnotify.config.Trigger;
+import com.notryken.chatnotify.core.action.ActionDispatcher;
+import com.notryken.chatnotify.core.action.ComponentAdapter;
+import com.notryken.chatnotify.core.match.MatchEngine;
+import com.notryken.chatnotify.core.match.MatchResult;
+import com.notryken.chatnotify.core.match.OwnerCheck;
+import com.notryken.chatnotify.core.match.SpanList;
+import com.notryken.chatnotify.core.match.TextSearch;
+import com.notryken.chatnotify.core.util.FormatCodeUtil;
+import com.notryken.chatnotify.gui.screen.ConfigScreen;
+import com.notryken.chatnotify.jfr.NotificationFiredEvent;
+import com.notryken.chatnotify.jfr.RegexEvaluatedEvent;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.gui.screens.ChatScreen;
-import net.minecraft.client.gui.screens.Screen;
-import net.minecraft.client.resources.sounds.SimpleSoundInstance;
-import net.minecraft.client.resources.sounds.SoundInstance;
 import net.minecraft.network.chat.*;
 import net.minecraft.network.chat.contents.LiteralContents;
 import net.minecraft.network.chat.contents.TranslatableContents;
@@ -18,18 +23,39 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 import static com.notryken.chatnotify.ChatNotify.config;
 import static com.notryken.chatnotify.ChatNotify.recentMessages;
 
 /*
  * Message processing algorithm, starting at processMessage().
+ *
+ * Matching and the sound and response actions are completed by the core
+ * engine, this class adapts it to Minecraft messages and restyles them.
  */
 public class MessageProcessor {
+    // Private-use characters used to locate TranslatableContents args
+    private static final char PROBE_BASE = '\ue000';
+    private static final int PROBE_LIMIT = 0x1000;
+
+    // One in every PROFILE_INTERVAL messages is profiled, must be a power of 2
+    private static final int PROFILE_INTERVAL = 16;
+
+    private static final DecisionCache DECISION_CACHE = new DecisionCache();
+    private static final ComponentAdapter<Component> ADAPTER = new MinecraftComponents();
+    private static final MatchEngine<Notification,Trigger,TextStyle> ENGINE =
+            new MatchEngine<>(TextStyle::isEnabled, MessageProcessor::findRegex);
+    private static final ActionDispatcher<Component,Notification> ACTIONS =
+            new ActionDispatcher<>(ADAPTER, MessageProcessor::playSound, ResponseQueue::queue);
+    private static final OwnerCheck.SentMessages SENT_MESSAGES = new RecentMessages();
+    private static final AtomicInteger PROFILE_COUNTER = new AtomicInteger();
+
+    // Whether the owner check of the last message completed on the client
+    // thread found that it was not sent by the user
+    private static boolean lastNotOwn = false;
 
     /**
      * Initiates the message processing algorithm.
@@ -38,31 +64,299 @@ public class MessageProcessor {
      * was required.
      */
     public static Component processMessage(Component msg) {
-        if (config().debugShowKey) {
-            msg = addKeyInfo(msg);
+        lastNotOwn = false;
+        if (ProcessingScheduler.isExhausted()) {
+            return processMessageCheap(msg);
         }
+        long start = System.nanoTime();
+        Component result = completeMessage(msg, prepareMessage(msg));
+        ProcessingScheduler.record(System.nanoTime() - start);
+        return result;
+    }
 
+    /**
+     * Degraded version of the message processing algorithm, used when the
+     * processing budget of the current tick has been used up.
+     * <p>
+     * Only literal and key triggers are checked, and the message is not
+     * restyled. If no {@code Notification} is activated but regex triggers
+     * were skipped, the message is deferred to be fully checked on a later
+     * tick, with only the sound and response actions completed.
+     * @param msg the original message.
+     * @return {@code msg}, or a copy with key info if enabled.
+     */
+    private static Component processMessageCheap(Component msg) {
+        Metrics.increment(Metrics.Counter.DEGRADED);
         String msgStr = msg.getString();
-        if (msgStr.isBlank()) return msg; // Ignore blank messages
+        if (config().debugShowKey) {
+            KeyInspector.record(msg, msgStr);
+            cheapActions(msg, msgStr);
+            return addKeyInfo(msg, msg);
+        }
+        cheapActions(msg, msgStr);
+        return msg;
+    }
+
+    private static void cheapActions(Component msg, String msgStr) {
+        if (msgStr.isBlank()) return;
+        long start = System.nanoTime();
         String checkedMsgStr = checkOwner(msgStr);
-        Component modifiedMsg = null;
+        Metrics.time(Metrics.Timer.OWNER_CHECK, start);
+        if (checkedMsgStr == null) {
+            trace(msgStr, null, null, DecisionTrace.DEGRADED);
+            return;
+        }
+        lastNotOwn = checkedMsgStr == msgStr;
+
+        boolean shed = LoadMonitor.isDegraded();
+        DecisionCache.Decision decision = decide(liveConfig(), ADAPTER.getTranslationKey(msg),
+                msgStr, checkedMsgStr, true, shed);
+        if (decision.notif != null) {
+            recordActivation(decision);
+            ACTIONS.dispatch(msg, decision.notif, decision.captures);
+            trace(msgStr, checkedMsgStr, decision, DecisionTrace.DEGRADED);
+        }
+        else if (decision.incomplete && !shed) {
+            ProcessingScheduler.defer(msg, msgStr, checkedMsgStr);
+            trace(msgStr, checkedMsgStr, decision,
+                    DecisionTrace.DEGRADED | DecisionTrace.DEFER_QUEUED);
+        }
+        else {
+            trace(msgStr, checkedMsgStr, decision, DecisionTrace.DEGRADED);
+        }
+    }
+
+    /**
+     * Fully checks a message that was deferred by the degraded algorithm, and
+     * completes the sound and response actions of the first activated
+     * {@code Notification}. The message has already been displayed, so is
+     * not restyled.
+     * @param msg the message {@code Component}.
+     * @param msgStr the message {@code String}.
+     * @param checkedMsgStr the owner-checked version of {@code msgStr}.
+     */
+    static void processDeferred(Component msg, String msgStr, String checkedMsgStr) {
+        ConfigSnapshot snapshot = liveConfig();
+        DecisionCache.Decision decision = resolve(snapshot, ADAPTER.getTranslationKey(msg),
+                msgStr, checkedMsgStr, checkedMsgStr == msgStr && !snapshot.editing);
+        if (decision.notif != null) {
+            recordActivation(decision);
+            ACTIONS.dispatch(msg, decision.notif, decision.captures);
+        }
+        trace(msgStr, checkedMsgStr, decision, DecisionTrace.DEFERRED);
+    }
+
+    /**
+     * Completes the parts of the message processing algorithm that do not
+     * depend on client state, on the assumption that the message was not sent
+     * by the user, using the live config.
+     * <p>
+     * Must be called from the client thread.
+     * @param msg the original message.
+     * @return the {@code PreparedMessage}, to be passed to
+     * {@code completeMessage()}.
+     */
+    public static PreparedMessage prepareMessage(Component msg) {
+        return prepareMessage(msg.getString(), ADAPTER.getTranslationKey(msg), liveConfig());
+    }
 
-        if (checkedMsgStr != null) {
-            modifiedMsg = tryNotify(msg.copy(), msgStr, checkedMsgStr);
+    /**
+     * As {@link #prepareMessage(Component)}, for a message already flattened,
+     * using the specified view or copy of the config.
+     * <p>
+     * Only the decision is prepared, as restyling reads the message
+     * {@code Component}, whose {@code TranslatableContents} are not safe to
+     * decompose from more than one thread. This method does not modify any
+     * client state. If {@code snapshot} is a copy, it may be called from any
+     * thread.
+     * @param msgStr the message {@code String}.
+     * @param translationKey the translation key of the message, if any.
+     */
+    static PreparedMessage prepareMessage(String msgStr, @Nullable String translationKey,
+                                          ConfigSnapshot snapshot) {
+        if (msgStr.isBlank()) {
+            return new PreparedMessage(null, translationKey, null, false, false, snapshot.generation);
+        }
+
+        if (LoadMonitor.isDegraded()) {
+            DecisionCache.Decision decision = decide(snapshot, translationKey, msgStr, msgStr,
+                    true, true);
+            return new PreparedMessage(msgStr, translationKey, decision, true, false,
+                    snapshot.generation);
+        }
+
+        // The cache is bypassed while the config is being edited
+        boolean cacheable = !snapshot.editing;
+        DecisionCache.Decision decision = resolve(snapshot, translationKey, msgStr, msgStr, cacheable);
+        return new PreparedMessage(msgStr, translationKey, decision, false, cacheable,
+                snapshot.generation);
+    }
+
+    /**
+     * Completes the message processing algorithm for a prepared message,
+     * re-processing it if it was sent by the user, restyles it, and completes
+     * the sound and response actions of the first activated
+     * {@code Notification}.
+     * <p>
+     * Must be called from the client thread.
+     * @param msg the original message.
+     * @param prepared the {@code PreparedMessage} of {@code msg}.
+     * @return A modified copy of the original message, or the original if no
+     * modifying was required.
+     */
+    public static Component completeMessage(Component msg, PreparedMessage prepared) {
+        lastNotOwn = false;
+        if (config().debugShowKey) {
+            KeyInspector.record(msg, prepared.msgStr == null ? "" : prepared.msgStr);
+            return addKeyInfo(msg, complete(msg, prepared));
+        }
+        return complete(msg, prepared);
+    }
+
+    private static Component complete(Component msg, PreparedMessage prepared) {
+        String msgStr = prepared.msgStr;
+        if (msgStr == null) return msg;
+
+        long start = System.nanoTime();
+        String checkedMsgStr = checkOwner(msgStr);
+        Metrics.time(Metrics.Timer.OWNER_CHECK, start);
+        if (checkedMsgStr == null) {
+            trace(msgStr, null, null, prepared.shed ? DecisionTrace.DEGRADED : 0);
+            return msg;
+        }
+        lastNotOwn = checkedMsgStr == msgStr;
+
+        DecisionCache.Decision decision = prepared.decision;
+        boolean cacheable = prepared.cacheable;
+        if (checkedMsgStr != msgStr) {
+            // Sent by the user, so the prepared decision is not valid
+            cacheable = false;
+            decision = prepared.shed
+                    ? decide(liveConfig(), prepared.translationKey, msgStr, checkedMsgStr, true, true)
+                    : resolve(liveConfig(), prepared.translationKey, msgStr, checkedMsgStr, false);
+        }
+
+        trace(msgStr, checkedMsgStr, decision, prepared.shed ? DecisionTrace.DEGRADED : 0);
+        if (decision.notif == null) return msg;
+        Component restyled = prepared.shed
+                ? restyleShed(msg, decision)
+                : restyle(msg, decision, cacheable);
+        recordActivation(decision);
+        ACTIONS.dispatch(msg, decision.notif, decision.captures);
+        return restyled;
+    }
+
+    /**
+     * Re-processes a message that is already displayed, such as after the
+     * config is changed. Must only be used for messages that the owner check
+     * found were not sent by the user, as it is not repeated. No sound or
+     * response actions are completed.
+     * @param msg the original message.
+     * @return A modified copy of the original message, or the original if no
+     * modifying was required.
+     */
+    public static Component reprocessMessage(Component msg) {
+        PreparedMessage prepared = prepareMessage(msg);
+        DecisionCache.Decision decision = prepared.decision;
+        Component result = msg;
+        if (decision != null && decision.notif != null) {
+            result = prepared.shed
+                    ? restyleShed(msg, decision)
+                    : restyle(msg, decision, prepared.cacheable);
         }
+        return config().debugShowKey ? addKeyInfo(msg, result) : result;
+    }
+
+    /**
+     * Must be called from the client thread.
+     * @return {@code true} if the owner check of the last message processed
+     * or completed found that it was not sent by the user, {@code false} if
+     * it was, or if the message was blank.
+     */
+    public static boolean wasLastNotOwn() {
+        return lastNotOwn;
+    }
+
+    /**
+     * @return the translation key of the message, if any.
+     */
+    static @Nullable String getTranslationKey(Component msg) {
+        return ADAPTER.getTranslationKey(msg);
+    }
+
+    public static DecisionCache getDecisionCache() {
+        return DECISION_CACHE;
+    }
+
+    /**
+     * Must be called from the client thread.
+     * @return a view of the live config.
+     */
+    private static ConfigSnapshot liveConfig() {
+        return ConfigSnapshot.of(config(), isEditingConfig());
+    }
 
-        return (modifiedMsg == null ? msg : modifiedMsg);
+    /**
+     * Must be called from the client thread.
+     * @return {@code true} if a {@code ConfigScreen} is open. Always
+     * {@code false} outside the game, such as in benchmarks.
+     */
+    static boolean isEditingConfig() {
+        Minecraft minecraft = Minecraft.getInstance();
+        return minecraft != null && minecraft.screen instanceof ConfigScreen;
+    }
+
+    /**
+     * Records the outcome of processing a message in the
+     * {@code DecisionTrace}, if enabled.
+     * @param msgStr the message {@code String}.
+     * @param checkedMsgStr the owner-checked version of {@code msgStr}, or
+     *                      {@code null} if the message was ignored.
+     * @param decision the decision, or {@code null} if the message was
+     *                 ignored.
+     * @param flags the {@code DecisionTrace} flags of the processing path.
+     */
+    private static void trace(String msgStr, @Nullable String checkedMsgStr,
+                              @Nullable DecisionCache.Decision decision, int flags) {
+        if (!DecisionTrace.isEnabled()) return;
+        byte outcome = checkedMsgStr == null ? DecisionTrace.OWN_IGNORED
+                : checkedMsgStr == msgStr ? DecisionTrace.NOT_OWN : DecisionTrace.OWN_STRIPPED;
+        int notifIndex = -1;
+        if (decision != null && decision.notif != null) {
+            notifIndex = decision.notifIndex;
+            if (decision.notif.sound.isEnabled()) flags |= DecisionTrace.SOUND;
+            if (decision.notif.responseEnabled
+                    && !decision.notif.getResponseTemplates().isEmpty()) {
+                flags |= DecisionTrace.RESPONSE;
+            }
+        }
+        DecisionTrace.record(msgStr, outcome, notifIndex, flags,
+                decision == null ? null : decision.trace);
     }
 
-    public static Component addKeyInfo(Component msg) {
+    /**
+     * Attaches the translation key info of a message to the root of its
+     * processed version, as a hover event and a click event to copy the key.
+     * Any events of the root are overwritten, but those of its siblings are
+     * not.
+     * @param msg the original message.
+     * @param result the processed message.
+     * @return a shallow copy of {@code result} with the key info.
+     * @see KeyInspector
+     */
+    private static Component addKeyInfo(Component msg, Component result) {
         Style newStyle;
         // Create new Hover and Click events
         if (msg.getContents() instanceof TranslatableContents tc) {
+            MutableComponent hover = Component.literal("Key: " + tc.getKey());
+            String argShape = KeyInspector.describeArgs(tc.getArgs());
+            if (!argShape.isEmpty()) {
+                hover.append(Component.literal("\nArgs: " + argShape).withStyle(ChatFormatting.GRAY));
+            }
             newStyle = Style.EMPTY
                     .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT,
-                            Component.literal("Key: " + tc.getKey())
-                                    .append(Component.literal("\n[Click to Copy]")
-                                            .withStyle(ChatFormatting.GOLD))))
+                            hover.append(Component.literal("\n[Click to Copy]")
+                                    .withStyle(ChatFormatting.GOLD))))
                     .withClickEvent(new ClickEvent(ClickEvent.Action.COPY_TO_CLIPBOARD,
                             tc.getKey()));
         }
@@ -72,190 +366,191 @@ public class MessageProcessor {
                             Component.literal("Message is not translatable")
                                     .withStyle(ChatFormatting.GRAY)));
         }
-        // Overwrite existing events
-        return overwriteStyle(newStyle, msg.copy());
-    }
-
-    public static MutableComponent overwriteStyle(Style style, MutableComponent msg) {
-        msg.setStyle(style.applyTo(msg.getStyle()));
-        msg.getSiblings().replaceAll((sibling) -> overwriteStyle(style, sibling.copy()));
-        return msg;
+        // Overwrite existing events of the root only
+        return result.copy().setStyle(newStyle.applyTo(result.getStyle()));
     }
 
     /**
-     * Determines whether {@code strMsg} was sent by the user and modifies it if
-     * necessary to prevent unwanted notifications.
-     * <p>
-     * {@code strMsg} is identified as sent by the user if it contains a stored
-     * message (or command) sent by the user, and has a prefix that is both not
-     * contained in the stored message, and contains (according to
-     * {@code msgContainsStr()}) a trigger of the username {@code Notification}.
-     * <p>
-     * If {@code strMsg} is positively identified, it is set to {@code null} if
-     * the configuration {@code ignoreOwnMessages} is true, else the part of the
-     * prefix that matched a trigger is removed.
-     * <p>
-     * <b>Note:</b> This approach is imperfect and may fail if, for example,
-     * two messages are sent, the first contains the second, and the return of
-     * the second message arrives first.
+     * Determines whether {@code msgStr} was sent by the user and modifies it
+     * if necessary to prevent unwanted notifications, using the triggers of
+     * the username {@code Notification}.
      * @param msgStr the message {@code String} to process.
-     * @return the processed version of {@code strMsg}.
-     */
-    private static @Nullable String checkOwner(String msgStr) {
-        // Stored messages are always converted to lowercase, convert to match.
-        String msgStrLow = msgStr.toLowerCase(Locale.ROOT);
-        // Check for a matching stored message
-        for (int i = 0; i < recentMessages.size(); i++) {
-            int lastMatchIdx = msgStrLow.lastIndexOf(recentMessages.get(i).getSecond());
-            if (lastMatchIdx > 0) {
-                // Check for a trigger in the part before the match
-                String prefix = msgStr.substring(0, lastMatchIdx);
-                for (Trigger trigger : config().getNotifs().get(0).triggers) {
-                    Pair<Integer,Integer> prefixMatch = msgContainsStr(prefix, trigger.string, false);
-                    if (prefixMatch != null) {
-                        // Both conditions are now satisfied
-                        // Remove the matching stored message
-                        recentMessages.remove(i);
-                        // Modify the message string
-                        if (!ChatNotify.config().checkOwnMessages) {
-                            msgStr = null;
-                        }
-                        else {
-                            msgStr = msgStr.substring(0, prefixMatch.getFirst()) +
-                                    msgStr.substring(prefixMatch.getSecond());
-                        }
-                        return msgStr;
-                    }
-                }
-            }
-        }
-        return msgStr;
+     * @return the processed version of {@code msgStr}, or {@code null} if it
+     * was sent by the user and the configuration {@code checkOwnMessages} is
+     * false.
+     * @see OwnerCheck#check
+     */
+    static @Nullable String checkOwner(String msgStr) {
+        return OwnerCheck.check(msgStr, SENT_MESSAGES, config().getUserNotification().triggers,
+                config().checkOwnMessages);
     }
 
     /**
-     * For each trigger of each ChatNotify {@code Notification}, checks whether
-     * the trigger matches the given message using {@code msgContainsStr()}.
-     * <p>
-     * When a trigger matches, checks the exclusion triggers of the
-     * {@code Notification} to determine whether to activate the notification.
-     * <p>
-     * If the notification should be activated, attempts to complete the
-     * relevant notification actions.
-     * <p>
-     * <b>Note:</b> For performance and simplicity reasons, this method only
-     * allows one notification to be triggered by a given message.
-     * @param message the original message {@code Component}.
+     * Determines which {@code Notification}s the message activates, using a
+     * cached decision if possible.
+     * @param snapshot the view or copy of the config to match against.
+     * @param translationKey the translation key of the message, if any.
      * @param msgStr the message {@code String}.
      * @param checkedMsgStr the owner-checked version of {@code msgStr}.
-     * @return a re-styled copy of {@code msg}, or null if no trigger matched.
-     */
-    private static Component tryNotify(Component message, String msgStr, String checkedMsgStr) {
-        for (Notification notif : ChatNotify.config().getNotifs()) {
-            if (notif.isEnabled() && !notif.editing) {
-                for (Trigger trigger : notif.triggers) {
-                    if (!trigger.string.isBlank()) {
-                        if (triggerMatched(notif, trigger, message, msgStr, checkedMsgStr)) {
-                            boolean excluded = false;
-                            if (notif.exclusionEnabled) {
-                                for (Trigger exclTrigger : notif.exclusionTriggers) {
-                                    if (triggerMatched(notif, exclTrigger, message, msgStr, checkedMsgStr)) {
-                                        excluded = true;
-                                        break;
-                                    }
-                                }
-                            }
-                            if (!excluded) {
-                                playSound(notif);
-                                sendResponses(notif);
-                                return (trigger.isKey() || trigger.isRegex) ?
-                                        simpleRestyle(message, notif) :
-                                        complexRestyle(message, trigger.string, notif);
-                            }
-                        }
-                    }
-                }
-            }
+     * @param cacheable whether the decision may be read from and stored in
+     *                  the decision cache. Must only be {@code true} if
+     *                  {@code checkedMsgStr} is {@code msgStr}.
+     * @return the decision.
+     */
+    private static DecisionCache.Decision resolve(ConfigSnapshot snapshot,
+                                                  @Nullable String translationKey,
+                                                  String msgStr, String checkedMsgStr,
+                                                  boolean cacheable) {
+        DecisionCache.Decision decision = null;
+        if (cacheable) {
+            decision = DECISION_CACHE.get(snapshot.generation, snapshot.decisionCacheSize,
+                    msgStr, translationKey);
         }
-        return null;
+        if (decision == null) {
+            decision = decide(snapshot, translationKey, msgStr, checkedMsgStr, false, false);
+            if (cacheable) DECISION_CACHE.put(snapshot.generation, msgStr, translationKey, decision);
+        }
+        return decision;
     }
 
-    private static boolean triggerMatched(Notification notif, Trigger trigger,
-                                          Component message, String msgStr, String checkedMsgStr) {
-        boolean match = false;
-        if (trigger.isKey()) {
-            if (trigger.string.equals(".")) {
-                match = true;
-            }
-            else if (message.getContents() instanceof TranslatableContents tc) {
-                if (tc.getKey().contains(trigger.string)) {
-                    match = true;
-                }
-            }
+    /**
+     * Restyles the message according to the specified decision, re-using the
+     * restyled {@code Component} of the decision if possible.
+     * @param message the original message {@code Component}.
+     * @param decision the decision, with a non-null {@code notif}.
+     * @param cacheable whether the restyled {@code Component} may be read
+     *                  from and stored in the decision.
+     * @return a re-styled copy of {@code msg}.
+     */
+    private static Component restyle(Component message, DecisionCache.Decision decision,
+                                     boolean cacheable) {
+        Component restyled = cacheable ? decision.getRestyled(message) : null;
+        if (restyled == null) {
+            long start = System.nanoTime();
+            restyled = message;
+            if (decision.simpleNotif != null) restyled = simpleRestyle(restyled, decision.simpleNotif);
+            restyled = complexRestyle(restyled, decision.highlights);
+            if (cacheable) decision.setRestyled(message, restyled);
+            Metrics.time(Metrics.Timer.RESTYLING, start);
         }
-        else if (msgContainsStr(notif.allowRegex && trigger.isRegex ? msgStr : checkedMsgStr,
-                trigger.string, notif.allowRegex && trigger.isRegex) != null) {
-            match = true;
+        return restyled;
+    }
+
+    /**
+     * Restyles the message according to the specified decision made in
+     * degraded mode, skipping {@code complexRestyle()}.
+     * @param message the original message {@code Component}.
+     * @param decision the decision, with a non-null {@code notif}.
+     * @return a re-styled copy of {@code msg}, or {@code msg} itself.
+     */
+    private static Component restyleShed(Component message, DecisionCache.Decision decision) {
+        return decision.simpleNotif == null ? message : simpleRestyle(message, decision.simpleNotif);
+    }
+
+    /**
+     * Determines which {@code Notification}s the message activates, using the
+     * {@code MatchEngine}.
+     * <p>
+     * The activated {@code Notification} of the decision is always a live
+     * one. Triggers are not profiled if {@code snapshot} is a copy, as the
+     * samples would be recorded on the copies.
+     * @param snapshot the view or copy of the config to match against.
+     * @param translationKey the translation key of the message, if any.
+     * @param msgStr the message {@code String}.
+     * @param checkedMsgStr the owner-checked version of {@code msgStr}.
+     * @param skipRegex whether to skip regex triggers.
+     * @param criticalOnly whether to skip all {@code Notification}s other
+     *                     than the username {@code Notification} and those
+     *                     marked as critical.
+     * @return the decision, which depends only on {@code msgStr},
+     * {@code checkedMsgStr} and {@code translationKey}, or
+     * an incomplete decision if {@code skipRegex} is {@code true}, no
+     * {@code Notification} was activated and a regex trigger was skipped. If
+     * tracing is enabled, the decision includes its trace events.
+     * @see MatchEngine#match
+     */
+    private static DecisionCache.Decision decide(ConfigSnapshot snapshot,
+                                                 @Nullable String translationKey,
+                                                 String msgStr, String checkedMsgStr,
+                                                 boolean skipRegex, boolean criticalOnly) {
+        long start = System.nanoTime();
+        boolean profile = !snapshot.isCopy()
+                && (PROFILE_COUNTER.getAndIncrement() & (PROFILE_INTERVAL - 1)) == 0;
+        DecisionTrace.Buffer trace = snapshot.traceDecisions ? DecisionTrace.buffer() : null;
+
+        MatchResult<Notification,Trigger,TextStyle> result = ENGINE.match(
+                snapshot.notifs, snapshot.getUserNotification(), msgStr, checkedMsgStr,
+                translationKey, skipRegex, criticalOnly, profile, trace);
+
+        long[] events = trace == null ? null : trace.toArray();
+        Metrics.time(Metrics.Timer.MATCHING, start);
+        if (result.activated == null && events == null) {
+            return result.skipped ? DecisionCache.Decision.INCOMPLETE : DecisionCache.Decision.NONE;
         }
-        return match;
+        return new DecisionCache.Decision(snapshot.toLive(result.activated), result.activatedIndex,
+                result.activatedBy, result.captures, result.simpleNotif, result.highlights,
+                result.activated == null && result.skipped, events);
     }
 
     /**
-     * If {@code strIsRegex} is {@code true}, attempts to compile {@code str}
-     * as a regex pattern. Else, compiles
-     * {@code (?<!\w)((\W?|(§[a-z0-9])+)(?i)<str>\W?)(?!\w)}. Uses the compiled
-     * pattern to search {@code strMsg}.
+     * Uses the compiled regex pattern of {@code trigger} to search
+     * {@code strMsg}, as {@code TextSearch.findRegex()}, recording the
+     * evaluation as a JFR event if enabled.
      * @param strMsg the {@code String} to search in.
-     * @param str the {@code String} or regex to search with.
-     * @param strIsRegex control flag for whether to compile str as a pattern.
-     * @return n integer array [start,end] of the match, or {@code null} if not
-     * found or if strIsRegex is true and str does not represent a valid regex.
-     */
-    private static Pair<Integer,Integer> msgContainsStr(String strMsg, String str, boolean strIsRegex) {
-        try {
-            Matcher matcher = strIsRegex ? Pattern.compile(str).matcher(strMsg) :
-                    Pattern.compile("(?<!\\w)((\\W?|(§[a-z0-9])+)(?i)" +
-                    Pattern.quote(str) + "\\W?)(?!\\w)").matcher(strMsg);
-            if (matcher.find()) {
-                return Pair.of(matcher.start(), matcher.end());
+     * @param trigger the regex {@code Trigger} to search with.
+     * @return the {@code Matcher}, positioned at the first match, or
+     * {@code null} if not found or if the trigger string does not represent a
+     * valid regex.
+     */
+    private static @Nullable Matcher findRegex(String strMsg, Trigger trigger) {
+        Pattern pattern = trigger.getPattern(true);
+        if (pattern != null) {
+            RegexEvaluatedEvent event = new RegexEvaluatedEvent();
+            event.begin();
+            Matcher matcher = pattern.matcher(strMsg);
+            boolean found = matcher.find();
+            event.end();
+            if (event.shouldCommit()) {
+                event.patternId = System.identityHashCode(trigger);
+                event.pattern = pattern.pattern();
+                event.length = strMsg.length();
+                event.matched = found;
+                event.commit();
+            }
+            if (found) {
+                return matcher;
             }
-        } catch (PatternSyntaxException e) {
-            ChatNotify.LOG.warn("ChatNotify: Error processing regex: " + e);
         }
         return null;
     }
 
     /**
-     * Plays the sound of the specified {@code Notification}, if the relevant
-     * control is enabled.
+     * Queues the sound of the specified {@code Notification} to be played, if
+     * the relevant control is enabled.
      * @param notif the {@code Notification}.
+     * @see SoundDispatcher
      */
     private static void playSound(Notification notif) {
         if (notif.sound.isEnabled()) {
-            Minecraft.getInstance().getSoundManager().play(
-                    new SimpleSoundInstance(
-                            notif.sound.getResourceLocation(), config().soundSource,
-                            notif.sound.getVolume(), notif.sound.getPitch(),
-                            SoundInstance.createUnseededRandom(), false, 0,
-                            SoundInstance.Attenuation.NONE, 0, 0, 0, true));
+            SoundDispatcher.queue(notif.sound);
         }
     }
 
     /**
-     * Sends all response messages of the specified {@code Notification}, if the
-     * relevant control is enabled.
-     * @param notif the {@code Notification}.
+     * Records the activation of the {@code Notification} of the specified
+     * decision in the metrics, and as a JFR event if enabled.
+     * @param decision the decision, with a non-null {@code notif}.
      */
-    private static void sendResponses(Notification notif) {
-        if (notif.responseEnabled) {
-            Minecraft minecraft = Minecraft.getInstance();
-            Screen oldScreen = minecraft.screen;
-            minecraft.setScreen(new ChatScreen(""));
-            for (String response : notif.responseMessages) {
-                if (minecraft.screen instanceof ChatScreen cs) {
-                    cs.handleChatInput(response, false);
-                }
-            }
-            minecraft.setScreen(oldScreen);
+    private static void recordActivation(DecisionCache.Decision decision) {
+        Notification notif = decision.notif;
+        Metrics.recordHit(notif);
+        NotificationFiredEvent event = new NotificationFiredEvent();
+        if (event.shouldCommit()) {
+            event.index = decision.notifIndex;
+            event.trigger = decision.trigger == null ? "" : decision.trigger.string;
+            event.sound = notif.sound.isEnabled();
+            event.responses = notif.responseEnabled ? notif.responseMessages.size() : 0;
+            event.commit();
         }
     }
 
@@ -276,209 +571,267 @@ public class MessageProcessor {
     }
 
     /**
-     * If the color or format controls of the specified {@code Notification} are
-     * enabled, initiates a recursive {@code Component} break-down algorithm
-     * to restyle only the part of the specified {@code Component} that matches
-     * the specified trigger.
+     * Initiates a recursive {@code Component} break-down algorithm to restyle
+     * only the parts of the specified {@code Component} that match the
+     * specified highlights, in a single walk of the {@code Component} tree.
      * @param msg the {@code Component} to restyle.
-     * @param trigger the {@code String} to restyle in the specified
-     * {@code Component}.
-     * @param notif the {@code Notification} to draw the {@code Style} from.
+     * @param highlights the parts of the message to restyle, in flattened
+     *                   message coordinates.
      * @return the restyled {@code Component}.
      */
-    private static Component complexRestyle(Component msg, String trigger, Notification notif) {
-        if (notif.textStyle.isEnabled()) {
-            msg = restyleComponent(msg.copy(), trigger, notif.textStyle);
+    static Component complexRestyle(Component msg, SpanList<TextStyle> highlights) {
+        if (!highlights.isEmpty()) {
+            msg = restyleComponent(msg, new RestyleContext(highlights));
         }
         return msg;
     }
 
     /**
-     * Recursively deconstructs the specified {@code MutableComponent} to
-     * find and restyle only the specified trigger.
-     * @param msg the {@code MutableComponent} to restyle.
-     * @param trigger the {@code String} to restyle.
-     * @param textStyle the {@code TextStyle} to apply.
-     * @return the {@code MutableComponent}, restyled if possible.
+     * Recursively deconstructs the specified {@code Component} to find and
+     * restyle only the highlights of the specified context.
+     * <p>
+     * The specified {@code Component} is never modified. Any part of the tree
+     * that does not contain a highlight is shared with the returned
+     * {@code Component}, rather than copied.
+     * @param msg the {@code Component} to restyle.
+     * @param ctx the {@code RestyleContext}.
+     * @return a restyled copy of {@code msg}, or {@code msg} itself if no
+     * highlight was found.
      */
-    private static MutableComponent restyleComponent(MutableComponent msg, String trigger,
-                                                     TextStyle textStyle) {
+    private static Component restyleComponent(Component msg, RestyleContext ctx) {
+        // Nothing left to restyle
+        if (ctx.offset >= ctx.end) return msg;
 
         if (msg.getContents() instanceof LiteralContents) {
             // LiteralContents is typically the lowest level
-            msg = restyleContents(msg, trigger, textStyle);
+            return restyleContents(msg, ctx);
         }
         else if (msg.getContents() instanceof TranslatableContents contents) {
-            // Recurse for all args
-            Object[] args = contents.getArgs();
-            for (int i = 0; i < contents.getArgs().length; i++) {
-                if (args[i] instanceof Component argComponent) {
-                    args[i] = restyleComponent(argComponent.copy(), trigger, textStyle);
-                }
-                else if (args[i] instanceof String argString) {
-                    args[i] = restyleComponent(Component.literal(argString), trigger, textStyle);
-                }
-            }
-            // Reconstruct
-            msg = MutableComponent.create(new TranslatableContents(
-                    contents.getKey(), contents.getFallback(), args))
-                    .setStyle(msg.getStyle());
+            // Recurse for all args, only copying the array if an arg changes
+            Object[] newArgs = restyleArgs(contents, ctx);
+            List<Component> newSiblings = restyleSiblings(msg.getSiblings(), ctx);
+            if (newArgs == null && newSiblings == null) return msg;
+
+            // Reconstruct, re-using the original contents if no arg changed
+            // so that its cached decomposition remains valid
+            return rebuild(newArgs == null ? contents : new TranslatableContents(
+                    contents.getKey(), contents.getFallback(), newArgs),
+                    msg.getStyle(), newSiblings == null ? msg.getSiblings() : newSiblings);
         }
         else {
+            if (msg.getContents() != ComponentContents.EMPTY) {
+                ctx.offset += MutableComponent.create(msg.getContents()).getString().length();
+            }
             // Recurse for all siblings
-            msg.getSiblings().replaceAll(text -> restyleComponent(text.copy(), trigger, textStyle));
+            List<Component> newSiblings = restyleSiblings(msg.getSiblings(), ctx);
+            if (newSiblings == null) return msg;
+            return rebuild(msg.getContents(), msg.getStyle(), newSiblings);
         }
-        return msg;
     }
 
     /**
-     * If the contents of the specified {@code MutableComponent} is an instance
-     * of {@code LiteralContents}, deconstructs, restyles and reconstructs
-     * the {@code} MutableComponent with the objective of applying the specified
-     * {@code Style} to only the occurrence of the specified trigger.
-     * @param msg the {@code MutableComponent} to restyle.
-     * @param trigger the {@code String} to restyle within the
-     *                {@code MutableComponent}.
-     * @param textStyle the {@code TextStyle} to apply.
-     * @return the {@code MutableComponent}, restyled if possible.
+     * Restyles each of the args of the specified {@code TranslatableContents}
+     * in the order that they appear in the translated message, keeping the
+     * offset of the context in step with the flattened message.
+     * <p>
+     * The position of each arg is found by translating a probe copy of the
+     * contents, with each arg replaced by a single private-use character. The
+     * args of contents with more args than there are probe characters are
+     * not restyled.
+     * @param contents the {@code TranslatableContents} to restyle.
+     * @param ctx the {@code RestyleContext}.
+     * @return a new array containing the restyled args, or {@code null} if no
+     * arg contained a highlight.
      */
-    private static MutableComponent restyleContents(MutableComponent msg,
-                                                    String trigger, TextStyle textStyle) {
-        if (!(msg.getContents() instanceof LiteralContents contents)) return msg;
-
-        String msgStr = contents.text();
-        Pair<Integer,Integer> triggerMatch = msgContainsStr(msgStr, trigger, false);
-
-        if (triggerMatch == null) {
-            // Trigger not found, try siblings
-            msg.getSiblings().replaceAll(text -> restyleComponent(text.copy(), trigger, textStyle));
+    private static @Nullable Object[] restyleArgs(TranslatableContents contents,
+                                                  RestyleContext ctx) {
+        Object[] args = contents.getArgs();
+        if (args.length > PROBE_LIMIT) {
+            ctx.offset += MutableComponent.create(contents).getString().length();
+            return null;
         }
-        else {
-            // Trigger found, restyle
-            List<Component> siblings = msg.getSiblings();
 
-            if (siblings.isEmpty()) {
-                // Split, restyle and reconstruct
-
-                int matchFirst = triggerMatch.getFirst();
-                int matchLast = triggerMatch.getSecond();
+        Object[] probeArgs = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            probeArgs[i] = String.valueOf((char)(PROBE_BASE + i));
+        }
+        String probe = MutableComponent.create(new TranslatableContents(
+                contents.getKey(), contents.getFallback(), probeArgs)).getString();
+
+        Object[] newArgs = null;
+        boolean[] visited = new boolean[args.length];
+        for (int i = 0; i < probe.length(); i++) {
+            int argIndex = probe.charAt(i) - PROBE_BASE;
+            if (argIndex < 0 || argIndex >= args.length) {
+                // Part of the translated template
+                ctx.offset++;
+            }
+            else if (visited[argIndex]) {
+                // Repeated arg, only restyle the first occurrence
+                ctx.offset += argLength(args[argIndex]);
+            }
+            else {
+                visited[argIndex] = true;
+                Object newArg = restyleArg(args[argIndex], ctx);
+                if (newArg != args[argIndex]) {
+                    if (newArgs == null) newArgs = args.clone();
+                    newArgs[argIndex] = newArg;
+                }
+            }
+        }
+        return newArgs;
+    }
 
-                // Some magic to deal with format codes
-                if (msgStr.contains("§")) {
-                    String activeCodes = activeFormatCodes(msgStr.substring(0, matchLast-trigger.length()));
+    /**
+     * Restyles a single {@code TranslatableContents} arg. {@code String} args
+     * are only converted to {@code Component}s if they contain a highlight.
+     * @param arg the arg to restyle.
+     * @param ctx the {@code RestyleContext}.
+     * @return the restyled arg, or {@code arg} itself if it did not contain a
+     * highlight.
+     */
+    private static Object restyleArg(Object arg, RestyleContext ctx) {
+        if (arg instanceof Component argComponent) {
+            return restyleComponent(argComponent, ctx);
+        }
+        else if (arg instanceof String argString) {
+            Component argLiteral = Component.literal(argString);
+            Component restyled = restyleContents(argLiteral, ctx);
+            return restyled == argLiteral ? arg : restyled;
+        }
+        ctx.offset += argLength(arg);
+        return arg;
+    }
 
-                    String msgTriggerFull = msgStr.substring(matchFirst,matchLast);
-                    int realStart = startIgnoreCodes(msgTriggerFull,
-                            msgTriggerFull.length() - trigger.length());
+    private static int argLength(Object arg) {
+        return arg instanceof Component argComponent ?
+                argComponent.getString().length() :
+                String.valueOf(arg).length();
+    }
 
-                    String msgStart = msgStr.substring(0, matchFirst);
-                    String msgTrigger = msgTriggerFull.substring(realStart);
-                    String msgEnd = msgStr.substring(matchLast);
+    /**
+     * Restyles each of the specified sibling {@code Component}s.
+     * @param siblings the list of siblings to restyle.
+     * @param ctx the {@code RestyleContext}.
+     * @return a new list containing the restyled siblings, or {@code null} if
+     * no sibling contained a highlight.
+     */
+    private static @Nullable List<Component> restyleSiblings(List<Component> siblings,
+                                                             RestyleContext ctx) {
+        List<Component> newSiblings = null;
+        for (int i = 0; i < siblings.size(); i++) {
+            Component sibling = siblings.get(i);
+            Component newSibling = restyleComponent(sibling, ctx);
+            if (newSibling != sibling) {
+                if (newSiblings == null) newSiblings = new ArrayList<>(siblings);
+                newSiblings.set(i, newSibling);
+            }
+        }
+        return newSiblings;
+    }
 
-                    msgStr = msgStart + '\u00a7' + 'r' + msgTrigger + activeCodes + msgEnd;
+    /**
+     * If the contents of the specified {@code Component} is an instance of
+     * {@code LiteralContents}, deconstructs, restyles and reconstructs the
+     * {@code Component} with the objective of applying the style of each
+     * highlight to the part of it within the contents.
+     * @param msg the {@code Component} to restyle.
+     * @param ctx the {@code RestyleContext}.
+     * @return a restyled copy of {@code msg}, or {@code msg} itself if no
+     * highlight was found.
+     */
+    private static Component restyleContents(Component msg, RestyleContext ctx) {
+        if (!(msg.getContents() instanceof LiteralContents contents)) return msg;
 
-                    matchLast = matchLast-realStart+2;
-                }
+        String msgStr = contents.text();
+        int offset = ctx.offset;
+        SpanList<TextStyle> spans = ctx.spans;
+        spans.clear();
+        TextSearch.addFlatSpans(ctx.highlights, offset, msgStr.length(), spans);
+
+        if (spans.isEmpty()) {
+            // No highlight found, try siblings
+            ctx.offset = offset + msgStr.length();
+            List<Component> newSiblings = restyleSiblings(msg.getSiblings(), ctx);
+            if (newSiblings == null) return msg;
+            return rebuild(contents, msg.getStyle(), newSiblings);
+        }
+        else if (msg.getSiblings().isEmpty()) {
+            // Highlights found, split, restyle and reconstruct
+            ctx.offset = offset + msgStr.length();
+            List<Component> siblings = new ArrayList<>(spans.size() * 2 + 1);
+            Style style = msg.getStyle();
+            boolean hasCodes = msgStr.indexOf(FormatCodeUtil.PREFIX) != -1;
+            int formatState = FormatCodeUtil.NONE;
+            int scanned = 0;
+            int last = 0;
+            String activeCodes = "";
+
+            for (int i = 0; i < spans.size(); i++) {
+                int matchFirst = spans.start(i);
+                int matchLast = spans.end(i);
 
                 // msgStr before match
-                if (matchFirst != 0) {
-                    siblings.add(Component.literal(msgStr.substring(0, matchFirst))
-                            .setStyle(msg.getStyle()));
-                }
-
-                // Match
-                siblings.add(Component.literal(msgStr.substring(matchFirst, matchLast))
-                        .setStyle(applyStyle(msg.getStyle(), textStyle)));
-
-                // msgStr after match
-                if (matchLast != msgStr.length()) {
-                    siblings.add(Component.literal(msgStr.substring(matchLast))
-                            .setStyle(msg.getStyle()));
+                String before = activeCodes + msgStr.substring(last, matchFirst);
+                if (!before.isEmpty()) {
+                    siblings.add(Component.literal(before).setStyle(style));
                 }
 
-                if (siblings.size() == 1) {
-                    msg = siblings.get(0).copy();
+                // Match, with some magic to deal with format codes
+                String match;
+                if (hasCodes) {
+                    int triggerStart = spans.innerStart(i);
+                    formatState = FormatCodeUtil.scan(formatState, msgStr, scanned, triggerStart);
+                    scanned = triggerStart;
+                    activeCodes = FormatCodeUtil.toCodes(formatState);
+                    match = "\u00a7r" + msgStr.substring(
+                            TextSearch.startIgnoreCodes(msgStr, matchFirst, triggerStart), matchLast);
                 }
                 else {
-                    MutableComponent newMessage = MutableComponent.create(ComponentContents.EMPTY);
-                    newMessage.siblings.addAll(siblings);
-                    msg = newMessage;
+                    match = msgStr.substring(matchFirst, matchLast);
                 }
-            }
-            else {
-                // Unable to restyle without affecting siblings, so add contents
-                // as first sibling of a new MutableComponent, followed by other
-                // siblings in original order, then restyle that.
+                siblings.add(Component.literal(match)
+                        .setStyle(applyStyle(style, spans.style(i))));
 
-                MutableComponent replacement = MutableComponent.create(ComponentContents.EMPTY);
-                replacement.setStyle(msg.getStyle());
-
-                siblings.add(0, MutableComponent.create(msg.getContents()));
-                replacement.siblings.addAll(siblings);
+                last = matchLast;
+            }
 
-                msg = restyleComponent(replacement, trigger, textStyle);
+            // msgStr after last match
+            String after = activeCodes + msgStr.substring(last);
+            if (!after.isEmpty()) {
+                siblings.add(Component.literal(after).setStyle(style));
             }
-        }
-        return msg;
-    }
 
-    /**
-     * Scans the specified {@code String} and identifies any format codes that
-     * are active at the end.
-     * @param msgStr the {@code String} to search.
-     * @return the active format codes as a {@code String}.
-     */
-    private static String activeFormatCodes(String msgStr) {
-        List<ChatFormatting> activeCodes = new ArrayList<>();
-        for (int i = 0; i < msgStr.length(); i++) {
-            char c = msgStr.charAt(i);
-            if ((int)c == 167) {
-                char d = msgStr.charAt(i+1);
-                ChatFormatting format = ChatFormatting.getByCode(d);
-                if (format != null) {
-                    if (format == ChatFormatting.RESET) {
-                        activeCodes.clear();
-                    }
-                    else {
-                        if (format.isColor()) {
-                            activeCodes.removeIf(ChatFormatting::isColor);
-                        }
-                        activeCodes.add(format);
-                    }
-                }
+            if (siblings.size() == 1) {
+                return siblings.get(0);
             }
+            return rebuild(ComponentContents.EMPTY, Style.EMPTY, siblings);
         }
-
-        StringBuilder builder = new StringBuilder();
-        for (ChatFormatting cf : activeCodes) {
-            builder.append('\u00a7');
-            builder.append(cf.getChar());
+        else {
+            // Highlights found, but unable to restyle without affecting
+            // siblings, so add contents as first sibling of a new Component,
+            // followed by other siblings in original order, then restyle that.
+            List<Component> siblings = new ArrayList<>(msg.getSiblings().size() + 1);
+            siblings.add(MutableComponent.create(contents));
+            siblings.addAll(msg.getSiblings());
+
+            return restyleComponent(rebuild(ComponentContents.EMPTY, msg.getStyle(), siblings), ctx);
         }
-        return builder.toString();
     }
 
     /**
-     * Workaround method; if a {@code String} passed to {@code msgContainsStr()}
-     * contains format codes immediately preceding a match {@code String}, the
-     * range returned will include the format codes.
-     * <p>
-     * This method scans the specified {@code String} to determine the start
-     * of the actual match, defined as being the first character after the
-     * last format code.
-     * @param str the {@code String} with possible format codes.
-     * @param maxStart the maximum possible value .
-     * @return the index of the first character after the last format code.
-     */
-    private static int startIgnoreCodes(String str, int maxStart) {
-        char[] arr1 = str.toCharArray();
-        int realStart = 0;
-        for (int i = 0; i <= maxStart; i++) {
-            if ((int)arr1[i] == 167 && (((int)arr1[i+1] > 47 && (int)arr1[i+1] < 58) ||
-                    ((int)arr1[i+1] > 96 && (int)arr1[i+1] < 123))) {
-                realStart = i+2;
-            }
-        }
-        return realStart;
+     * Creates a new {@code MutableComponent} from the specified parts.
+     * @param contents the {@code ComponentContents} of the new
+     *                 {@code MutableComponent}.
+     * @param style the {@code Style} of the new {@code MutableComponent}.
+     * @param siblings the siblings of the new {@code MutableComponent}.
+     * @return the new {@code MutableComponent}.
+     */
+    private static MutableComponent rebuild(ComponentContents contents, Style style,
+                                            List<Component> siblings) {
+        MutableComponent newMsg = MutableComponent.create(contents).setStyle(style);
+        newMsg.siblings.addAll(siblings);
+        return newMsg;
     }
 
     /**
@@ -497,4 +850,110 @@ public class MessageProcessor {
         if (textStyle.doColor) style = style.withColor(textStyle.getTextColor());
         return style;
     }
+
+    /**
+     * Access to the parts of a Minecraft message used by the core engine.
+     */
+    private static class MinecraftComponents implements ComponentAdapter<Component> {
+        @Override
+        public String getString(Component message) {
+            return message.getString();
+        }
+
+        @Override
+        public @Nullable String getTranslationKey(Component message) {
+            return message.getContents() instanceof TranslatableContents tc ? tc.getKey() : null;
+        }
+
+        /**
+         * @return the first argument of a standard chat translation, or
+         * {@code null} if not a standard chat message.
+         */
+        @Override
+        public @Nullable String getChatSender(Component message) {
+            if (message.getContents() instanceof TranslatableContents tc
+                    && tc.getKey().startsWith("chat.type.") && tc.getArgs().length > 0) {
+                Object arg = tc.getArgs()[0];
+                return arg instanceof Component component ? component.getString() : String.valueOf(arg);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * View of the messages and commands recently sent by the user, for
+     * {@code OwnerCheck}.
+     */
+    private static class RecentMessages implements OwnerCheck.SentMessages {
+        @Override
+        public int size() {
+            return recentMessages.size();
+        }
+
+        @Override
+        public String get(int index) {
+            return recentMessages.get(index).getSecond();
+        }
+
+        @Override
+        public void remove(int index) {
+            recentMessages.remove(index);
+        }
+    }
+
+    /**
+     * State of a single {@code complexRestyle()} walk.
+     * <p>
+     * {@code offset} is the index in the flattened message {@code String} of
+     * the {@code Component} currently being visited, and {@code end} the end
+     * of the last highlight, after which the walk stops.
+     */
+    private static class RestyleContext {
+        private final SpanList<TextStyle> highlights;
+        private final SpanList<TextStyle> spans;
+        private final int end;
+        private int offset;
+
+        private RestyleContext(SpanList<TextStyle> highlights) {
+            this.highlights = highlights;
+            this.spans = new SpanList<>();
+            this.end = highlights.end(highlights.size() - 1);
+            this.offset = 0;
+        }
+    }
+
+    /**
+     * The result of {@code prepareMessage()}, which holds no reference to the
+     * message {@code Component}.
+     */
+    public static class PreparedMessage {
+        private final @Nullable String msgStr;
+        private final @Nullable String translationKey;
+        private final @Nullable DecisionCache.Decision decision;
+        private final boolean shed;
+        // Whether the restyled Component may be read from and stored in the decision
+        private final boolean cacheable;
+        private final int generation;
+
+        private PreparedMessage(@Nullable String msgStr, @Nullable String translationKey,
+                                @Nullable DecisionCache.Decision decision, boolean shed,
+                                boolean cacheable, int generation) {
+            this.msgStr = msgStr;
+            this.translationKey = translationKey;
+            this.decision = decision;
+            this.shed = shed;
+            this.cacheable = cacheable;
+            this.generation = generation;
+        }
+
+        /**
+         * Must be called from the client thread.
+         * @return {@code true} if the message was prepared with the current
+         * config generation and no {@code ConfigScreen} is open, so that the
+         * result may be completed.
+         */
+        boolean isCurrent() {
+            return generation == config().getGeneration() && !isEditingConfig();
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package com.notryken.chatnotify.processor;
+
+import com.notryken.chatnotify.config.Notification;
+import com.notryken.chatnotify.core.util.LogHistogram;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters and latency histograms of the message processing pipeline.
+ * <p>
+ * Recording does not allocate, and may be done from any thread.
+ */
+public class Metrics {
+    public enum Timer {
+        PROCESS("Message Processing"),
+        OWNER_CHECK("Owner Check"),
+        MATCHING("Matching"),
+        RESTYLING("Restyling"),
+        SOUND("Sound Dispatch"),
+        RESPONSE("Response Dispatch");
+
+        public final String name;
+
+        Timer(String name) {
+            this.name = name;
+        }
+    }
+
+    public enum Counter {
+        MESSAGES("Messages"),
+        DEGRADED("Degraded Messages"),
+        DEFERRED("Deferred Messages"),
+        NOTIFICATIONS("Notifications Activated"),
+        SOUNDS("Sounds Played"),
+        RESPONSES("Responses Sent");
+
+        public final String name;
+
+        Counter(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final LogHistogram[] TIMERS = new LogHistogram[Timer.values().length];
+    private static final AtomicLongArray COUNTERS = new AtomicLongArray(Counter.values().length);
+
+    static {
+        for (int i = 0; i < TIMERS.length; i++) {
+            TIMERS[i] = new LogHistogram();
+        }
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}.
+     * @param timer the {@code Timer}.
+     * @param startNanos the start time, from {@code System.nanoTime()}.
+     */
+    public static void time(Timer timer, long startNanos) {
+        TIMERS[timer.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    public static void increment(Counter counter) {
+        COUNTERS.incrementAndGet(counter.ordinal());
+    }
+
+    /**
+     * Records the activation of the specified {@code Notification}.
+     */
+    public static void recordHit(Notification notif) {
+        notif.recordHit();
+        increment(Counter.NOTIFICATIONS);
+    }
+
+    public static LogHistogram get(Timer timer) {
+        return TIMERS[timer.ordinal()];
+    }
+
+    public static long get(Counter counter) {
+        return COUNTERS.get(counter.ordinal());
+    }
+
+    /**
+     * Resets all timers and counters, but not the hit counts of
+     * {@code Notification}s.
+     */
+    public static void reset() {
+        for (LogHistogram histogram : TIMERS) {
+            histogram.reset();
+        }
+        for (int i = 0; i < COUNTERS.length(); i++) {
+            COUNTERS.set(i, 0);
+        }
+    }
+}
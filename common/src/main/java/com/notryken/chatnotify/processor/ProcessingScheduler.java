@@ -0,0 +1,89 @@
+package com.notryken.chatnotify.processor;
+
+import com.notryken.chatnotify.ChatNotify;
+import net.minecraft.network.chat.Component;
+
+import java.util.ArrayDeque;
+
+import static com.notryken.chatnotify.ChatNotify.config;
+
+/**
+ * Limits the time spent processing messages on the client thread in each
+ * client tick, to keep frame times bounded when a large number of messages
+ * arrive at once.
+ * <p>
+ * Once the budget of the current tick is used up, messages are processed
+ * using a degraded algorithm, and any that could not be fully checked are
+ * deferred to be checked on a later tick.
+ * <p>
+ * Only accessed from the client thread.
+ */
+public class ProcessingScheduler {
+    private static final int MAX_DEFERRED = 1024;
+
+    private static final ArrayDeque<Deferred> DEFERRED = new ArrayDeque<>();
+    private static long usedNanos = 0;
+    private static boolean warned = false;
+
+    /**
+     * Resets the budget and checks deferred messages until the new budget is
+     * used up. Called at the start of each client tick.
+     */
+    public static void tick() {
+        usedNanos = 0;
+        while (!DEFERRED.isEmpty() && !isExhausted()) {
+            Deferred deferred = DEFERRED.poll();
+            long start = System.nanoTime();
+            MessageProcessor.processDeferred(deferred.message, deferred.msgStr, deferred.checkedMsgStr);
+            record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return {@code true} if the budget is enabled and has been used up for
+     * the current tick, {@code false} otherwise.
+     */
+    public static boolean isExhausted() {
+        int budgetMillis = config().processingBudget;
+        return budgetMillis > 0 && usedNanos >= budgetMillis * 1_000_000L;
+    }
+
+    public static void record(long nanos) {
+        usedNanos += nanos;
+    }
+
+    /**
+     * Queues a message to be fully checked on a later tick.
+     */
+    static void defer(Component message, String msgStr, String checkedMsgStr) {
+        Metrics.increment(Metrics.Counter.DEFERRED);
+        if (DEFERRED.size() >= MAX_DEFERRED) {
+            DEFERRED.poll();
+            if (!warned) {
+                ChatNotify.LOG.warn("ChatNotify: Too many deferred messages, discarding oldest");
+                warned = true;
+            }
+        }
+        DEFERRED.add(new Deferred(message, msgStr, checkedMsgStr));
+    }
+
+    /**
+     * Discards all deferred messages, such as on disconnect.
+     */
+    public static void clear() {
+        DEFERRED.clear();
+        warned = false;
+    }
+
+    private static class Deferred {
+        private final Component message;
+        private final String msgStr;
+        private final String checkedMsgStr;
+
+        private Deferred(Component message, String msgStr, String checkedMsgStr) {
+            this.message = message;
+            this.msgStr = msgStr;
+            this.checkedMsgStr = checkedMsgStr;
+        }
+    }
+}
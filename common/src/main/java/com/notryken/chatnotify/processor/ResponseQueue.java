@@ -0,0 +1,100 @@
+package com.notryken.chatnotify.processor;
+
+import com.notryken.chatnotify.ChatNotify;
+import com.notryken.chatnotify.core.util.TimerWheel;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientPacketListener;
+import net.minecraft.util.StringUtil;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayDeque;
+
+import static com.notryken.chatnotify.ChatNotify.config;
+
+/**
+ * Queue of outgoing response messages, sent directly through the connection
+ * at a limited rate per tick.
+ * <p>
+ * Delayed responses are held in a {@code TimerWheel} until they are due,
+ * then added to the queue.
+ * <p>
+ * Only accessed from the client thread.
+ */
+public class ResponseQueue {
+    private static final int MAX_QUEUED = 256;
+
+    private static final ArrayDeque<String> QUEUED = new ArrayDeque<>();
+    private static final TimerWheel<String> DELAYED = new TimerWheel<>(512);
+
+    /**
+     * Schedules the specified message or command to be sent after the
+     * specified delay.
+     * @param response the message, or the command prefixed with '/'.
+     * @param delayMillis the delay in milliseconds, rounded up to the next
+     *                    tick.
+     */
+    public static void queue(String response, int delayMillis) {
+        if (delayMillis <= 0) {
+            queue(response);
+        }
+        else {
+            DELAYED.schedule((delayMillis + 49) / 50, response);
+        }
+    }
+
+    /**
+     * Queues the specified message or command to be sent.
+     * @param response the message, or the command prefixed with '/'.
+     */
+    public static void queue(String response) {
+        if (QUEUED.size() >= MAX_QUEUED) {
+            ChatNotify.LOG.warn("ChatNotify: Too many queued responses, discarding '{}'", response);
+            return;
+        }
+        QUEUED.add(response);
+    }
+
+    /**
+     * Sends queued responses, up to the configured limit. Called at the start
+     * of each client tick.
+     */
+    public static void tick() {
+        if (!DELAYED.isEmpty()) DELAYED.tick(ResponseQueue::queue);
+        if (QUEUED.isEmpty()) return;
+        ClientPacketListener connection = Minecraft.getInstance().getConnection();
+        if (connection == null) {
+            clear();
+            return;
+        }
+        int limit = config().responsesPerTick;
+        for (int i = 0; i < limit && !QUEUED.isEmpty(); i++) {
+            send(connection, QUEUED.poll());
+        }
+    }
+
+    /**
+     * Discards all queued and delayed responses, such as on disconnect.
+     */
+    public static void clear() {
+        QUEUED.clear();
+        DELAYED.clear();
+    }
+
+    /**
+     * Sends a message or command in the same way as {@code ChatScreen}, but
+     * without opening it.
+     */
+    private static void send(ClientPacketListener connection, String response) {
+        long start = System.nanoTime();
+        response = StringUtil.trimChatMessage(StringUtils.normalizeSpace(response.trim()));
+        if (response.isEmpty()) return;
+        if (response.startsWith("/")) {
+            connection.sendCommand(response.substring(1));
+        }
+        else {
+            connection.sendChat(response);
+        }
+        Metrics.increment(Metrics.Counter.RESPONSES);
+        Metrics.time(Metrics.Timer.RESPONSE, start);
+    }
+}
@@ -0,0 +1,126 @@
+package com.notryken.chatnotify.processor;
+
+import com.notryken.chatnotify.config.Notification;
+import com.notryken.chatnotify.config.Sound;
+import com.notryken.chatnotify.mixin.accessor.SoundEngineAccessor;
+import com.notryken.chatnotify.mixin.accessor.SoundManagerAccessor;
+import com.notryken.chatnotify.mixin.accessor.WeighedSoundEventsAccessor;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.sounds.SimpleSoundInstance;
+import net.minecraft.client.resources.sounds.SoundInstance;
+import net.minecraft.client.sounds.SoundBufferLibrary;
+import net.minecraft.client.sounds.SoundManager;
+import net.minecraft.client.sounds.WeighedSoundEvents;
+import net.minecraft.client.sounds.Weighted;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.notryken.chatnotify.ChatNotify.config;
+
+/**
+ * Collects notification sounds requested during a tick, and plays them at
+ * the start of the next tick.
+ * <p>
+ * Sounds with the same {@code ResourceLocation} are only played once per
+ * tick, and no more than {@code MAX_ACTIVE} notification sounds may be
+ * playing at once.
+ * <p>
+ * Only accessed from the client thread.
+ */
+public class SoundDispatcher {
+    private static final int MAX_ACTIVE = 4;
+
+    private static final List<Sound> QUEUED = new ArrayList<>();
+    private static final List<ResourceLocation> PLAYED = new ArrayList<>();
+    private static final List<SoundInstance> ACTIVE = new ArrayList<>();
+
+    /**
+     * Queues the specified sound to be played, unless its cooldown is
+     * running. The cooldown only starts once the sound is played.
+     * @param sound the {@code Sound} to play.
+     */
+    public static void queue(Sound sound) {
+        if (!sound.isCoolingDown(System.currentTimeMillis()) && !QUEUED.contains(sound)) {
+            QUEUED.add(sound);
+        }
+    }
+
+    /**
+     * Plays all sounds queued since the last tick. Called at the start of
+     * each client tick.
+     */
+    public static void tick() {
+        if (QUEUED.isEmpty()) return;
+        long start = System.nanoTime();
+        long time = System.currentTimeMillis();
+        SoundManager soundManager = Minecraft.getInstance().getSoundManager();
+        ACTIVE.removeIf((instance) -> !soundManager.isActive(instance));
+
+        for (int i = 0; i < QUEUED.size() && ACTIVE.size() < MAX_ACTIVE; i++) {
+            Sound sound = QUEUED.get(i);
+            ResourceLocation location = sound.getResourceLocation();
+            if (location == null || PLAYED.contains(location)) continue;
+            PLAYED.add(location);
+
+            SoundInstance instance = new SimpleSoundInstance(
+                    location, config().soundSource,
+                    sound.getVolume(), sound.getPitch(),
+                    SoundInstance.createUnseededRandom(), false, 0,
+                    SoundInstance.Attenuation.NONE, 0, 0, 0, true);
+            soundManager.play(instance);
+            sound.startCooldown(time);
+            ACTIVE.add(instance);
+            Metrics.increment(Metrics.Counter.SOUNDS);
+        }
+        QUEUED.clear();
+        PLAYED.clear();
+        Metrics.time(Metrics.Timer.SOUND, start);
+    }
+
+    /**
+     * Starts loading the audio of every enabled notification sound in the
+     * background, so that the first play of each is not delayed by loading.
+     */
+    public static void preload() {
+        SoundManager soundManager = Minecraft.getInstance().getSoundManager();
+        SoundBufferLibrary buffers = ((SoundEngineAccessor)((SoundManagerAccessor)soundManager)
+                .chatNotify$getSoundEngine()).chatNotify$getSoundBuffers();
+        RandomSource random = RandomSource.create();
+        List<ResourceLocation> preloaded = new ArrayList<>();
+
+        for (Notification notif : config().getNotifs()) {
+            ResourceLocation location = notif.sound.getResourceLocation();
+            if (!notif.sound.isEnabled() || location == null || preloaded.contains(location)) continue;
+            preloaded.add(location);
+            WeighedSoundEvents events = soundManager.getSoundEvent(location);
+            if (events != null) preload(events, buffers, random);
+        }
+    }
+
+    private static void preload(Weighted<net.minecraft.client.resources.sounds.Sound> weighted,
+                                SoundBufferLibrary buffers, RandomSource random) {
+        if (weighted instanceof WeighedSoundEvents events) {
+            for (Weighted<net.minecraft.client.resources.sounds.Sound> entry :
+                    ((WeighedSoundEventsAccessor)events).chatNotify$getList()) {
+                preload(entry, buffers, random);
+            }
+        }
+        else {
+            net.minecraft.client.resources.sounds.Sound sound = weighted.getSound(random);
+            if (sound != SoundManager.EMPTY_SOUND) {
+                buffers.getCompleteBuffer(sound.getPath());
+            }
+        }
+    }
+
+    /**
+     * Discards all queued sounds, such as on disconnect.
+     */
+    public static void clear() {
+        QUEUED.clear();
+        ACTIVE.clear();
+    }
+}
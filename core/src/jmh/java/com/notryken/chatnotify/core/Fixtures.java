@@ -0,0 +1,74 @@
+package com.notryken.chatnotify.core;
+
+import java.util.Random;
+
+/**
+ * Shared setup of the core benchmarks: a reproducible set of flattened
+ * message {@code String}s of a given shape.
+ * <p>
+ * The messages are those of the {@code PLAIN} and {@code FORMATTED} shapes
+ * of the benchmark project, without the game.
+ */
+public class Fixtures {
+    public static final String USER_NAME = "Steve";
+
+    private static final String[] WORDS = {
+            "the", "a", "anyone", "selling", "diamonds", "at", "spawn", "lol", "gg",
+            "is", "server", "lagging", "for", "you", "too", "wanna", "trade", "iron",
+            "where", "base", "come", "here", "thanks", "ok", "no", "yes", "afk",
+    };
+    private static final String[] PLAYERS = {
+            "Alex", "Notch", "jeb_", "Dinnerbone", "xXSlayerXx", "builder42",
+    };
+    private static final String[] CODES = {"\u00a7a", "\u00a7l", "\u00a7c\u00a7o", "\u00a7r", "\u00a76"};
+
+    public enum MessageShape {
+        // Plain text
+        PLAIN,
+        // Text with legacy format codes
+        FORMATTED
+    }
+
+    /**
+     * Creates {@code count} messages of the specified shape, of 4 to 15
+     * words. Each word is the name of the user with probability 1/32, and a
+     * literal trigger {@code "w<index>"} with an index in
+     * {@code [1,notifCount]} with probability 1/16.
+     * @param seed the random seed.
+     */
+    public static String[] createMessages(MessageShape shape, int count, int notifCount, long seed) {
+        Random random = new Random(seed);
+        String[] messages = new String[count];
+        for (int i = 0; i < count; i++) {
+            String player = PLAYERS[random.nextInt(PLAYERS.length)];
+            messages[i] = "<" + player + "> " +
+                    createBody(random, shape == MessageShape.FORMATTED, notifCount);
+        }
+        return messages;
+    }
+
+    private static String createBody(Random random, boolean formatted, int notifCount) {
+        StringBuilder builder = new StringBuilder();
+        int length = 4 + random.nextInt(12);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) builder.append(' ');
+            if (formatted && random.nextInt(3) == 0) {
+                builder.append(CODES[random.nextInt(CODES.length)]);
+            }
+            int roll = random.nextInt(32);
+            if (roll == 0) {
+                builder.append(USER_NAME);
+            }
+            else if (roll < 3 && notifCount > 0) {
+                builder.append('w').append(1 + random.nextInt(notifCount));
+            }
+            else if (roll == 3) {
+                builder.append(random.nextInt(1000));
+            }
+            else {
+                builder.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+        }
+        return builder.toString();
+    }
+}
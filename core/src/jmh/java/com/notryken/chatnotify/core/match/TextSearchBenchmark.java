@@ -0,0 +1,158 @@
+package com.notryken.chatnotify.core.match;
+
+import com.notryken.chatnotify.core.Fixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Cost of the searches of message matching: the owner check, a single
+ * literal or regex trigger search, and finding every highlight of a literal
+ * trigger.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextSearchBenchmark {
+    private static final int MESSAGES = 256;
+    private static final int NOTIFS = 10;
+    // Messages sent by the user, which never appear in the benchmark messages
+    private static final int SENT_MESSAGES = 10;
+
+    @Param({"PLAIN", "FORMATTED"})
+    public Fixtures.MessageShape messageShape;
+
+    private String[] msgStrs;
+    private Pattern literalPattern;
+    private Pattern regexPattern;
+    private List<UserTrigger> userTriggers;
+    private OwnerCheck.SentMessages sent;
+    private SpanList<Object> spans;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        msgStrs = Fixtures.createMessages(messageShape, MESSAGES, NOTIFS, 42);
+        literalPattern = TextSearch.compileLiteral("w1");
+        regexPattern = Pattern.compile("\\bw1\\b.*\\d+");
+        userTriggers = List.of(new UserTrigger(Fixtures.USER_NAME));
+        spans = new SpanList<>();
+
+        // Every sent message is compared, as none are found
+        List<String> sentList = new ArrayList<>();
+        for (int i = 0; i < SENT_MESSAGES; i++) {
+            sentList.add(("sent message number " + i).toLowerCase(Locale.ROOT));
+        }
+        sent = new OwnerCheck.SentMessages() {
+            @Override
+            public int size() {
+                return sentList.size();
+            }
+
+            @Override
+            public String get(int index) {
+                return sentList.get(index);
+            }
+
+            @Override
+            public void remove(int index) {
+                sentList.remove(index);
+            }
+        };
+        next = 0;
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (MESSAGES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public String checkOwner() {
+        return OwnerCheck.check(msgStrs[nextIndex()], sent, userTriggers, true);
+    }
+
+    @Benchmark
+    public MatchRange findLiteral() {
+        return TextSearch.find(msgStrs[nextIndex()], literalPattern);
+    }
+
+    @Benchmark
+    public MatchRange findRegex() {
+        return TextSearch.find(msgStrs[nextIndex()], regexPattern);
+    }
+
+    /**
+     * Finds the first match of the literal trigger, then every highlight, as
+     * done by the {@code MatchEngine} for a matching literal trigger.
+     */
+    @Benchmark
+    public SpanList<Object> findSpans() {
+        String msgStr = msgStrs[nextIndex()];
+        spans.clear();
+        MatchRange first = TextSearch.find(msgStr, literalPattern);
+        if (first != null) {
+            TextSearch.findSpans(msgStr, literalPattern, first, 2, Boolean.TRUE, spans);
+        }
+        return spans;
+    }
+
+    /**
+     * A literal trigger matching the name of the user.
+     */
+    private static class UserTrigger implements TriggerSpec<Object> {
+        private final String string;
+        private final Pattern pattern;
+
+        private UserTrigger(String string) {
+            this.string = string;
+            this.pattern = TextSearch.compileLiteral(string);
+        }
+
+        @Override
+        public String getString() {
+            return string;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public boolean isKey() {
+            return false;
+        }
+
+        @Override
+        public boolean isRegex() {
+            return false;
+        }
+
+        @Override
+        public Pattern getPattern(boolean asRegex) {
+            return pattern;
+        }
+
+        @Override
+        public List<String> getGroupNames() {
+            return List.of();
+        }
+
+        @Override
+        public Map<String,Object> getGroupStyles() {
+            return Map.of();
+        }
+
+        @Override
+        public void recordProfile(long nanos) {}
+    }
+}
@@ -0,0 +1,39 @@
+package com.notryken.chatnotify.core.util;
+
+import com.notryken.chatnotify.core.Fixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of finding the format codes active at the end of a message, as done
+ * for each highlight when restyling a message with format codes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatCodeBenchmark {
+    private static final int MESSAGES = 256;
+
+    @Param({"PLAIN", "FORMATTED"})
+    public Fixtures.MessageShape messageShape;
+
+    private String[] msgStrs;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        msgStrs = Fixtures.createMessages(messageShape, MESSAGES, 10, 42);
+        next = 0;
+    }
+
+    @Benchmark
+    public String activeFormatCodes() {
+        next = (next + 1) & (MESSAGES - 1);
+        String str = msgStrs[next];
+        return FormatCodeUtil.toCodes(FormatCodeUtil.scan(str, 0, str.length()));
+    }
+}
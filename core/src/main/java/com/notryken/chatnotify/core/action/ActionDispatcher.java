@@ -0,0 +1,71 @@
+package com.notryken.chatnotify.core.action;
+
+import com.notryken.chatnotify.core.match.Captures;
+import com.notryken.chatnotify.core.match.NotificationSpec;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Completes the sound and response actions of an activated notification.
+ * @param <C> the message type.
+ * @param <N> the notification type.
+ */
+public class ActionDispatcher<C, N extends NotificationSpec<?,?>> {
+    private final ComponentAdapter<? super C> adapter;
+    private final SoundSink<? super N> sounds;
+    private final ResponseSink responses;
+
+    public ActionDispatcher(ComponentAdapter<? super C> adapter, SoundSink<? super N> sounds,
+                            ResponseSink responses) {
+        this.adapter = adapter;
+        this.sounds = sounds;
+        this.responses = responses;
+    }
+
+    /**
+     * Plays the sound of the activated notification, and queues its response
+     * messages.
+     * @param message the message that activated {@code notif}.
+     * @param notif the activated notification.
+     * @param captures the captures of the match, or {@code null} if none.
+     */
+    public void dispatch(C message, N notif, @Nullable Captures captures) {
+        sounds.play(notif);
+        sendResponses(message, notif, captures);
+    }
+
+    /**
+     * Queues all response messages of the activated notification to be sent,
+     * if the relevant control is enabled, the first after the response delay
+     * of the notification and each subsequent one after the response
+     * stagger. Placeholders are filled from {@code captures}.
+     * @see ResponseTemplate
+     */
+    public void sendResponses(C message, N notif, @Nullable Captures captures) {
+        if (notif.isResponseEnabled()) {
+            if (captures == null) captures = Captures.EMPTY;
+            String sender = null;
+            int delay = notif.getResponseDelay();
+            for (ResponseTemplate template : notif.getResponseTemplates()) {
+                String response = template.source;
+                if (template.hasPlaceholders()) {
+                    if (sender == null) sender = getSender(message, captures);
+                    response = template.render(captures.match, sender, captures.groups);
+                }
+                responses.send(response, delay);
+                delay += notif.getResponseStagger();
+            }
+        }
+    }
+
+    /**
+     * Best-effort lookup of the sender of a message, using the regex group
+     * named "sender" if captured, otherwise the sender given by the adapter.
+     * @return the sender name, or an empty {@code String} if not known.
+     */
+    private String getSender(C message, Captures captures) {
+        String sender = captures.groups.get("sender");
+        if (sender != null) return sender;
+        sender = adapter.getChatSender(message);
+        return sender == null ? "" : sender;
+    }
+}
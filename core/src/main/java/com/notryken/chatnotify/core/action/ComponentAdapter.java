@@ -0,0 +1,27 @@
+package com.notryken.chatnotify.core.action;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Access to the parts of a message used by the core, independent of how the
+ * message is represented.
+ * @param <C> the message type.
+ */
+public interface ComponentAdapter<C> {
+    /**
+     * @return the flattened message {@code String}.
+     */
+    String getString(C message);
+
+    /**
+     * @return the translation key of the root of the message, or
+     * {@code null} if it is not translatable.
+     */
+    @Nullable String getTranslationKey(C message);
+
+    /**
+     * @return the sender of a standard chat message, or {@code null} if not
+     * known.
+     */
+    @Nullable String getChatSender(C message);
+}
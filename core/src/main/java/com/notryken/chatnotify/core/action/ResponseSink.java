@@ -0,0 +1,14 @@
+package com.notryken.chatnotify.core.action;
+
+/**
+ * Sends the response messages of an activated notification.
+ */
+@FunctionalInterface
+public interface ResponseSink {
+    /**
+     * Queues a message or command to be sent.
+     * @param message the message or command.
+     * @param delayMillis the number of milliseconds to wait before sending.
+     */
+    void send(String message, int delayMillis);
+}
@@ -0,0 +1,164 @@
+package com.notryken.chatnotify.core.action;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response message, parsed into literal and placeholder segments.
+ * <p>
+ * Supported placeholders are {@code {match}}, the text that activated the
+ * trigger, {@code {sender}}, the sender of the message if known, and
+ * {@code {group:name}}, the named regex group {@code name}. Any other text in
+ * braces is treated as literal.
+ * <p>
+ * Placeholder values come from chat messages sent by other players, so a
+ * response only starts a command if its leading {@code /} is literal
+ * template text. Leading {@code /} characters of a placeholder value at the
+ * start of a response are removed.
+ */
+public class ResponseTemplate {
+    private static final byte LITERAL = 0;
+    private static final byte MATCH = 1;
+    private static final byte SENDER = 2;
+    private static final byte GROUP = 3;
+
+    private static final String GROUP_PREFIX = "group:";
+
+    public final String source;
+    private final byte[] types;
+    private final String[] values;
+
+    private ResponseTemplate(String source, byte[] types, String[] values) {
+        this.source = source;
+        this.types = types;
+        this.values = values;
+    }
+
+    /**
+     * Parses the specified response message.
+     * @param source the response message.
+     * @return the parsed {@code ResponseTemplate}.
+     */
+    public static ResponseTemplate parse(String source) {
+        List<Byte> types = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+        while (i < source.length()) {
+            int open = source.indexOf('{', i);
+            int close = open == -1 ? -1 : source.indexOf('}', open);
+            if (close == -1) {
+                literal.append(source, i, source.length());
+                break;
+            }
+            String name = source.substring(open + 1, close);
+            byte type;
+            String value = null;
+            if (name.equals("match")) {
+                type = MATCH;
+            }
+            else if (name.equals("sender")) {
+                type = SENDER;
+            }
+            else if (name.startsWith(GROUP_PREFIX) && name.length() > GROUP_PREFIX.length()) {
+                type = GROUP;
+                value = name.substring(GROUP_PREFIX.length());
+            }
+            else {
+                // Not a placeholder, keep the brace as literal text
+                literal.append(source, i, open + 1);
+                i = open + 1;
+                continue;
+            }
+            literal.append(source, i, open);
+            if (!literal.isEmpty()) {
+                types.add(LITERAL);
+                values.add(literal.toString());
+                literal.setLength(0);
+            }
+            types.add(type);
+            values.add(value);
+            i = close + 1;
+        }
+        if (!literal.isEmpty()) {
+            types.add(LITERAL);
+            values.add(literal.toString());
+        }
+
+        byte[] typeArray = new byte[types.size()];
+        for (int j = 0; j < typeArray.length; j++) {
+            typeArray[j] = types.get(j);
+        }
+        return new ResponseTemplate(source, typeArray, values.toArray(new String[0]));
+    }
+
+    /**
+     * @return {@code true} if the template contains any placeholder,
+     * {@code false} otherwise.
+     */
+    public boolean hasPlaceholders() {
+        for (byte type : types) {
+            if (type != LITERAL) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Fills the placeholders of the template. Placeholders with no value are
+     * replaced with an empty {@code String}.
+     * @param match the text that activated the trigger.
+     * @param sender the sender of the message.
+     * @param groups the values of the named regex groups.
+     * @return the filled response message.
+     */
+    public String render(String match, String sender, Map<String,String> groups) {
+        if (types.length == 1 && types[0] == LITERAL) return values[0];
+        StringBuilder builder = new StringBuilder(source.length());
+        boolean started = false;
+        for (int i = 0; i < types.length; i++) {
+            String value = switch (types[i]) {
+                case MATCH -> match;
+                case SENDER -> sender;
+                case GROUP -> groups.getOrDefault(values[i], "");
+                default -> values[i];
+            };
+            if (!started) {
+                if (types[i] != LITERAL) value = stripCommand(value);
+                started = hasText(value);
+            }
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return {@code value} without any leading space and {@code /}
+     * characters, if they include a {@code /}, otherwise {@code value}.
+     */
+    private static String stripCommand(String value) {
+        int i = 0;
+        boolean command = false;
+        while (i < value.length() && (value.charAt(i) == '/' || isSpace(value.charAt(i)))) {
+            command |= value.charAt(i) == '/';
+            i++;
+        }
+        return command ? value.substring(i) : value;
+    }
+
+    /**
+     * @return {@code true} if {@code value} has any character that is not
+     * removed when the response is trimmed before sending.
+     */
+    private static boolean hasText(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!isSpace(value.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private static boolean isSpace(char c) {
+        return c <= ' ' || c == '\u00a0' || Character.isWhitespace(c);
+    }
+}
@@ -0,0 +1,13 @@
+package com.notryken.chatnotify.core.action;
+
+/**
+ * Plays the sound of an activated notification.
+ * @param <N> the notification type.
+ */
+@FunctionalInterface
+public interface SoundSink<N> {
+    /**
+     * Plays the sound of the specified notification, if enabled.
+     */
+    void play(N notif);
+}
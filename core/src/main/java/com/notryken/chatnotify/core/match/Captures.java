@@ -0,0 +1,73 @@
+package com.notryken.chatnotify.core.match;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+
+/**
+ * Values captured from the trigger match that activated a notification, for
+ * use in response templates.
+ */
+public class Captures {
+    public static final Captures EMPTY = new Captures("", Map.of());
+
+    public final String match;
+    public final Map<String,String> groups;
+
+    private Captures(String match, Map<String,String> groups) {
+        this.match = match;
+        this.groups = groups;
+    }
+
+    /**
+     * Captures the matched text and the values of all named groups of the
+     * current match of {@code matcher}.
+     * @param matcher the {@code Matcher}, positioned at a match.
+     * @param trigger the regex trigger that created the {@code Matcher}.
+     */
+    public static Captures ofRegex(Matcher matcher, TriggerSpec<?> trigger) {
+        Map<String,String> groups = Map.of();
+        for (String name : trigger.getGroupNames()) {
+            String value;
+            try {
+                value = matcher.group(name);
+            } catch (IllegalArgumentException e) {
+                continue; // No group with that name
+            }
+            if (value != null) {
+                if (groups.isEmpty()) groups = new HashMap<>();
+                groups.put(name, value);
+            }
+        }
+        return new Captures(matcher.group(), groups);
+    }
+
+    /**
+     * Captures the text matching the trigger string within the specified
+     * range of a literal trigger match, excluding any surrounding characters
+     * included in the match.
+     * <p>
+     * The trigger string ends either at the end of the range, or one
+     * character before if the match includes a trailing non-word character,
+     * so at most two positions are compared.
+     * @param str the {@code String} that was searched.
+     * @param start the start of the match range.
+     * @param end the end of the match range.
+     * @param triggerStr the literal trigger {@code String}.
+     * @see TextSearch#compileLiteral(String)
+     */
+    public static Captures ofLiteral(String str, int start, int end, String triggerStr) {
+        int length = triggerStr.length();
+        for (int triggerEnd = end - 1; triggerEnd <= end; triggerEnd++) {
+            int triggerStart = triggerEnd - length;
+            if (triggerStart >= start && str.regionMatches(true, triggerStart, triggerStr, 0, length)) {
+                return new Captures(str.substring(triggerStart, triggerEnd), Map.of());
+            }
+        }
+        return new Captures(str.substring(start, end), Map.of());
+    }
+
+    public static Captures ofMessage(String msgStr) {
+        return new Captures(msgStr, Map.of());
+    }
+}
@@ -0,0 +1,249 @@
+package com.notryken.chatnotify.core.match;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Determines which notifications a message activates, and which parts of it
+ * to restyle.
+ * <p>
+ * Only the flattened message {@code String} and translation key are used, so
+ * the engine does not depend on the game. It has no state of its own, and may
+ * be used from any thread if the notifications are not modified.
+ * @param <N> the notification type.
+ * @param <T> the trigger type.
+ * @param <S> the style type.
+ */
+public class MatchEngine<N extends NotificationSpec<T,S>, T extends TriggerSpec<S>, S> {
+    private final Predicate<? super S> styleEnabled;
+    private final RegexSearch<? super T> regexSearch;
+
+    /**
+     * @param styleEnabled whether a style changes anything when applied.
+     * @param regexSearch the search used for the regex triggers of
+     *                    notifications, such as
+     *                    {@link TextSearch#findRegex(String, TriggerSpec)}.
+     */
+    public MatchEngine(Predicate<? super S> styleEnabled, RegexSearch<? super T> regexSearch) {
+        this.styleEnabled = styleEnabled;
+        this.regexSearch = regexSearch;
+    }
+
+    /**
+     * For each trigger of each notification, checks whether the trigger
+     * matches the message.
+     * <p>
+     * When a trigger matches, checks the exclusion triggers of the
+     * notification to determine whether to activate it.
+     * <p>
+     * Only the first activated notification is returned as activated, and
+     * only it may restyle the whole message. Every occurrence of every
+     * matching literal trigger of every activated notification is
+     * highlighted with the style of its notification, and for regex triggers
+     * with group styles, every named group is highlighted with the style of
+     * that group. Once a notification is activated, only the triggers of
+     * lower-priority notifications that may add a highlight are checked.
+     * <p>
+     * The highlights are found while matching, so that the message is never
+     * searched again when restyling.
+     * @param notifs the notifications, in priority order.
+     * @param userNotif the notification matching the name of the user.
+     * @param msgStr the message {@code String}.
+     * @param checkedMsgStr the owner-checked version of {@code msgStr}.
+     * @param translationKey the translation key of the message, if any.
+     * @param skipRegex whether to skip regex triggers. Once a regex trigger
+     *                  is skipped, no lower-priority notification is
+     *                  activated, so that the result is incomplete rather
+     *                  than activating the wrong notification.
+     * @param criticalOnly whether to skip all notifications other than
+     *                     {@code userNotif} and those marked as critical.
+     * @param profile whether to record the time taken by each trigger.
+     * @param listener the listener to report each step to, if any.
+     * @return the result, which depends only on {@code msgStr},
+     * {@code checkedMsgStr} and {@code translationKey}.
+     */
+    public MatchResult<N,T,S> match(List<? extends N> notifs, @Nullable N userNotif,
+                                    String msgStr, String checkedMsgStr,
+                                    @Nullable String translationKey, boolean skipRegex,
+                                    boolean criticalOnly, boolean profile,
+                                    @Nullable MatchListener listener) {
+        boolean skipped = false;
+        N activated = null;
+        int activatedIndex = -1;
+        T activatedBy = null;
+        Captures captures = null;
+        N simpleNotif = null;
+        SpanList<S> highlights = new SpanList<>();
+
+        for (int n = 0; n < notifs.size(); n++) {
+            // A skipped regex trigger may have activated a higher-priority notification
+            if (skipped && activated == null) break;
+            N notif = notifs.get(n);
+            if (criticalOnly && !notif.isCritical() && notif != userNotif) continue;
+            if (notif.isEnabled() && !notif.isEditing()) {
+                if (listener != null) listener.candidate(n);
+                boolean checkedExclusion = false;
+                List<T> triggers = notif.getTriggers();
+                for (int t = 0; t < triggers.size(); t++) {
+                    T trigger = triggers.get(t);
+                    if (trigger.isEnabled() && !trigger.getString().isBlank()) {
+                        boolean asRegex = notif.isRegexAllowed() && trigger.isRegex() && !trigger.isKey();
+                        // After the first activation, only highlights remain to be found
+                        if (activated != null && activated != notif
+                                && !canHighlight(notif, trigger, asRegex)) continue;
+                        Matcher regexMatch = null;
+                        MatchRange range = null;
+                        boolean matched;
+                        if (asRegex && skipRegex) {
+                            skipped = true;
+                            if (listener != null) listener.skipped(n, t);
+                            continue;
+                        }
+                        long triggerStart = profile ? System.nanoTime() : 0;
+                        if (asRegex) {
+                            regexMatch = regexSearch.find(msgStr, trigger);
+                            matched = regexMatch != null;
+                        }
+                        else {
+                            range = matches(notif, trigger, msgStr, checkedMsgStr, translationKey);
+                            matched = range != null;
+                        }
+                        if (profile) trigger.recordProfile(System.nanoTime() - triggerStart);
+
+                        if (matched) {
+                            if (listener != null) listener.hit(n, t);
+                            if (!checkedExclusion) {
+                                int exclusion = findExclusion(notif, msgStr, checkedMsgStr,
+                                        translationKey, profile);
+                                if (exclusion != -1) {
+                                    if (listener != null) listener.vetoed(n, exclusion);
+                                    break;
+                                }
+                                checkedExclusion = true;
+                            }
+                            if (activated == null) {
+                                activated = notif;
+                                activatedIndex = n;
+                                activatedBy = trigger;
+                                if (notif.isResponseEnabled()) {
+                                    captures = capture(trigger, regexMatch, range, msgStr,
+                                            checkedMsgStr);
+                                }
+                            }
+                            if (regexMatch != null && !trigger.getGroupStyles().isEmpty()) {
+                                TextSearch.findGroupSpans(regexMatch, trigger.getGroupStyles(),
+                                        styleEnabled, highlights);
+                            }
+                            else if (styleEnabled.test(notif.getStyle())) {
+                                // Regex triggers restyle the whole message even
+                                // where regex is not allowed
+                                if (trigger.isKey() || trigger.isRegex()) {
+                                    if (simpleNotif == null && notif == activated) simpleNotif = notif;
+                                }
+                                else {
+                                    highlightLiteral(trigger, notif.getStyle(), range, msgStr,
+                                            checkedMsgStr, highlights);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return new MatchResult<>(activated, activatedIndex, activatedBy, captures, simpleNotif,
+                highlights, skipped);
+    }
+
+    /**
+     * @return {@code true} if a match of {@code trigger} of a notification
+     * other than the activated one may add a highlight, either with the
+     * style of the notification or with the group styles of a regex trigger.
+     */
+    private boolean canHighlight(N notif, T trigger, boolean asRegex) {
+        if (asRegex) return !trigger.getGroupStyles().isEmpty();
+        return !trigger.isKey() && !trigger.isRegex() && styleEnabled.test(notif.getStyle());
+    }
+
+    /**
+     * Adds a span for every occurrence of a matching literal trigger in
+     * {@code msgStr}, continuing from the match already found if it was
+     * found in {@code msgStr}.
+     * <p>
+     * If the message was modified by the owner check, the match was found in
+     * {@code checkedMsgStr}, so {@code msgStr} is searched from its start.
+     * @param range the match of the trigger in {@code checkedMsgStr}.
+     */
+    private static <S> void highlightLiteral(TriggerSpec<S> trigger, S style, MatchRange range,
+                                             String msgStr, String checkedMsgStr,
+                                             SpanList<S> highlights) {
+        Pattern pattern = trigger.getPattern(false);
+        if (pattern == null) return;
+        int triggerLength = trigger.getString().length();
+        if (checkedMsgStr.equals(msgStr)) {
+            TextSearch.findSpans(msgStr, pattern, range, triggerLength, style, highlights);
+        }
+        else {
+            TextSearch.findSpans(msgStr, pattern, triggerLength, style, highlights);
+        }
+    }
+
+    /**
+     * Captures the values of the trigger match that activated a
+     * notification, for use in its response templates, from the match
+     * already found. Must be called before {@code regexMatch} is used for any
+     * further searching.
+     * @param regexMatch the match of a regex trigger, if any.
+     * @param range the match of any other trigger, if any.
+     */
+    private Captures capture(T trigger, @Nullable Matcher regexMatch, @Nullable MatchRange range,
+                             String msgStr, String checkedMsgStr) {
+        if (regexMatch != null) {
+            return Captures.ofRegex(regexMatch, trigger);
+        }
+        else if (trigger.isKey() || range == null) {
+            return Captures.ofMessage(msgStr);
+        }
+        return Captures.ofLiteral(checkedMsgStr, range.start, range.end, trigger.getString());
+    }
+
+    /**
+     * @return the index of the first enabled exclusion trigger of
+     * {@code notif} that matches the message, or {@code -1} if none.
+     */
+    private int findExclusion(N notif, String msgStr, String checkedMsgStr,
+                              @Nullable String translationKey, boolean profile) {
+        if (notif.isExclusionEnabled()) {
+            List<T> exclTriggers = notif.getExclusionTriggers();
+            for (int i = 0; i < exclTriggers.size(); i++) {
+                T exclTrigger = exclTriggers.get(i);
+                if (!exclTrigger.isEnabled()) continue;
+                long triggerStart = profile ? System.nanoTime() : 0;
+                boolean matched = matches(notif, exclTrigger, msgStr, checkedMsgStr,
+                        translationKey) != null;
+                if (profile) exclTrigger.recordProfile(System.nanoTime() - triggerStart);
+                if (matched) return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the range of the match of {@code trigger}, or {@code null} if
+     * it does not match. A key trigger matches the whole message.
+     */
+    private static @Nullable MatchRange matches(NotificationSpec<?,?> notif, TriggerSpec<?> trigger,
+                                                String msgStr, String checkedMsgStr,
+                                                @Nullable String translationKey) {
+        if (trigger.isKey()) {
+            return trigger.getString().equals(".")
+                    || (translationKey != null && translationKey.contains(trigger.getString()))
+                    ? new MatchRange(0, msgStr.length()) : null;
+        }
+        boolean asRegex = notif.isRegexAllowed() && trigger.isRegex();
+        return TextSearch.find(asRegex ? msgStr : checkedMsgStr, trigger.getPattern(asRegex));
+    }
+}
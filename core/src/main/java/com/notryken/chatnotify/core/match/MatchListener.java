@@ -0,0 +1,15 @@
+package com.notryken.chatnotify.core.match;
+
+/**
+ * Receives the steps of a {@code MatchEngine} decision, identified by the
+ * index of the notification and of the trigger within it.
+ */
+public interface MatchListener {
+    void candidate(int notif);
+
+    void hit(int notif, int trigger);
+
+    void skipped(int notif, int trigger);
+
+    void vetoed(int notif, int exclusionTrigger);
+}
@@ -0,0 +1,14 @@
+package com.notryken.chatnotify.core.match;
+
+/**
+ * The range of a match within a {@code String}.
+ */
+public class MatchRange {
+    public final int start;
+    public final int end;
+
+    public MatchRange(int start, int end) {
+        this.start = start;
+        this.end = end;
+    }
+}
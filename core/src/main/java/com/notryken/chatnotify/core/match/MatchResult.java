@@ -0,0 +1,39 @@
+package com.notryken.chatnotify.core.match;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The outcome of matching a message with a {@code MatchEngine}.
+ * @param <N> the notification type.
+ * @param <T> the trigger type.
+ * @param <S> the style type.
+ */
+public class MatchResult<N extends NotificationSpec<T,S>, T extends TriggerSpec<S>, S> {
+    // The first activated notification, if any
+    public final @Nullable N activated;
+    // The index of activated in the notifications, or -1
+    public final int activatedIndex;
+    // The trigger that activated it, if any
+    public final @Nullable T activatedBy;
+    // Match values for the response templates of activated, if enabled
+    public final @Nullable Captures captures;
+    // The activated notification, if it restyles the whole message
+    public final @Nullable N simpleNotif;
+    // The parts of the message to restyle, in flattened message coordinates
+    public final SpanList<S> highlights;
+    // Whether a regex trigger was skipped
+    public final boolean skipped;
+
+    public MatchResult(@Nullable N activated, int activatedIndex, @Nullable T activatedBy,
+                       @Nullable Captures captures,
+                       @Nullable N simpleNotif, SpanList<S> highlights,
+                       boolean skipped) {
+        this.activated = activated;
+        this.activatedIndex = activatedIndex;
+        this.activatedBy = activatedBy;
+        this.captures = captures;
+        this.simpleNotif = simpleNotif;
+        this.highlights = highlights;
+        this.skipped = skipped;
+    }
+}
@@ -0,0 +1,51 @@
+package com.notryken.chatnotify.core.match;
+
+import com.notryken.chatnotify.core.action.ResponseTemplate;
+
+import java.util.List;
+
+/**
+ * The view of a notification used by the {@code MatchEngine} and the
+ * {@code ActionDispatcher}.
+ * @param <T> the trigger type.
+ * @param <S> the style type.
+ */
+public interface NotificationSpec<T extends TriggerSpec<S>, S> {
+    boolean isEnabled();
+
+    /**
+     * @return {@code true} if the notification is being edited, in which case
+     * it is not matched.
+     */
+    boolean isEditing();
+
+    /**
+     * @return {@code true} if the notification is still matched when
+     * processing is degraded.
+     */
+    boolean isCritical();
+
+    boolean isRegexAllowed();
+
+    boolean isExclusionEnabled();
+
+    boolean isResponseEnabled();
+
+    S getStyle();
+
+    List<T> getTriggers();
+
+    List<T> getExclusionTriggers();
+
+    List<ResponseTemplate> getResponseTemplates();
+
+    /**
+     * @return the delay before the first response, in ticks.
+     */
+    int getResponseDelay();
+
+    /**
+     * @return the delay between responses, in ticks.
+     */
+    int getResponseStagger();
+}
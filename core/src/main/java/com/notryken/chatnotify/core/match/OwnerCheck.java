@@ -0,0 +1,71 @@
+package com.notryken.chatnotify.core.match;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Identification of messages sent by the user.
+ */
+public class OwnerCheck {
+    /**
+     * The messages and commands recently sent by the user, in lowercase.
+     */
+    public interface SentMessages {
+        int size();
+
+        String get(int index);
+
+        void remove(int index);
+    }
+
+    /**
+     * Determines whether {@code msgStr} was sent by the user and modifies it if
+     * necessary to prevent unwanted notifications.
+     * <p>
+     * {@code msgStr} is identified as sent by the user if it contains a sent
+     * message, and has a prefix that is both not contained in the sent
+     * message, and contains (according to {@code TextSearch.find()}) one of
+     * the specified user triggers. The matching sent message is removed.
+     * <p>
+     * If {@code msgStr} is positively identified, it is set to {@code null} if
+     * {@code keepOwn} is false, else the part of the prefix that matched a
+     * trigger is removed.
+     * <p>
+     * <b>Note:</b> This approach is imperfect and may fail if, for example,
+     * two messages are sent, the first contains the second, and the return of
+     * the second message arrives first.
+     * @param msgStr the message {@code String} to process.
+     * @param sent the messages recently sent by the user.
+     * @param userTriggers the triggers matching the name of the user.
+     * @param keepOwn whether messages sent by the user are still processed.
+     * @return the processed version of {@code msgStr}.
+     */
+    public static @Nullable String check(String msgStr, SentMessages sent,
+                                         List<? extends TriggerSpec<?>> userTriggers,
+                                         boolean keepOwn) {
+        if (sent.size() == 0) return msgStr;
+        // Sent messages are always converted to lowercase, convert to match.
+        String msgStrLow = msgStr.toLowerCase(Locale.ROOT);
+        // Check for a matching sent message
+        for (int i = 0; i < sent.size(); i++) {
+            int lastMatchIdx = msgStrLow.lastIndexOf(sent.get(i));
+            if (lastMatchIdx > 0) {
+                // Check for a trigger in the part before the match
+                String prefix = msgStr.substring(0, lastMatchIdx);
+                for (TriggerSpec<?> trigger : userTriggers) {
+                    MatchRange prefixMatch = TextSearch.find(prefix, trigger.getPattern(false));
+                    if (prefixMatch != null) {
+                        // Both conditions are now satisfied
+                        sent.remove(i);
+                        if (!keepOwn) return null;
+                        return msgStr.substring(0, prefixMatch.start) +
+                                msgStr.substring(prefixMatch.end);
+                    }
+                }
+            }
+        }
+        return msgStr;
+    }
+}
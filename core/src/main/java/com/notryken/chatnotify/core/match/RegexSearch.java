@@ -0,0 +1,20 @@
+package com.notryken.chatnotify.core.match;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.regex.Matcher;
+
+/**
+ * Searches a {@code String} with a regex trigger.
+ * @param <T> the trigger type.
+ * @see TextSearch#findRegex(String, TriggerSpec)
+ */
+@FunctionalInterface
+public interface RegexSearch<T extends TriggerSpec<?>> {
+    /**
+     * @return the {@code Matcher}, positioned at the first match, or
+     * {@code null} if not found or if the trigger string is not a valid
+     * regex.
+     */
+    @Nullable Matcher find(String str, T trigger);
+}
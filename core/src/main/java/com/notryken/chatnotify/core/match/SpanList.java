@@ -0,0 +1,98 @@
+package com.notryken.chatnotify.core.match;
+
+import java.util.Arrays;
+
+/**
+ * A sorted list of non-overlapping highlight spans within a {@code String},
+ * stored in primitive arrays so that it can be cleared and re-used for each
+ * {@code String} searched.
+ * <p>
+ * Spans are added in priority order; a span that overlaps an existing span
+ * is rejected, so the earlier (higher-priority) span wins.
+ * @param <S> the type of the style attached to each span.
+ */
+public class SpanList<S> {
+    private int size;
+    private int[] starts;
+    private int[] ends;
+    private int[] innerStarts;
+    private Object[] styles;
+
+    public SpanList() {
+        this.size = 0;
+        this.starts = new int[4];
+        this.ends = new int[4];
+        this.innerStarts = new int[4];
+        this.styles = new Object[4];
+    }
+
+    /**
+     * Inserts a span in sorted position, if it does not overlap an existing
+     * span.
+     * @param start the start index of the span (inclusive).
+     * @param end the end index of the span (exclusive).
+     * @param innerStart the index at which the trigger itself starts, after
+     *                   any leading characters included in the match.
+     * @param style the style to apply to the span.
+     * @return {@code true} if the span was added, {@code false} otherwise.
+     */
+    public boolean add(int start, int end, int innerStart, S style) {
+        if (end <= start) return false;
+        // Find the first span starting at or after this one
+        int i = size;
+        while (i > 0 && starts[i - 1] >= start) i--;
+        if (i > 0 && ends[i - 1] > start) return false;
+        if (i < size && starts[i] < end) return false;
+
+        if (size == starts.length) {
+            int newLength = size * 2;
+            starts = Arrays.copyOf(starts, newLength);
+            ends = Arrays.copyOf(ends, newLength);
+            innerStarts = Arrays.copyOf(innerStarts, newLength);
+            styles = Arrays.copyOf(styles, newLength);
+        }
+        int moved = size - i;
+        if (moved > 0) {
+            System.arraycopy(starts, i, starts, i + 1, moved);
+            System.arraycopy(ends, i, ends, i + 1, moved);
+            System.arraycopy(innerStarts, i, innerStarts, i + 1, moved);
+            System.arraycopy(styles, i, styles, i + 1, moved);
+        }
+        starts[i] = start;
+        ends[i] = end;
+        innerStarts[i] = innerStart;
+        styles[i] = style;
+        size++;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(styles, 0, size, null);
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int start(int index) {
+        return starts[index];
+    }
+
+    public int end(int index) {
+        return ends[index];
+    }
+
+    public int innerStart(int index) {
+        return innerStarts[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public S style(int index) {
+        return (S)styles[index];
+    }
+}
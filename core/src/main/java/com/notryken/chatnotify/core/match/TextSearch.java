@@ -0,0 +1,180 @@
+package com.notryken.chatnotify.core.match;
+
+import com.notryken.chatnotify.core.util.FormatCodeUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Searching of flattened message {@code String}s with trigger patterns.
+ */
+public class TextSearch {
+    /**
+     * Compiles the pattern of a literal trigger,
+     * {@code (?<!\w)((\W?|(§[a-z0-9])+)(?i)<str>\W?)(?!\w)}.
+     * <p>
+     * The trigger is matched case-insensitively as a whole word, and the
+     * match may include one leading and one trailing non-word character, or
+     * leading format codes.
+     * @param str the trigger {@code String}.
+     * @return the compiled pattern.
+     */
+    public static Pattern compileLiteral(String str) {
+        return Pattern.compile("(?<!\\w)((\\W?|(§[a-z0-9])+)(?i)" +
+                Pattern.quote(str) + "\\W?)(?!\\w)");
+    }
+
+    /**
+     * Searches {@code str} for the first match of {@code pattern}.
+     * @param str the {@code String} to search in.
+     * @param pattern the pattern, or {@code null} if not valid.
+     * @return the range of the first match, or {@code null} if not found or
+     * if {@code pattern} is {@code null}.
+     */
+    public static @Nullable MatchRange find(String str, @Nullable Pattern pattern) {
+        if (pattern != null) {
+            Matcher matcher = pattern.matcher(str);
+            if (matcher.find()) {
+                return new MatchRange(matcher.start(), matcher.end());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Uses the compiled regex pattern of {@code trigger} to search
+     * {@code str}.
+     * @param str the {@code String} to search in.
+     * @param trigger the regex trigger to search with.
+     * @return the {@code Matcher}, positioned at the first match, or
+     * {@code null} if not found or if the trigger string does not represent a
+     * valid regex.
+     */
+    public static @Nullable Matcher findRegex(String str, TriggerSpec<?> trigger) {
+        Pattern pattern = trigger.getPattern(true);
+        if (pattern != null) {
+            Matcher matcher = pattern.matcher(str);
+            if (matcher.find()) {
+                return matcher;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a span to {@code spans} for every match of the literal trigger
+     * pattern in {@code str}.
+     * <p>
+     * The inner start of each span is the start of the trigger if the match
+     * does not include a trailing non-word character, as found by the legacy
+     * restyling.
+     * @param str the {@code String} to search in.
+     * @param pattern the literal trigger pattern.
+     * @param triggerLength the length of the trigger {@code String}.
+     * @param style the style to attach to each span.
+     * @param spans the {@code SpanList} to add to.
+     * @see #compileLiteral(String)
+     */
+    public static <S> void findSpans(String str, Pattern pattern, int triggerLength, S style,
+                                     SpanList<S> spans) {
+        Matcher matcher = pattern.matcher(str);
+        while (matcher.find()) {
+            spans.add(matcher.start(), matcher.end(), matcher.end() - triggerLength, style);
+        }
+    }
+
+    /**
+     * As {@link #findSpans(String, Pattern, int, Object, SpanList)}, where
+     * the first match has already been found by {@link #find}, so that only
+     * the rest of {@code str} is searched.
+     * @param first the first match of {@code pattern} in {@code str}.
+     */
+    public static <S> void findSpans(String str, Pattern pattern, MatchRange first,
+                                     int triggerLength, S style, SpanList<S> spans) {
+        spans.add(first.start, first.end, first.end - triggerLength, style);
+        // Transparent bounds, so that the lookbehind sees the end of the first match
+        Matcher matcher = pattern.matcher(str)
+                .region(first.end, str.length())
+                .useTransparentBounds(true)
+                .useAnchoringBounds(false);
+        while (matcher.find()) {
+            spans.add(matcher.start(), matcher.end(), matcher.end() - triggerLength, style);
+        }
+    }
+
+    /**
+     * Adds a span to {@code spans} for each styled named group, for the
+     * current and all following matches of {@code matcher}.
+     * @param matcher the {@code Matcher}, positioned at the first match.
+     * @param groupStyles the style of each named group.
+     * @param enabled whether a style is enabled.
+     * @param spans the {@code SpanList} to add to, in flattened message
+     *              coordinates.
+     */
+    public static <S> void findGroupSpans(Matcher matcher, Map<String,S> groupStyles,
+                                          Predicate<? super S> enabled, SpanList<S> spans) {
+        do {
+            for (Map.Entry<String,S> entry : groupStyles.entrySet()) {
+                if (!enabled.test(entry.getValue())) continue;
+                int start;
+                try {
+                    start = matcher.start(entry.getKey());
+                } catch (IllegalArgumentException e) {
+                    continue; // No group with that name
+                }
+                if (start != -1) {
+                    spans.add(start, matcher.end(entry.getKey()), start, entry.getValue());
+                }
+            }
+        } while (matcher.find());
+    }
+
+    /**
+     * Adds the part of each span of {@code flatSpans} that lies within the
+     * specified range of the flattened message to {@code spans}, relative to
+     * the start of the range.
+     * @param flatSpans the spans, in flattened message coordinates.
+     * @param offset the start of the range in the flattened message.
+     * @param length the length of the range.
+     * @param spans the {@code SpanList} to add to.
+     */
+    public static <S> void addFlatSpans(SpanList<S> flatSpans, int offset, int length,
+                                        SpanList<S> spans) {
+        int end = offset + length;
+        for (int i = 0; i < flatSpans.size(); i++) {
+            if (flatSpans.start(i) >= end) break;
+            int start = Math.max(flatSpans.start(i), offset);
+            int stop = Math.min(flatSpans.end(i), end);
+            if (start < stop) {
+                int innerStart = Math.min(Math.max(flatSpans.innerStart(i), start), stop);
+                spans.add(start - offset, stop - offset, innerStart - offset, flatSpans.style(i));
+            }
+        }
+    }
+
+    /**
+     * If {@code str} contains format codes immediately preceding a match of
+     * a literal trigger pattern, the match range includes the format codes.
+     * <p>
+     * This method scans the specified range of {@code str} to determine the
+     * start of the actual match, defined as being the first character after
+     * the last format code.
+     * @param str the {@code String} with possible format codes.
+     * @param start the start index of the match range.
+     * @param maxStart the maximum possible start index of the actual match.
+     * @return the index of the first character after the last format code, or
+     * {@code start} if there are no format codes in the range.
+     */
+    public static int startIgnoreCodes(String str, int start, int maxStart) {
+        int realStart = start;
+        for (int i = start; i <= maxStart; i++) {
+            if (FormatCodeUtil.isCodeAt(str, i)) {
+                realStart = i + 2;
+            }
+        }
+        return realStart;
+    }
+}
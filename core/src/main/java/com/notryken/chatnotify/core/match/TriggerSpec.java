@@ -0,0 +1,50 @@
+package com.notryken.chatnotify.core.match;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The view of a trigger used by the {@code MatchEngine}.
+ * @param <S> the style type.
+ */
+public interface TriggerSpec<S> {
+    String getString();
+
+    boolean isEnabled();
+
+    /**
+     * @return {@code true} if the trigger is matched against the translation
+     * key of a message, rather than its text.
+     */
+    boolean isKey();
+
+    boolean isRegex();
+
+    /**
+     * @param asRegex whether to treat the trigger string as a regex.
+     * @return the compiled pattern, or {@code null} if {@code asRegex} is
+     * {@code true} and the trigger string is not a valid regex.
+     * @see TextSearch#compileLiteral(String)
+     */
+    @Nullable Pattern getPattern(boolean asRegex);
+
+    /**
+     * @return the names of all named groups of the trigger string, in order
+     * of appearance.
+     */
+    List<String> getGroupNames();
+
+    /**
+     * @return the styles of named groups of a regex trigger, by name.
+     */
+    Map<String,S> getGroupStyles();
+
+    /**
+     * Records a sampled evaluation of the trigger.
+     * @param nanos the time taken by the evaluation.
+     */
+    void recordProfile(long nanos);
+}
@@ -0,0 +1,132 @@
+package com.notryken.chatnotify.core.util;
+
+import java.util.Arrays;
+
+/**
+ * Legacy ({@code §}) format code utilities.
+ * <p>
+ * The format state of a {@code String} is tracked as a packed {@code int}:
+ * bits 0-3 hold the color index, bit 4 marks whether a color is present and
+ * bits 5-9 hold the obfuscated, bold, strikethrough, underline and italic
+ * flags. A state of {@code 0} represents no active formatting.
+ * <p>
+ * State transitions mirror {@code Style.applyLegacyFormat()}, so a color code
+ * clears any active format codes and the reset code clears everything.
+ */
+public class FormatCodeUtil {
+    public static final char PREFIX = '\u00a7';
+    public static final int NONE = 0;
+
+    private static final int COLOR_MASK = 0xF;
+    private static final int HAS_COLOR = 1 << 4;
+    private static final int FORMAT_SHIFT = 5;
+    private static final int STATE_COUNT = 1 << 10;
+
+    private static final String COLOR_CHARS = "0123456789abcdef";
+    private static final String FORMAT_CHARS = "klmno";
+    private static final int RESET = -2;
+    private static final int INVALID = -1;
+
+    // Maps code chars to a color index (0-15), format index (16-20) or RESET
+    private static final int[] CODE_TABLE = new int[128];
+    // Maps packed states to the code String that re-applies them
+    private static final String[] CODES = new String[STATE_COUNT];
+
+    static {
+        Arrays.fill(CODE_TABLE, INVALID);
+        for (int i = 0; i < COLOR_CHARS.length(); i++) {
+            CODE_TABLE[COLOR_CHARS.charAt(i)] = i;
+            CODE_TABLE[Character.toUpperCase(COLOR_CHARS.charAt(i))] = i;
+        }
+        for (int i = 0; i < FORMAT_CHARS.length(); i++) {
+            CODE_TABLE[FORMAT_CHARS.charAt(i)] = 16 + i;
+            CODE_TABLE[Character.toUpperCase(FORMAT_CHARS.charAt(i))] = 16 + i;
+        }
+        CODE_TABLE['r'] = RESET;
+        CODE_TABLE['R'] = RESET;
+
+        StringBuilder builder = new StringBuilder(12);
+        for (int state = 0; state < STATE_COUNT; state++) {
+            builder.setLength(0);
+            if ((state & HAS_COLOR) != 0) {
+                builder.append(PREFIX).append(COLOR_CHARS.charAt(state & COLOR_MASK));
+            }
+            for (int i = 0; i < FORMAT_CHARS.length(); i++) {
+                if ((state & (1 << (FORMAT_SHIFT + i))) != 0) {
+                    builder.append(PREFIX).append(FORMAT_CHARS.charAt(i));
+                }
+            }
+            CODES[state] = builder.toString();
+        }
+    }
+
+    /**
+     * Applies the specified format code character to the specified state.
+     * @param state the packed format state.
+     * @param code the character following the {@code §}.
+     * @return the new packed format state, or {@code state} if {@code code} is
+     * not a valid format code.
+     */
+    public static int apply(int state, char code) {
+        int index = code < 128 ? CODE_TABLE[code] : INVALID;
+        if (index == INVALID) return state;
+        if (index == RESET) return NONE;
+        if (index < 16) return HAS_COLOR | index;
+        return state | (1 << (FORMAT_SHIFT + index - 16));
+    }
+
+    /**
+     * Scans the specified range of {@code str} and computes the format state
+     * active at the end of the range.
+     * @param str the {@code String} to scan.
+     * @param start the index to start at (inclusive).
+     * @param end the index to end at (exclusive).
+     * @return the packed format state.
+     */
+    public static int scan(String str, int start, int end) {
+        return scan(NONE, str, start, end);
+    }
+
+    /**
+     * Continues a scan from the specified state, allowing the format state at
+     * multiple increasing indices of {@code str} to be computed in a single
+     * linear pass.
+     * @param state the packed format state at {@code start}.
+     * @param str the {@code String} to scan.
+     * @param start the index to start at (inclusive).
+     * @param end the index to end at (exclusive).
+     * @return the packed format state.
+     */
+    public static int scan(int state, String str, int start, int end) {
+        for (int i = start; i < end - 1; i++) {
+            if (str.charAt(i) == PREFIX) {
+                state = apply(state, str.charAt(++i));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * @param state the packed format state.
+     * @return the format codes required to re-apply {@code state} after a
+     * reset, in canonical order (color first).
+     */
+    public static String toCodes(int state) {
+        return CODES[state & (STATE_COUNT - 1)];
+    }
+
+    /**
+     * Determines whether the specified index of {@code str} is the start of a
+     * two-character {@code §[a-z0-9]} sequence, as matched by the literal
+     * trigger pattern.
+     * @param str the {@code String} to check.
+     * @param index the index of the possible {@code §}.
+     * @return {@code true} if a code starts at {@code index}, {@code false}
+     * otherwise.
+     */
+    public static boolean isCodeAt(String str, int index) {
+        if (index + 1 >= str.length() || str.charAt(index) != PREFIX) return false;
+        char c = str.charAt(index + 1);
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z');
+    }
+}
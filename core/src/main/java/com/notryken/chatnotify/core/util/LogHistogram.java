@@ -0,0 +1,93 @@
+package com.notryken.chatnotify.core.util;
+
+/**
+ * A histogram of non-negative {@code long} values, with logarithmic buckets
+ * stored in a primitive array.
+ * <p>
+ * Each power of two is divided into {@code SUB_BUCKETS} linear sub-buckets,
+ * so the relative error of any reported value is at most
+ * {@code 1/SUB_BUCKETS}. Recording does not allocate.
+ * <p>
+ * Thread-safe.
+ */
+public class LogHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // Values of 2^MAX_BITS or more are recorded in the last bucket
+    private static final int MAX_BITS = 40;
+    private static final int BUCKET_COUNT = (MAX_BITS - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * Records a value. Negative values are recorded as {@code 0}.
+     * @param value the value.
+     */
+    public synchronized void record(long value) {
+        value = Math.max(0, value);
+        counts[bucketOf(value)]++;
+        count++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * @return the mean of all recorded values, or {@code 0} if none have been
+     * recorded.
+     */
+    public synchronized double getMean() {
+        return count == 0 ? 0 : (double)sum / count;
+    }
+
+    /**
+     * @param percentile the percentile, from {@code 0} to {@code 100}.
+     * @return the upper bound of the bucket containing the specified
+     * percentile, limited to the maximum recorded value, or {@code 0} if no
+     * values have been recorded.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) return 0;
+        long target = Math.max(1, (long)Math.ceil(count * Math.min(100, percentile) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min(max, upperBoundOf(i));
+        }
+        return max;
+    }
+
+    public synchronized void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = 0;
+        }
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int)value;
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        if (msb >= MAX_BITS) return BUCKET_COUNT - 1;
+        int sub = (int)(value >>> (msb - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (msb - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int msb = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long)(SUB_BUCKETS + sub + 1) << (msb - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,129 @@
+package com.notryken.chatnotify.core.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded, least-recently-used cache of values computed from a message,
+ * keyed by the flattened message {@code String} and the translation key of
+ * the message.
+ * <p>
+ * All entries are discarded when the config generation or the capacity
+ * changes. Lookups and values of an older generation, such as from a worker
+ * thread using a snapshot of the config, are ignored. All methods are
+ * thread-safe.
+ * @param <V> the type of the cached values.
+ */
+public class MessageCache<V> {
+    private final LinkedHashMap<Key,V> entries;
+    private int capacity;
+    private int generation;
+    private long hits;
+    private long misses;
+
+    public MessageCache() {
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key,V> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.capacity = 0;
+        this.generation = 0;
+        this.hits = 0;
+        this.misses = 0;
+    }
+
+    /**
+     * Looks up the value for a message, first clearing the cache if the
+     * specified generation or capacity differs from that of the cached
+     * entries.
+     * @param generation the current config generation.
+     * @param capacity the maximum number of entries, or {@code 0} to disable
+     *                 the cache.
+     * @param msgStr the flattened message {@code String}.
+     * @param translationKey the translation key of the message, if any.
+     * @return the cached value, or {@code null} if not found or if
+     * {@code generation} is older than that of the cached entries.
+     */
+    public synchronized @Nullable V get(int generation, int capacity,
+                                        String msgStr, @Nullable String translationKey) {
+        if (generation < this.generation) return null;
+        if (generation != this.generation || capacity != this.capacity) {
+            entries.clear();
+            this.generation = generation;
+            this.capacity = capacity;
+        }
+        if (capacity <= 0) return null;
+
+        V value = entries.get(new Key(msgStr, translationKey));
+        if (value == null) {
+            misses++;
+        }
+        else {
+            hits++;
+        }
+        return value;
+    }
+
+    /**
+     * Stores the value for a message, if the cache is enabled and
+     * {@code generation} is that of the cached entries.
+     * @param generation the config generation the value was computed with.
+     */
+    public synchronized void put(int generation, String msgStr, @Nullable String translationKey,
+                                 V value) {
+        if (capacity > 0 && generation == this.generation) {
+            entries.put(new Key(msgStr, translationKey), value);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the fraction of lookups that found a cached value, or
+     * {@code 0} if there have been no lookups.
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    private static class Key {
+        private final String msgStr;
+        private final @Nullable String translationKey;
+        private final int hash;
+
+        private Key(String msgStr, @Nullable String translationKey) {
+            this.msgStr = msgStr;
+            this.translationKey = translationKey;
+            this.hash = 31 * msgStr.hashCode() + Objects.hashCode(translationKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key other)) return false;
+            return hash == other.hash && msgStr.equals(other.msgStr)
+                    && Objects.equals(translationKey, other.translationKey);
+        }
+    }
+}
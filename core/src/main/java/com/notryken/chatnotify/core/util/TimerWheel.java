@@ -0,0 +1,120 @@
+package com.notryken.chatnotify.core.util;
+
+import java.util.function.Consumer;
+
+/**
+ * A hashed timer wheel, advanced one slot per tick.
+ * <p>
+ * Each slot holds a linked list of timers. A timer with a delay longer than
+ * one revolution of the wheel is placed in the slot that it will expire in,
+ * with a count of the remaining revolutions, so both scheduling and expiry
+ * are O(1) per timer.
+ * <p>
+ * Not thread-safe.
+ * @param <T> the type of the scheduled items.
+ */
+public class TimerWheel<T> {
+    private final Node<T>[] slots;
+    private final int mask;
+    private int cursor;
+    private int size;
+
+    /**
+     * @param slotCount the number of slots, rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(int slotCount) {
+        int count = Integer.highestOneBit(Math.max(1, slotCount - 1)) << 1;
+        this.slots = (Node<T>[]) new Node[count];
+        this.mask = count - 1;
+        this.cursor = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Schedules an item to expire after the specified number of ticks.
+     * @param delayTicks the delay, at least 1.
+     * @param item the item.
+     */
+    public void schedule(int delayTicks, T item) {
+        delayTicks = Math.max(1, delayTicks);
+        int slot = (cursor + delayTicks) & mask;
+        int rounds = (delayTicks - 1) / slots.length;
+        slots[slot] = new Node<>(item, rounds, slots[slot]);
+        size++;
+    }
+
+    /**
+     * Advances the wheel by one tick, passing each expired item to the
+     * specified consumer in the order that they were scheduled.
+     * @param expired the consumer of expired items.
+     */
+    public void tick(Consumer<T> expired) {
+        cursor = (cursor + 1) & mask;
+        Node<T> node = slots[cursor];
+        if (node == null) return;
+
+        // Split the slot into expired and remaining nodes. Nodes are stored
+        // newest first, so build the expired list in reverse.
+        Node<T> remaining = null;
+        Node<T> expiredHead = null;
+        while (node != null) {
+            Node<T> next = node.next;
+            if (node.rounds == 0) {
+                node.next = expiredHead;
+                expiredHead = node;
+            }
+            else {
+                node.rounds--;
+                node.next = remaining;
+                remaining = node;
+            }
+            node = next;
+        }
+        // Restore newest-first order of remaining nodes
+        Node<T> restored = null;
+        while (remaining != null) {
+            Node<T> next = remaining.next;
+            remaining.next = restored;
+            restored = remaining;
+            remaining = next;
+        }
+        slots[cursor] = restored;
+
+        while (expiredHead != null) {
+            size--;
+            expired.accept(expiredHead.item);
+            expiredHead = expiredHead.next;
+        }
+    }
+
+    /**
+     * Cancels all scheduled items.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = null;
+        }
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static class Node<T> {
+        private final T item;
+        private int rounds;
+        private Node<T> next;
+
+        private Node(T item, int rounds, Node<T> next) {
+            this.item = item;
+            this.rounds = rounds;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.notryken.chatnotify.core.action;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseTemplateTest {
+    @Test
+    void fillsPlaceholders() {
+        ResponseTemplate template = ResponseTemplate.parse("hi {sender}, you said {match}");
+
+        assertTrue(template.hasPlaceholders());
+        assertEquals("hi Steve, you said hello",
+                template.render("hello", "Steve", Map.of()));
+    }
+
+    @Test
+    void fillsGroupsAndLeavesMissingGroupsEmpty() {
+        ResponseTemplate template = ResponseTemplate.parse("{group:item} x{group:count}!");
+
+        assertEquals("apple x3!", template.render("", "", Map.of("item", "apple", "count", "3")));
+        assertEquals("apple x!", template.render("", "", Map.of("item", "apple")));
+    }
+
+    @Test
+    void keepsOtherBracesAsLiteral() {
+        ResponseTemplate template = ResponseTemplate.parse("{foo} {group:} {match} {sender");
+
+        assertEquals("{foo} {group:} m {sender", template.render("m", "s", Map.of()));
+    }
+
+    @Test
+    void literalTemplateIsUnchanged() {
+        ResponseTemplate template = ResponseTemplate.parse("/spawn");
+
+        assertFalse(template.hasPlaceholders());
+        assertEquals("/spawn", template.source);
+        assertEquals("/spawn", template.render("/m", "/s", Map.of()));
+        assertEquals("", ResponseTemplate.parse("").render("m", "s", Map.of()));
+    }
+
+    @Test
+    void stripsCommandFromLeadingPlaceholderValue() {
+        assertEquals("op Steve", ResponseTemplate.parse("{match}")
+                .render("/op Steve", "", Map.of()));
+        assertEquals(" op", ResponseTemplate.parse(" {sender}")
+                .render("", " / op", Map.of()));
+        // An empty value does not start the response
+        assertEquals("kill", ResponseTemplate.parse("{sender}{match}")
+                .render("//kill", "", Map.of()));
+        // Leading spaces without a command are kept
+        assertEquals("  hi", ResponseTemplate.parse("{match}")
+                .render("  hi", "", Map.of()));
+    }
+
+    @Test
+    void keepsCommandAfterResponseStarts() {
+        assertEquals("/msg /x hi", ResponseTemplate.parse("/msg {sender} hi")
+                .render("", "/x", Map.of()));
+        assertEquals("a/b", ResponseTemplate.parse("{match}{sender}")
+                .render("a", "/b", Map.of()));
+    }
+}
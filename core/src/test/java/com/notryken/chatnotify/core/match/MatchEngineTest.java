@@ -0,0 +1,325 @@
+package com.notryken.chatnotify.core.match;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchEngineTest {
+    private final MatchEngine<TestNotification,TestTrigger,String> engine =
+            new MatchEngine<>(style -> !style.isEmpty(), TextSearch::findRegex);
+
+    private MatchResult<TestNotification,TestTrigger,String> match(List<TestNotification> notifs,
+                                                                   String msgStr) {
+        return engine.match(notifs, null, msgStr, msgStr, null, false, false, false, null);
+    }
+
+    @Test
+    void activatesFirstMatchingNotification() {
+        TestTrigger cat = TestTrigger.literal("cat");
+        List<TestNotification> notifs = List.of(
+                TestNotification.of("a", TestTrigger.literal("bird"), cat),
+                TestNotification.of("b", TestTrigger.literal("dog")));
+
+        MatchResult<TestNotification,TestTrigger,String> result = match(notifs, "the dog and cat");
+
+        assertSame(notifs.get(0), result.activated);
+        assertEquals(0, result.activatedIndex);
+        assertSame(cat, result.activatedBy);
+        assertNull(result.simpleNotif);
+        assertFalse(result.skipped);
+        // Lower-priority notifications still add highlights
+        assertEquals(2, result.highlights.size());
+        assertEquals(4, result.highlights.start(0));
+        assertEquals(7, result.highlights.end(0));
+        assertEquals("b", result.highlights.style(0));
+        assertEquals(12, result.highlights.start(1));
+        assertEquals("a", result.highlights.style(1));
+    }
+
+    @Test
+    void highlightsEveryOccurrence() {
+        List<TestNotification> notifs = List.of(TestNotification.of("a", TestTrigger.literal("cat")));
+
+        MatchResult<TestNotification,TestTrigger,String> result = match(notifs, "cat, cat and cat");
+
+        assertEquals(3, result.highlights.size());
+    }
+
+    @Test
+    void noMatchActivatesNothing() {
+        List<TestNotification> notifs = List.of(TestNotification.of("a", TestTrigger.literal("cat")));
+
+        MatchResult<TestNotification,TestTrigger,String> result = match(notifs, "concatenate");
+
+        assertNull(result.activated);
+        assertEquals(-1, result.activatedIndex);
+        assertNull(result.activatedBy);
+        assertTrue(result.highlights.isEmpty());
+    }
+
+    @Test
+    void skipsDisabledEditingAndBlankTriggers() {
+        TestNotification disabled = TestNotification.of("a", TestTrigger.literal("cat"));
+        disabled.enabled = false;
+        TestNotification editing = TestNotification.of("b", TestTrigger.literal("cat"));
+        editing.editing = true;
+        TestTrigger off = TestTrigger.literal("cat");
+        off.enabled = false;
+        TestTrigger on = TestTrigger.literal("cat");
+        TestNotification enabled = TestNotification.of("c", off, TestTrigger.literal(" "), on);
+
+        MatchResult<TestNotification,TestTrigger,String> result =
+                match(List.of(disabled, editing, enabled), "cat");
+
+        assertSame(enabled, result.activated);
+        assertEquals(2, result.activatedIndex);
+        assertSame(on, result.activatedBy);
+        assertEquals(1, result.highlights.size());
+        assertEquals("c", result.highlights.style(0));
+    }
+
+    @Test
+    void exclusionVetoesNotification() {
+        TestNotification excluded = TestNotification.of("a", TestTrigger.literal("cat"))
+                .excluding(TestTrigger.literal("bird"), TestTrigger.literal("dog"));
+        TestNotification other = TestNotification.of("b", TestTrigger.literal("cat"));
+        RecordingListener listener = new RecordingListener();
+
+        MatchResult<TestNotification,TestTrigger,String> result = engine.match(
+                List.of(excluded, other), null, "cat and dog", "cat and dog", null,
+                false, false, false, listener);
+
+        assertSame(other, result.activated);
+        assertEquals(1, result.activatedIndex);
+        // The vetoed notification adds no highlight
+        assertEquals(1, result.highlights.size());
+        assertEquals("b", result.highlights.style(0));
+        assertEquals(List.of("candidate 0", "hit 0 0", "vetoed 0 1",
+                "candidate 1", "hit 1 0"), listener.steps);
+    }
+
+    @Test
+    void disabledExclusionDoesNotVeto() {
+        TestTrigger dog = TestTrigger.literal("dog");
+        dog.enabled = false;
+        TestNotification notif = TestNotification.of("a", TestTrigger.literal("cat")).excluding(dog);
+
+        assertSame(notif, match(List.of(notif), "cat and dog").activated);
+    }
+
+    @Test
+    void keyTriggersMatchTranslationKey() {
+        TestNotification emote = TestNotification.of("a", TestTrigger.key("chat.type.emote"));
+        TestNotification any = TestNotification.of("b", TestTrigger.key("."));
+        List<TestNotification> notifs = List.of(emote, any);
+
+        MatchResult<TestNotification,TestTrigger,String> result = engine.match(notifs, null,
+                "* Steve waves", "* Steve waves", "chat.type.emote", false, false, false, null);
+        assertSame(emote, result.activated);
+        // Key triggers restyle the whole message
+        assertSame(emote, result.simpleNotif);
+        assertTrue(result.highlights.isEmpty());
+
+        result = engine.match(notifs, null, "hi", "hi", "chat.type.text",
+                false, false, false, null);
+        assertSame(any, result.activated);
+        assertSame(any, result.simpleNotif);
+
+        result = engine.match(notifs, null, "hi", "hi", null, false, false, false, null);
+        assertSame(any, result.activated);
+    }
+
+    @Test
+    void regexTriggerIsLiteralUnlessAllowed() {
+        TestNotification notif = TestNotification.of("a", TestTrigger.regex("c.t"));
+
+        assertNull(match(List.of(notif), "cat").activated);
+        MatchResult<TestNotification,TestTrigger,String> result = match(List.of(notif), "a c.t");
+        assertSame(notif, result.activated);
+        // Still restyles the whole message, as a regex trigger
+        assertSame(notif, result.simpleNotif);
+        assertTrue(result.highlights.isEmpty());
+
+        notif.regexAllowed = true;
+        result = match(List.of(notif), "cat");
+        assertSame(notif, result.activated);
+        assertSame(notif, result.simpleNotif);
+    }
+
+    @Test
+    void onlyActivatedNotificationRestylesWholeMessage() {
+        TestNotification literal = TestNotification.of("a", TestTrigger.literal("cat"));
+        TestNotification key = TestNotification.of("b", TestTrigger.key("."));
+
+        MatchResult<TestNotification,TestTrigger,String> result = match(List.of(literal, key), "cat");
+
+        assertSame(literal, result.activated);
+        assertNull(result.simpleNotif);
+        assertEquals(1, result.highlights.size());
+    }
+
+    @Test
+    void styledGroupsAreHighlighted() {
+        TestNotification joined = TestNotification.of("a",
+                TestTrigger.regex("(?<who>\\w+) joined").withGroupStyle("who", "g"));
+        joined.regexAllowed = true;
+        TestNotification left = TestNotification.of("b",
+                TestTrigger.regex("(?<who>\\w+) left").withGroupStyle("who", "h"));
+        left.regexAllowed = true;
+
+        MatchResult<TestNotification,TestTrigger,String> result =
+                match(List.of(joined, left), "Alex joined, Steve left");
+
+        assertSame(joined, result.activated);
+        assertNull(result.simpleNotif);
+        assertEquals(2, result.highlights.size());
+        assertEquals(0, result.highlights.start(0));
+        assertEquals(4, result.highlights.end(0));
+        assertEquals("g", result.highlights.style(0));
+        assertEquals(13, result.highlights.start(1));
+        assertEquals("h", result.highlights.style(1));
+    }
+
+    @Test
+    void skippedRegexPreventsLowerPriorityActivation() {
+        TestNotification regex = TestNotification.of("a", TestTrigger.regex("c.t"));
+        regex.regexAllowed = true;
+        TestNotification literal = TestNotification.of("b", TestTrigger.literal("cat"));
+
+        MatchResult<TestNotification,TestTrigger,String> result = engine.match(
+                List.of(regex, literal), null, "cat", "cat", null, true, false, false, null);
+
+        assertTrue(result.skipped);
+        assertNull(result.activated);
+        assertTrue(result.highlights.isEmpty());
+    }
+
+    @Test
+    void regexAfterActivationIsNotSkipped() {
+        TestNotification literal = TestNotification.of("a", TestTrigger.literal("cat"));
+        TestNotification regex = TestNotification.of("b", TestTrigger.regex("c.t"));
+        regex.regexAllowed = true;
+
+        MatchResult<TestNotification,TestTrigger,String> result = engine.match(
+                List.of(literal, regex), null, "cat", "cat", null, true, false, false, null);
+
+        // The regex trigger cannot add a highlight, so is never checked
+        assertFalse(result.skipped);
+        assertSame(literal, result.activated);
+    }
+
+    @Test
+    void criticalOnlySkipsOtherNotifications() {
+        TestNotification normal = TestNotification.of("a", TestTrigger.literal("cat"));
+        TestNotification user = TestNotification.of("b", TestTrigger.literal("steve"));
+        TestNotification critical = TestNotification.of("c", TestTrigger.literal("cat"));
+        critical.critical = true;
+        List<TestNotification> notifs = List.of(normal, user, critical);
+
+        MatchResult<TestNotification,TestTrigger,String> result = engine.match(notifs, user,
+                "cat", "cat", null, false, true, false, null);
+        assertSame(critical, result.activated);
+        assertEquals(2, result.activatedIndex);
+
+        result = engine.match(notifs, user, "steve cat", "steve cat", null,
+                false, true, false, null);
+        assertSame(user, result.activated);
+    }
+
+    @Test
+    void capturesOnlyWhenResponseEnabled() {
+        TestNotification notif = TestNotification.of("a", TestTrigger.literal("steve"));
+
+        assertNull(match(List.of(notif), "hi <Steve>").captures);
+
+        notif.responseEnabled = true;
+        Captures captures = match(List.of(notif), "hi <Steve>").captures;
+        assertNotNull(captures);
+        assertEquals("Steve", captures.match);
+    }
+
+    @Test
+    void capturesRegexGroups() {
+        TestNotification notif = TestNotification.of("a",
+                TestTrigger.regex("(?<item>\\w+) x(?<count>\\d+)"));
+        notif.regexAllowed = true;
+        notif.responseEnabled = true;
+
+        Captures captures = match(List.of(notif), "got apple x3 today").captures;
+
+        assertNotNull(captures);
+        assertEquals("apple x3", captures.match);
+        assertEquals("apple", captures.groups.get("item"));
+        assertEquals("3", captures.groups.get("count"));
+    }
+
+    @Test
+    void keyTriggerCapturesWholeMessage() {
+        TestNotification notif = TestNotification.of("a", TestTrigger.key("."));
+        notif.responseEnabled = true;
+
+        Captures captures = match(List.of(notif), "anything").captures;
+
+        assertNotNull(captures);
+        assertEquals("anything", captures.match);
+    }
+
+    @Test
+    void ownerCheckedMessageIsMatchedButFullyHighlighted() {
+        List<TestNotification> notifs = List.of(TestNotification.of("a", TestTrigger.literal("steve")));
+
+        MatchResult<TestNotification,TestTrigger,String> result = engine.match(notifs, null,
+                "<Steve> hi Steve", " hi Steve", null, false, false, false, null);
+        assertNotNull(result.activated);
+        assertEquals(2, result.highlights.size());
+        assertEquals(0, result.highlights.start(0));
+        assertEquals(7, result.highlights.end(0));
+        assertEquals(11, result.highlights.start(1));
+
+        // The removed prefix alone does not activate
+        result = engine.match(notifs, null, "<Steve> hi", " hi", null, false, false, false, null);
+        assertNull(result.activated);
+        assertTrue(result.highlights.isEmpty());
+    }
+
+    @Test
+    void profilesEvaluatedTriggers() {
+        TestTrigger first = TestTrigger.literal("cat");
+        TestTrigger exclusion = TestTrigger.literal("dog");
+        TestNotification notif = TestNotification.of("a", first).excluding(exclusion);
+
+        engine.match(List.of(notif), null, "cat", "cat", null, false, false, true, null);
+        assertEquals(1, first.profileCount);
+        assertEquals(1, exclusion.profileCount);
+
+        engine.match(List.of(notif), null, "cat", "cat", null, false, false, false, null);
+        assertEquals(1, first.profileCount);
+    }
+
+    private static class RecordingListener implements MatchListener {
+        private final List<String> steps = new ArrayList<>();
+
+        @Override
+        public void candidate(int notif) {
+            steps.add("candidate " + notif);
+        }
+
+        @Override
+        public void hit(int notif, int trigger) {
+            steps.add("hit " + notif + " " + trigger);
+        }
+
+        @Override
+        public void skipped(int notif, int trigger) {
+            steps.add("skipped " + notif + " " + trigger);
+        }
+
+        @Override
+        public void vetoed(int notif, int exclusionTrigger) {
+            steps.add("vetoed " + notif + " " + exclusionTrigger);
+        }
+    }
+}
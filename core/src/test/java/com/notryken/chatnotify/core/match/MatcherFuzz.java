@@ -0,0 +1,448 @@
+package com.notryken.chatnotify.core.match;
+
+import com.notryken.chatnotify.core.util.FormatCodeUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Differential fuzzing of literal trigger matchers against the legacy
+ * restyling.
+ * <p>
+ * The legacy restyling found the first match of the legacy literal pattern
+ * {@code (?<!\w)((\W?|(§[a-z0-9])+)(?i)<trigger>\W?)(?!\w)} in a literal
+ * component, took the start of the trigger to be the end of the match less
+ * the trigger length, and styled the match from the first character after
+ * any leading format codes. Any replacement matcher must produce the same
+ * restyle spans for every message and trigger. This harness generates random
+ * triggers and messages biased towards the edge cases of the pattern (word
+ * boundaries, format codes, case, regex metacharacters and non-ASCII text),
+ * and compares the start, end, inner start and styled start of each span of
+ * each candidate with those of the legacy restyling, applied to the first
+ * match or to every match.
+ * <p>
+ * Each divergence is minimised by removing characters from the message and
+ * trigger while it persists, then reported with both sets of spans. The exit
+ * status is {@code 1} if any divergence was found, or if a control candidate,
+ * which is known to differ from the legacy restyling, was never found to
+ * diverge.
+ * <p>
+ * New matchers are verified by adding them to {@code CANDIDATES}. Run with
+ * {@code ./gradlew :core:fuzz -Pargs="[options]"}.
+ */
+public class MatcherFuzz {
+    private static final String USAGE = """
+            Usage: MatcherFuzz [options]
+            Options:
+              --iterations <n>   the number of messages to generate, default 1000000
+              --seed <n>         the random seed, default random
+              --max-reports <n>  stop after this many divergences, default 10""";
+
+    /**
+     * A literal trigger search.
+     */
+    @FunctionalInterface
+    public interface LiteralMatcher {
+        /**
+         * Adds a span for each match of {@code trigger} in {@code str}.
+         * @param str the {@code String} to search in.
+         * @param trigger the literal trigger {@code String}, not blank.
+         * @param spans the {@code SpanList} to add to.
+         */
+        void findSpans(String str, String trigger, SpanList<Object> spans);
+    }
+
+    /**
+     * A matcher to verify, whether it only finds the first match, and whether
+     * it is a control that must be found to diverge.
+     */
+    private static class Candidate {
+        private final String name;
+        private final LiteralMatcher matcher;
+        private final boolean firstOnly;
+        private final boolean control;
+
+        private Candidate(String name, boolean firstOnly, boolean control, LiteralMatcher matcher) {
+            this.name = name;
+            this.matcher = matcher;
+            this.firstOnly = firstOnly;
+            this.control = control;
+        }
+    }
+
+    private static final List<Candidate> CANDIDATES = List.of(
+            // The first match, as used for activation, captures and the owner check
+            new Candidate("TextSearch.find", true, false, (str, trigger, spans) -> {
+                MatchRange range = TextSearch.find(str, TextSearch.compileLiteral(trigger));
+                if (range != null) {
+                    spans.add(range.start, range.end, range.end - trigger.length(), Boolean.TRUE);
+                }
+            }),
+            // All matches, as used for restyling
+            new Candidate("TextSearch.findSpans", false, false, (str, trigger, spans) ->
+                    TextSearch.findSpans(str, TextSearch.compileLiteral(trigger), trigger.length(),
+                            Boolean.TRUE, spans)),
+            // All matches, continuing from the first, as used by MatchEngine
+            new Candidate("findSpans continued", false, false, (str, trigger, spans) -> {
+                Pattern pattern = TextSearch.compileLiteral(trigger);
+                MatchRange first = TextSearch.find(str, pattern);
+                if (first != null) {
+                    TextSearch.findSpans(str, pattern, first, trigger.length(), Boolean.TRUE, spans);
+                }
+            }),
+            // Control: a scan without regex, which treats non-ASCII letters
+            // as word characters and folds non-ASCII case, so must diverge
+            new Candidate("scan (control)", false, true, MatcherFuzz::scanSpans)
+    );
+
+    // Characters to build triggers and messages from, by category
+    private static final String WORD = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_";
+    private static final String NON_WORD = " !?.,:;@#<>[]()-'\"/";
+    private static final String META = "\\.*+?^$|{}Q E";
+    private static final String CODE = "0123456789abcdefklmnorABCDEFKLMNORxz";
+    private static final String[] UNICODE = {
+            // Non-ASCII letters, which are not word characters for \w
+            "\u00e9", "\u00c9", "\u00df", "\u0131", "\u0130", "\u03a9", "\u4f60",
+            // Emoji, a combining accent, a no-break space and the Kelvin sign
+            "\ud83d\ude00", "\u0301", "\u00a0", "\u212a",
+    };
+
+    private final Random random;
+
+    private MatcherFuzz(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * The legacy restyle spans of {@code trigger} in a literal component
+     * {@code str}, from the first match of the legacy pattern as restyled by
+     * {@code restyleContents()}, or from every match.
+     * @return the spans, as consecutive start, end, inner start and styled
+     * start indices.
+     */
+    static int[] legacyRestyleSpans(String str, String trigger, boolean firstOnly) {
+        Pattern pattern = Pattern.compile("(?<!\\w)((\\W?|(\u00a7[a-z0-9])+)(?i)" +
+                Pattern.quote(trigger) + "\\W?)(?!\\w)");
+        Matcher matcher = pattern.matcher(str);
+        List<Integer> spans = new ArrayList<>();
+        while (matcher.find()) {
+            int matchFirst = matcher.start();
+            int matchLast = matcher.end();
+            int styledStart = matchFirst;
+            if (str.contains("\u00a7")) {
+                String msgTriggerFull = str.substring(matchFirst, matchLast);
+                styledStart += legacyStartIgnoreCodes(msgTriggerFull,
+                        msgTriggerFull.length() - trigger.length());
+            }
+            spans.add(matchFirst);
+            spans.add(matchLast);
+            spans.add(matchLast - trigger.length());
+            spans.add(styledStart);
+            if (firstOnly) break;
+        }
+        int[] result = new int[spans.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = spans.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * The legacy {@code startIgnoreCodes()}, verbatim.
+     */
+    private static int legacyStartIgnoreCodes(String str, int maxStart) {
+        char[] arr1 = str.toCharArray();
+        int realStart = 0;
+        for (int i = 0; i <= maxStart; i++) {
+            if ((int)arr1[i] == 167 && (((int)arr1[i+1] > 47 && (int)arr1[i+1] < 58) ||
+                    ((int)arr1[i+1] > 96 && (int)arr1[i+1] < 123))) {
+                realStart = i+2;
+            }
+        }
+        return realStart;
+    }
+
+    /**
+     * The restyle spans of a candidate, with the styled start of each span as
+     * found by the current {@code restyleContents()}.
+     * @return the spans, as consecutive start, end, inner start and styled
+     * start indices.
+     */
+    private static int[] restyleSpans(Candidate candidate, String str, String trigger) {
+        SpanList<Object> spans = new SpanList<>();
+        candidate.matcher.findSpans(str, trigger, spans);
+        boolean hasCodes = str.indexOf(FormatCodeUtil.PREFIX) != -1;
+        int[] result = new int[spans.size() * 4];
+        for (int i = 0; i < spans.size(); i++) {
+            result[i * 4] = spans.start(i);
+            result[i * 4 + 1] = spans.end(i);
+            result[i * 4 + 2] = spans.innerStart(i);
+            result[i * 4 + 3] = hasCodes
+                    ? TextSearch.startIgnoreCodes(str, spans.start(i), spans.innerStart(i))
+                    : spans.start(i);
+        }
+        return result;
+    }
+
+    /**
+     * A literal search without regex, for the control candidate. Word
+     * characters are letters, digits and {@code _} of any script, case is
+     * folded for any script, and leading format codes are not included.
+     */
+    private static void scanSpans(String str, String trigger, SpanList<Object> spans) {
+        int from = 0;
+        while (from + trigger.length() <= str.length()) {
+            int index = -1;
+            for (int i = from; i + trigger.length() <= str.length(); i++) {
+                if (str.regionMatches(true, i, trigger, 0, trigger.length())) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index == -1) return;
+            int start = index;
+            int end = index + trigger.length();
+            if (start > 0 && !isScanWord(str.charAt(start - 1))) start--;
+            if (end < str.length() && !isScanWord(str.charAt(end))) end++;
+            boolean bounded = (start == 0 || !isScanWord(str.charAt(start - 1)))
+                    && (end == str.length() || !isScanWord(str.charAt(end)));
+            if (bounded) {
+                spans.add(start, end, end - trigger.length(), Boolean.TRUE);
+                from = end;
+            }
+            else {
+                from = index + 1;
+            }
+        }
+    }
+
+    private static boolean isScanWord(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * @return {@code true} if the candidate produces the same restyle spans
+     * as the legacy restyling, or if the legacy restyling throws, as any
+     * result is then an improvement.
+     */
+    private static boolean agrees(Candidate candidate, String str, String trigger) {
+        String legacy = describeLegacy(str, trigger, candidate.firstOnly);
+        return legacy == null || describe(candidate, str, trigger).equals(legacy);
+    }
+
+    private static String describe(Candidate candidate, String str, String trigger) {
+        try {
+            return Arrays.toString(restyleSpans(candidate, str, trigger));
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    /**
+     * @return the legacy restyle spans, or {@code null} if the legacy
+     * restyling throws.
+     */
+    private static @Nullable String describeLegacy(String str, String trigger, boolean firstOnly) {
+        try {
+            return Arrays.toString(legacyRestyleSpans(str, trigger, firstOnly));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Generation
+
+    private String randomChars(int length) {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < length) {
+            int roll = random.nextInt(20);
+            if (roll < 9) {
+                builder.append(WORD.charAt(random.nextInt(WORD.length())));
+            }
+            else if (roll < 14) {
+                builder.append(NON_WORD.charAt(random.nextInt(NON_WORD.length())));
+            }
+            else if (roll < 16) {
+                builder.append('\u00a7').append(CODE.charAt(random.nextInt(CODE.length())));
+            }
+            else if (roll < 18) {
+                builder.append(META.charAt(random.nextInt(META.length())));
+            }
+            else {
+                builder.append(UNICODE[random.nextInt(UNICODE.length)]);
+            }
+        }
+        return builder.toString();
+    }
+
+    private String randomTrigger() {
+        String trigger;
+        do {
+            trigger = randomChars(1 + random.nextInt(random.nextInt(4) == 0 ? 12 : 5));
+        } while (trigger.isBlank());
+        return trigger;
+    }
+
+    /**
+     * @return a random message, usually containing one or more occurrences
+     * of {@code trigger} in a random case, surrounded by random characters.
+     */
+    private String randomMessage(String trigger) {
+        StringBuilder builder = new StringBuilder(randomChars(random.nextInt(12)));
+        int occurrences = random.nextInt(4);
+        for (int i = 0; i < occurrences; i++) {
+            builder.append(randomCase(trigger));
+            builder.append(randomChars(random.nextInt(6)));
+        }
+        return builder.toString();
+    }
+
+    private String randomCase(String str) {
+        StringBuilder builder = new StringBuilder(str.length());
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            int roll = random.nextInt(4);
+            builder.append(roll == 0 ? Character.toUpperCase(c) : roll == 1 ? Character.toLowerCase(c) : c);
+        }
+        return builder.toString();
+    }
+
+    // Minimisation
+
+    /**
+     * Greedily removes chunks of characters from the message, then from the
+     * trigger, while the candidate still disagrees with the legacy search.
+     * @return the minimised message and trigger.
+     */
+    private static String[] minimise(Candidate candidate, String str, String trigger) {
+        String[] current = {str, trigger};
+        boolean changed = true;
+        while (changed) {
+            String smaller = shrink(current[0], false, (s) -> !agrees(candidate, s, current[1]));
+            if (smaller != null) current[0] = smaller;
+            String smallerTrigger = shrink(current[1], true, (t) -> !agrees(candidate, current[0], t));
+            if (smallerTrigger != null) current[1] = smallerTrigger;
+            changed = smaller != null || smallerTrigger != null;
+        }
+        return current;
+    }
+
+    /**
+     * @param nonBlank whether the result must not be blank.
+     * @param diverges whether the divergence persists for a version of
+     *                 {@code str}.
+     * @return the smallest version of {@code str} found by removing chunks,
+     * or {@code null} if no removal kept the divergence.
+     */
+    private static String shrink(String str, boolean nonBlank, Predicate<String> diverges) {
+        String best = null;
+        for (int chunk = Math.max(1, str.length() / 2); chunk >= 1; chunk /= 2) {
+            for (int start = 0; start + chunk <= str.length(); ) {
+                String smaller = str.substring(0, start) + str.substring(start + chunk);
+                if (!(nonBlank && smaller.isBlank()) && diverges.test(smaller)) {
+                    str = smaller;
+                    best = smaller;
+                }
+                else {
+                    start++;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Reporting
+
+    private static String escape(String str) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            }
+            else if (c < 0x20 || c > 0x7e) {
+                builder.append(String.format(Locale.ROOT, "\\u%04x", (int)c));
+            }
+            else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static void report(Candidate candidate, long seed, long iteration,
+                               String str, String trigger) {
+        String[] minimal = minimise(candidate, str, trigger);
+        System.out.printf(Locale.ROOT, "Divergence in %s (seed %d, iteration %d)%n",
+                candidate.name, seed, iteration);
+        System.out.printf(Locale.ROOT, "  trigger:   %s%n", escape(minimal[1]));
+        System.out.printf(Locale.ROOT, "  message:   %s%n", escape(minimal[0]));
+        System.out.printf(Locale.ROOT, "  legacy:    %s%n",
+                describeLegacy(minimal[0], minimal[1], candidate.firstOnly));
+        System.out.printf(Locale.ROOT, "  candidate: %s%n", describe(candidate, minimal[0], minimal[1]));
+    }
+
+    // Command line
+
+    public static void main(String[] args) {
+        long iterations = 1_000_000;
+        long seed = new Random().nextLong();
+        int maxReports = 10;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--iterations" -> iterations = Long.parseLong(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--max-reports" -> maxReports = Integer.parseInt(args[++i]);
+                    default -> throw new IllegalArgumentException();
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        MatcherFuzz fuzz = new MatcherFuzz(seed);
+        long[] divergences = new long[CANDIDATES.size()];
+        int reports = 0;
+        long start = System.nanoTime();
+        long i = 0;
+        for (; i < iterations && reports < maxReports; i++) {
+            String trigger = fuzz.randomTrigger();
+            String str = fuzz.randomMessage(trigger);
+            for (int c = 0; c < CANDIDATES.size(); c++) {
+                Candidate candidate = CANDIDATES.get(c);
+                if (!agrees(candidate, str, trigger)) {
+                    // Controls only report their first divergence, as proof that
+                    // divergences are found
+                    if (candidate.control) {
+                        if (divergences[c] == 0) report(candidate, seed, i, str, trigger);
+                    }
+                    else if (reports < maxReports) {
+                        report(candidate, seed, i, str, trigger);
+                        reports++;
+                    }
+                    divergences[c]++;
+                }
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "Checked %d messages with seed %d in %.1f s%n",
+                i, seed, (System.nanoTime() - start) / 1e9);
+        boolean failed = false;
+        for (int c = 0; c < CANDIDATES.size(); c++) {
+            Candidate candidate = CANDIDATES.get(c);
+            System.out.printf(Locale.ROOT, "  %-22s %d divergences%s%n", candidate.name, divergences[c],
+                    candidate.control && divergences[c] == 0 ? " (expected some)" : "");
+            failed |= candidate.control ? divergences[c] == 0 : divergences[c] > 0;
+        }
+        System.exit(failed ? 1 : 0);
+    }
+}
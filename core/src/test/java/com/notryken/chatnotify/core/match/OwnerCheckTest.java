@@ -0,0 +1,67 @@
+package com.notryken.chatnotify.core.match;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OwnerCheckTest {
+    private static final List<TestTrigger> USER = List.of(TestTrigger.literal("steve"));
+
+    private static class Sent implements OwnerCheck.SentMessages {
+        private final List<String> messages;
+
+        private Sent(String... messages) {
+            this.messages = new ArrayList<>(List.of(messages));
+        }
+
+        @Override
+        public int size() {
+            return messages.size();
+        }
+
+        @Override
+        public String get(int index) {
+            return messages.get(index);
+        }
+
+        @Override
+        public void remove(int index) {
+            messages.remove(index);
+        }
+    }
+
+    @Test
+    void removesUserNameFromOwnMessage() {
+        Sent sent = new Sent("nice try", "hello there");
+
+        assertEquals(" Hello there", OwnerCheck.check("<Steve> Hello there", sent, USER, true));
+        // The matching sent message is used up
+        assertEquals(List.of("nice try"), sent.messages);
+    }
+
+    @Test
+    void dropsOwnMessageUnlessKept() {
+        Sent sent = new Sent("hello there");
+
+        assertNull(OwnerCheck.check("<Steve> hello there", sent, USER, false));
+        assertEquals(0, sent.size());
+    }
+
+    @Test
+    void ignoresMessagesOfOtherPlayers() {
+        Sent sent = new Sent("hello there");
+
+        assertEquals("<Alex> hello there", OwnerCheck.check("<Alex> hello there", sent, USER, true));
+        // Without a prefix, the sender is not known
+        assertEquals("hello there", OwnerCheck.check("hello there", sent, USER, true));
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void unchangedWithoutSentMessages() {
+        assertEquals("<Steve> hi", OwnerCheck.check("<Steve> hi", new Sent(), USER, false));
+    }
+}
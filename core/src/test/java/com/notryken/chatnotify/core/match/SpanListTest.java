@@ -0,0 +1,83 @@
+package com.notryken.chatnotify.core.match;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpanListTest {
+    @Test
+    void keepsSpansSorted() {
+        SpanList<String> spans = new SpanList<>();
+        assertTrue(spans.add(10, 12, 10, "b"));
+        assertTrue(spans.add(0, 3, 1, "a"));
+        assertTrue(spans.add(20, 25, 21, "c"));
+        assertTrue(spans.add(5, 7, 5, "d"));
+
+        assertEquals(4, spans.size());
+        int[] starts = {0, 5, 10, 20};
+        String[] styles = {"a", "d", "b", "c"};
+        for (int i = 0; i < spans.size(); i++) {
+            assertEquals(starts[i], spans.start(i));
+            assertEquals(styles[i], spans.style(i));
+        }
+        assertEquals(1, spans.innerStart(0));
+        assertEquals(25, spans.end(3));
+    }
+
+    @Test
+    void rejectsOverlapsInFavourOfEarlierSpans() {
+        SpanList<String> spans = new SpanList<>();
+        assertTrue(spans.add(5, 10, 5, "first"));
+
+        assertFalse(spans.add(8, 12, 8, "overlaps end"));
+        assertFalse(spans.add(2, 6, 2, "overlaps start"));
+        assertFalse(spans.add(6, 8, 6, "inside"));
+        assertFalse(spans.add(0, 20, 0, "around"));
+        // Touching spans do not overlap
+        assertTrue(spans.add(10, 12, 10, "after"));
+        assertTrue(spans.add(3, 5, 3, "before"));
+
+        assertEquals(3, spans.size());
+        assertEquals("before", spans.style(0));
+        assertEquals("first", spans.style(1));
+        assertEquals("after", spans.style(2));
+    }
+
+    @Test
+    void rejectsEmptySpans() {
+        SpanList<String> spans = new SpanList<>();
+        assertFalse(spans.add(3, 3, 3, "empty"));
+        assertFalse(spans.add(4, 3, 3, "reversed"));
+        assertTrue(spans.isEmpty());
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        SpanList<String> spans = new SpanList<>();
+        // Added in reverse, so every span is inserted before the others
+        for (int i = 99; i >= 0; i--) {
+            assertTrue(spans.add(i * 2, i * 2 + 1, i * 2, "s" + i));
+        }
+        assertEquals(100, spans.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i * 2, spans.start(i));
+            assertEquals(i * 2 + 1, spans.end(i));
+            assertEquals("s" + i, spans.style(i));
+        }
+    }
+
+    @Test
+    void clearAllowsReuse() {
+        SpanList<String> spans = new SpanList<>();
+        spans.add(0, 5, 0, "a");
+        spans.add(6, 9, 6, "b");
+        spans.clear();
+
+        assertTrue(spans.isEmpty());
+        assertEquals(0, spans.size());
+        // The cleared spans no longer reject overlapping spans
+        assertTrue(spans.add(2, 7, 2, "c"));
+        assertEquals(1, spans.size());
+        assertEquals("c", spans.style(0));
+    }
+}
@@ -0,0 +1,97 @@
+package com.notryken.chatnotify.core.match;
+
+import com.notryken.chatnotify.core.action.ResponseTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@code NotificationSpec} with a {@code String} style, for tests. An empty
+ * style does not change anything when applied.
+ */
+class TestNotification implements NotificationSpec<TestTrigger,String> {
+    boolean enabled = true;
+    boolean editing = false;
+    boolean critical = false;
+    boolean regexAllowed = false;
+    boolean exclusionEnabled = false;
+    boolean responseEnabled = false;
+    final String style;
+    final List<TestTrigger> triggers;
+    final List<TestTrigger> exclusionTriggers = new ArrayList<>();
+
+    private TestNotification(String style, List<TestTrigger> triggers) {
+        this.style = style;
+        this.triggers = triggers;
+    }
+
+    static TestNotification of(String style, TestTrigger... triggers) {
+        return new TestNotification(style, new ArrayList<>(List.of(triggers)));
+    }
+
+    TestNotification excluding(TestTrigger... triggers) {
+        exclusionEnabled = true;
+        exclusionTriggers.addAll(List.of(triggers));
+        return this;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isEditing() {
+        return editing;
+    }
+
+    @Override
+    public boolean isCritical() {
+        return critical;
+    }
+
+    @Override
+    public boolean isRegexAllowed() {
+        return regexAllowed;
+    }
+
+    @Override
+    public boolean isExclusionEnabled() {
+        return exclusionEnabled;
+    }
+
+    @Override
+    public boolean isResponseEnabled() {
+        return responseEnabled;
+    }
+
+    @Override
+    public String getStyle() {
+        return style;
+    }
+
+    @Override
+    public List<TestTrigger> getTriggers() {
+        return triggers;
+    }
+
+    @Override
+    public List<TestTrigger> getExclusionTriggers() {
+        return exclusionTriggers;
+    }
+
+    @Override
+    public List<ResponseTemplate> getResponseTemplates() {
+        return List.of();
+    }
+
+    @Override
+    public int getResponseDelay() {
+        return 0;
+    }
+
+    @Override
+    public int getResponseStagger() {
+        return 0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.notryken.chatnotify.core.match;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A {@code TriggerSpec} with a {@code String} style, for tests.
+ */
+class TestTrigger implements TriggerSpec<String> {
+    private static final Pattern GROUP_NAME = Pattern.compile("\\(\\?<([a-zA-Z][a-zA-Z0-9]*)>");
+
+    final String string;
+    final boolean key;
+    final boolean regex;
+    boolean enabled = true;
+    final Map<String,String> groupStyles = new LinkedHashMap<>();
+    int profileCount = 0;
+
+    private TestTrigger(String string, boolean key, boolean regex) {
+        this.string = string;
+        this.key = key;
+        this.regex = regex;
+    }
+
+    static TestTrigger literal(String string) {
+        return new TestTrigger(string, false, false);
+    }
+
+    static TestTrigger regex(String string) {
+        return new TestTrigger(string, false, true);
+    }
+
+    static TestTrigger key(String string) {
+        return new TestTrigger(string, true, false);
+    }
+
+    TestTrigger withGroupStyle(String group, String style) {
+        groupStyles.put(group, style);
+        return this;
+    }
+
+    @Override
+    public String getString() {
+        return string;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isKey() {
+        return key;
+    }
+
+    @Override
+    public boolean isRegex() {
+        return regex;
+    }
+
+    @Override
+    public @Nullable Pattern getPattern(boolean asRegex) {
+        if (!asRegex) return TextSearch.compileLiteral(string);
+        try {
+            return Pattern.compile(string);
+        } catch (PatternSyntaxException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public List<String> getGroupNames() {
+        List<String> names = new ArrayList<>();
+        Matcher matcher = GROUP_NAME.matcher(string);
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        return names;
+    }
+
+    @Override
+    public Map<String,String> getGroupStyles() {
+        return groupStyles;
+    }
+
+    @Override
+    public void recordProfile(long nanos) {
+        profileCount++;
+    }
+}
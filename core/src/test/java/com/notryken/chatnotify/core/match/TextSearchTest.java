@@ -0,0 +1,209 @@
+package com.notryken.chatnotify.core.match;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextSearchTest {
+    @Test
+    void literalMatchesWholeWordsIgnoringCase() {
+        Pattern pattern = TextSearch.compileLiteral("steve");
+
+        assertNotNull(TextSearch.find("hello steve", pattern));
+        assertNotNull(TextSearch.find("Hello STEVE!", pattern));
+        assertNull(TextSearch.find("hello steven", pattern));
+        assertNull(TextSearch.find("hello xsteve", pattern));
+        assertNull(TextSearch.find("hello", pattern));
+    }
+
+    @Test
+    void literalMatchIncludesSurroundingNonWordCharacters() {
+        Pattern pattern = TextSearch.compileLiteral("steve");
+
+        MatchRange range = TextSearch.find("<steve> hi", pattern);
+        assertNotNull(range);
+        assertEquals(0, range.start);
+        assertEquals(7, range.end);
+    }
+
+    @Test
+    void literalMatchIncludesLeadingFormatCodes() {
+        Pattern pattern = TextSearch.compileLiteral("steve");
+        String str = "hi \u00a7a\u00a7lsteve";
+
+        MatchRange range = TextSearch.find(str, pattern);
+        assertNotNull(range);
+        assertEquals(3, range.start);
+        assertEquals(str.length(), range.end);
+        assertEquals(7, TextSearch.startIgnoreCodes(str, range.start, range.end - 5));
+    }
+
+    @Test
+    void literalQuotesTriggerString() {
+        Pattern pattern = TextSearch.compileLiteral("a.b");
+
+        assertNotNull(TextSearch.find("see a.b here", pattern));
+        assertNull(TextSearch.find("see axb here", pattern));
+    }
+
+    @Test
+    void findWithoutPatternFindsNothing() {
+        assertNull(TextSearch.find("anything", null));
+    }
+
+    @Test
+    void findRegexPositionsMatcherAtFirstMatch() {
+        Matcher matcher = TextSearch.findRegex("a1 b22 c333", TestTrigger.regex("[a-z](\\d+)"));
+        assertNotNull(matcher);
+        assertEquals("a1", matcher.group());
+        assertEquals("1", matcher.group(1));
+
+        assertNull(TextSearch.findRegex("abc", TestTrigger.regex("\\d")));
+        // Not a valid regex
+        assertNull(TextSearch.findRegex("a(b", TestTrigger.regex("a(b")));
+    }
+
+    @Test
+    void findSpansAddsEveryMatch() {
+        Pattern pattern = TextSearch.compileLiteral("w1");
+        SpanList<String> spans = new SpanList<>();
+        String str = "w1 says w1, w1!";
+
+        TextSearch.findSpans(str, pattern, 2, "s", spans);
+
+        assertEquals(3, spans.size());
+        // A following word character prevents taking the trailing space
+        assertEquals(0, spans.start(0));
+        assertEquals(2, spans.end(0));
+        assertEquals(0, spans.innerStart(0));
+        // "w1," includes a trailing character, so the inner start is offset
+        assertEquals(8, spans.start(1));
+        assertEquals(11, spans.end(1));
+        assertEquals(9, spans.innerStart(1));
+        // " w1!" includes a leading and a trailing character
+        assertEquals(11, spans.start(2));
+        assertEquals(str.length(), spans.end(2));
+        assertEquals(13, spans.innerStart(2));
+        assertEquals("s", spans.style(2));
+    }
+
+    @Test
+    void findSpansContinuedFromFirstMatchFindsTheSame() {
+        Pattern pattern = TextSearch.compileLiteral("w1");
+        String[] strs = {
+                "w1",
+                "w1 w1",
+                "w1w1 w1",
+                "xw1 w1 w1x w1",
+                "\u00a7aw1\u00a7bw1 w1",
+                "w1--w1 w1.",
+        };
+        for (String str : strs) {
+            SpanList<String> expected = new SpanList<>();
+            TextSearch.findSpans(str, pattern, 2, "s", expected);
+
+            SpanList<String> actual = new SpanList<>();
+            MatchRange first = TextSearch.find(str, pattern);
+            assertNotNull(first, str);
+            TextSearch.findSpans(str, pattern, first, 2, "s", actual);
+
+            assertEquals(expected.size(), actual.size(), str);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.start(i), actual.start(i), str);
+                assertEquals(expected.end(i), actual.end(i), str);
+                assertEquals(expected.innerStart(i), actual.innerStart(i), str);
+            }
+        }
+    }
+
+    @Test
+    void findGroupSpansAddsEnabledStyledGroupsOfEveryMatch() {
+        Pattern pattern = Pattern.compile("(?<name>[a-z]+)=(?<value>\\d+)");
+        Matcher matcher = pattern.matcher("a=1 bc=22");
+        assertTrue(matcher.find());
+        Map<String,String> groupStyles = new LinkedHashMap<>();
+        groupStyles.put("name", "n");
+        groupStyles.put("value", "");
+        groupStyles.put("missing", "m");
+        SpanList<String> spans = new SpanList<>();
+
+        TextSearch.findGroupSpans(matcher, groupStyles, style -> !style.isEmpty(), spans);
+
+        assertEquals(2, spans.size());
+        assertEquals(0, spans.start(0));
+        assertEquals(1, spans.end(0));
+        assertEquals(4, spans.start(1));
+        assertEquals(6, spans.end(1));
+        assertEquals(4, spans.innerStart(1));
+        assertEquals("n", spans.style(1));
+    }
+
+    @Test
+    void findGroupSpansSkipsGroupsNotParticipating() {
+        Pattern pattern = Pattern.compile("x(?<opt>y)?");
+        Matcher matcher = pattern.matcher("x xy");
+        assertTrue(matcher.find());
+        SpanList<String> spans = new SpanList<>();
+
+        TextSearch.findGroupSpans(matcher, Map.of("opt", "o"), style -> true, spans);
+
+        assertEquals(1, spans.size());
+        assertEquals(3, spans.start(0));
+        assertEquals(4, spans.end(0));
+    }
+
+    @Test
+    void addFlatSpansClipsToRange() {
+        SpanList<String> flat = new SpanList<>();
+        flat.add(0, 4, 1, "a");
+        flat.add(6, 12, 8, "b");
+        flat.add(14, 16, 14, "c");
+        flat.add(20, 22, 20, "d");
+        SpanList<String> spans = new SpanList<>();
+
+        // The range [2, 15)
+        TextSearch.addFlatSpans(flat, 2, 13, spans);
+
+        assertEquals(3, spans.size());
+        // Clipped at the start, so the inner start is clamped to it
+        assertEquals(0, spans.start(0));
+        assertEquals(2, spans.end(0));
+        assertEquals(0, spans.innerStart(0));
+        assertEquals(4, spans.start(1));
+        assertEquals(10, spans.end(1));
+        assertEquals(6, spans.innerStart(1));
+        // Clipped at the end
+        assertEquals(12, spans.start(2));
+        assertEquals(13, spans.end(2));
+        assertEquals("c", spans.style(2));
+    }
+
+    @Test
+    void addFlatSpansClampsInnerStartToEnd() {
+        SpanList<String> flat = new SpanList<>();
+        flat.add(0, 10, 8, "a");
+        SpanList<String> spans = new SpanList<>();
+
+        TextSearch.addFlatSpans(flat, 0, 5, spans);
+
+        assertEquals(1, spans.size());
+        assertEquals(5, spans.end(0));
+        assertEquals(5, spans.innerStart(0));
+    }
+
+    @Test
+    void startIgnoreCodesFindsLastCodeInRange() {
+        String str = "\u00a7a\u00a7lname";
+
+        assertEquals(4, TextSearch.startIgnoreCodes(str, 0, 4));
+        assertEquals(2, TextSearch.startIgnoreCodes(str, 0, 1));
+        assertEquals(0, TextSearch.startIgnoreCodes("name", 0, 2));
+        // Not a valid code
+        assertEquals(0, TextSearch.startIgnoreCodes("\u00a7Zname", 0, 2));
+    }
+}
@@ -0,0 +1,84 @@
+package com.notryken.chatnotify.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import static com.notryken.chatnotify.core.util.FormatCodeUtil.NONE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormatCodeUtilTest {
+    @Test
+    void colorClearsFormats() {
+        int state = FormatCodeUtil.apply(NONE, 'l');
+        state = FormatCodeUtil.apply(state, 'o');
+        assertEquals("\u00a7l\u00a7o", FormatCodeUtil.toCodes(state));
+
+        state = FormatCodeUtil.apply(state, 'c');
+        assertEquals("\u00a7c", FormatCodeUtil.toCodes(state));
+    }
+
+    @Test
+    void formatsAddToColor() {
+        int state = FormatCodeUtil.apply(NONE, 'a');
+        state = FormatCodeUtil.apply(state, 'n');
+        state = FormatCodeUtil.apply(state, 'k');
+        // Canonical order: color first, then formats in code order
+        assertEquals("\u00a7a\u00a7k\u00a7n", FormatCodeUtil.toCodes(state));
+    }
+
+    @Test
+    void resetClearsEverything() {
+        int state = FormatCodeUtil.apply(FormatCodeUtil.apply(NONE, 'e'), 'm');
+        assertEquals(NONE, FormatCodeUtil.apply(state, 'r'));
+        assertEquals(NONE, FormatCodeUtil.apply(state, 'R'));
+        assertEquals("", FormatCodeUtil.toCodes(NONE));
+    }
+
+    @Test
+    void acceptsUppercaseAndIgnoresInvalidCodes() {
+        assertEquals(FormatCodeUtil.apply(NONE, 'b'), FormatCodeUtil.apply(NONE, 'B'));
+        int state = FormatCodeUtil.apply(NONE, '4');
+        assertEquals(state, FormatCodeUtil.apply(state, 'z'));
+        assertEquals(state, FormatCodeUtil.apply(state, ' '));
+        assertEquals(state, FormatCodeUtil.apply(state, '\u00e9'));
+    }
+
+    @Test
+    void scanComputesStateAtEndOfRange() {
+        String str = "\u00a7ahi \u00a7lthere\u00a7r!";
+
+        assertEquals(NONE, FormatCodeUtil.scan(str, 0, 1));
+        assertEquals("\u00a7a", FormatCodeUtil.toCodes(FormatCodeUtil.scan(str, 0, 2)));
+        assertEquals("\u00a7a\u00a7l", FormatCodeUtil.toCodes(FormatCodeUtil.scan(str, 0, 7)));
+        assertEquals(NONE, FormatCodeUtil.scan(str, 0, str.length()));
+        // Starting after the color code
+        assertEquals("\u00a7l", FormatCodeUtil.toCodes(FormatCodeUtil.scan(str, 2, 7)));
+    }
+
+    @Test
+    void continuedScanMatchesFullScan() {
+        String str = "a\u00a7bb\u00a7oc\u00a76d\u00a7ke";
+        // Every index that does not split a code
+        int[] ends = {1, 3, 4, 6, 7, 9, 10, 12, 13};
+        int state = NONE;
+        int prev = 0;
+        for (int end : ends) {
+            state = FormatCodeUtil.scan(state, str, prev, end);
+            assertEquals(FormatCodeUtil.scan(str, 0, end), state);
+            prev = end;
+        }
+        assertEquals("\u00a76\u00a7k", FormatCodeUtil.toCodes(state));
+    }
+
+    @Test
+    void isCodeAtAcceptsLowercaseLettersAndDigits() {
+        String str = "\u00a7a\u00a7Z\u00a75\u00a7";
+
+        assertTrue(FormatCodeUtil.isCodeAt(str, 0));
+        assertFalse(FormatCodeUtil.isCodeAt(str, 1));
+        assertFalse(FormatCodeUtil.isCodeAt(str, 2));
+        assertTrue(FormatCodeUtil.isCodeAt(str, 4));
+        // No character follows the last prefix
+        assertFalse(FormatCodeUtil.isCodeAt(str, 6));
+        assertFalse(FormatCodeUtil.isCodeAt(str, 7));
+    }
+}
@@ -0,0 +1,89 @@
+package com.notryken.chatnotify.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogHistogramTest {
+    @Test
+    void emptyReportsZero() {
+        LogHistogram histogram = new LogHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    void tracksCountMeanAndMax() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(10);
+        histogram.record(20);
+        histogram.record(60);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(60, histogram.getMax());
+        assertEquals(30, histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LogHistogram histogram = new LogHistogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(5, histogram.getPercentile(50));
+        assertEquals(9, histogram.getPercentile(90));
+        assertEquals(10, histogram.getPercentile(100));
+    }
+
+    @Test
+    void percentilesAreWithinRelativeError() {
+        LogHistogram histogram = new LogHistogram();
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.record(i * 37L);
+        }
+
+        double[] percentiles = {1, 25, 50, 90, 99, 99.9};
+        for (double p : percentiles) {
+            long exact = (long) Math.ceil(100_000 * p / 100) * 37;
+            long reported = histogram.getPercentile(p);
+            assertTrue(reported >= exact, "p" + p + " " + reported + " < " + exact);
+            assertTrue(reported <= exact + exact / 16, "p" + p + " " + reported + " > " + exact);
+        }
+        // Limited to the maximum recorded value
+        assertEquals(3_700_000, histogram.getPercentile(100));
+    }
+
+    @Test
+    void clampsNegativeAndHugeValues() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(100));
+
+        histogram.record(Long.MAX_VALUE / 4);
+        assertEquals(Long.MAX_VALUE / 4, histogram.getMax());
+        // Reported as the top of the bucketed range
+        assertEquals((1L << 40) - 1, histogram.getPercentile(100));
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    void resetDiscardsValues() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(1000);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(99));
+
+        histogram.record(3);
+        assertEquals(3, histogram.getPercentile(99));
+    }
+}
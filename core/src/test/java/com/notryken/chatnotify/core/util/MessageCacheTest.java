@@ -0,0 +1,97 @@
+package com.notryken.chatnotify.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageCacheTest {
+    @Test
+    void disabledWithoutCapacity() {
+        MessageCache<String> cache = new MessageCache<>();
+
+        assertNull(cache.get(1, 0, "msg", null));
+        cache.put(1, "msg", null, "value");
+        assertNull(cache.get(1, 0, "msg", null));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits() + cache.getMisses());
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        MessageCache<String> cache = new MessageCache<>();
+
+        assertNull(cache.get(1, 4, "msg", null));
+        cache.put(1, "msg", null, "value");
+        assertEquals("value", cache.get(1, 4, "msg", null));
+        assertEquals("value", cache.get(1, 4, "msg", null));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2.0 / 3, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void keysByMessageAndTranslationKey() {
+        MessageCache<String> cache = new MessageCache<>();
+        cache.get(1, 4, "msg", null);
+        cache.put(1, "msg", null, "none");
+        cache.put(1, "msg", "chat.type.text", "text");
+
+        assertEquals("none", cache.get(1, 4, "msg", null));
+        assertEquals("text", cache.get(1, 4, "msg", "chat.type.text"));
+        assertNull(cache.get(1, 4, "msg", "chat.type.emote"));
+        assertNull(cache.get(1, 4, "other", null));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        MessageCache<String> cache = new MessageCache<>();
+        cache.get(1, 2, "a", null);
+        cache.put(1, "a", null, "A");
+        cache.put(1, "b", null, "B");
+        // Using a makes b the eldest
+        assertEquals("A", cache.get(1, 2, "a", null));
+        cache.put(1, "c", null, "C");
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get(1, 2, "b", null));
+        assertEquals("A", cache.get(1, 2, "a", null));
+        assertEquals("C", cache.get(1, 2, "c", null));
+    }
+
+    @Test
+    void newGenerationClearsEntries() {
+        MessageCache<String> cache = new MessageCache<>();
+        cache.get(1, 4, "msg", null);
+        cache.put(1, "msg", null, "old");
+
+        assertNull(cache.get(2, 4, "msg", null));
+        assertEquals(0, cache.size());
+        // Values of the previous generation are not stored
+        cache.put(1, "msg", null, "old");
+        assertNull(cache.get(2, 4, "msg", null));
+        cache.put(2, "msg", null, "new");
+        assertEquals("new", cache.get(2, 4, "msg", null));
+    }
+
+    @Test
+    void olderGenerationIsIgnored() {
+        MessageCache<String> cache = new MessageCache<>();
+        cache.get(2, 4, "msg", null);
+        cache.put(2, "msg", null, "value");
+
+        assertNull(cache.get(1, 4, "msg", null));
+        // The entries of the current generation are kept
+        assertEquals("value", cache.get(2, 4, "msg", null));
+    }
+
+    @Test
+    void newCapacityClearsEntries() {
+        MessageCache<String> cache = new MessageCache<>();
+        cache.get(1, 4, "msg", null);
+        cache.put(1, "msg", null, "value");
+
+        assertNull(cache.get(1, 8, "msg", null));
+        assertEquals(0, cache.size());
+    }
+}
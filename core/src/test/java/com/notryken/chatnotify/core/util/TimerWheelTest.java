@@ -0,0 +1,98 @@
+package com.notryken.chatnotify.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+    /**
+     * Advances {@code wheel} by {@code ticks}, recording the tick on which
+     * each item expired.
+     */
+    private static List<String> advance(TimerWheel<String> wheel, int ticks) {
+        List<String> expired = new ArrayList<>();
+        for (int t = 1; t <= ticks; t++) {
+            int tick = t;
+            wheel.tick(item -> expired.add(tick + ":" + item));
+        }
+        return expired;
+    }
+
+    @Test
+    void expiresAfterDelay() {
+        TimerWheel<String> wheel = new TimerWheel<>(8);
+        wheel.schedule(3, "a");
+        wheel.schedule(1, "b");
+        wheel.schedule(5, "c");
+
+        assertEquals(3, wheel.size());
+        assertEquals(List.of("1:b", "3:a", "5:c"), advance(wheel, 6));
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void expiresInScheduledOrderWithinTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(8);
+        wheel.schedule(2, "a");
+        wheel.schedule(2, "b");
+        wheel.schedule(10, "x");
+        wheel.schedule(2, "c");
+
+        assertEquals(List.of("2:a", "2:b", "2:c"), advance(wheel, 2));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void expiresAfterMoreThanOneRevolution() {
+        TimerWheel<String> wheel = new TimerWheel<>(4);
+        wheel.schedule(4, "a");
+        wheel.schedule(5, "b");
+        wheel.schedule(13, "c");
+        wheel.schedule(1, "d");
+
+        assertEquals(List.of("1:d", "4:a", "5:b", "13:c"), advance(wheel, 20));
+    }
+
+    @Test
+    void schedulesRelativeToCurrentTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(4);
+        advance(wheel, 3);
+        wheel.schedule(2, "a");
+        wheel.schedule(6, "b");
+
+        assertEquals(List.of("2:a", "6:b"), advance(wheel, 8));
+    }
+
+    @Test
+    void clampsDelayToOneTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(4);
+        wheel.schedule(0, "a");
+        wheel.schedule(-5, "b");
+
+        assertEquals(List.of("1:a", "1:b"), advance(wheel, 1));
+    }
+
+    @Test
+    void roundsSlotCountUpToPowerOfTwo() {
+        // 5 slots become 8, so a delay of 8 is a single revolution
+        TimerWheel<String> wheel = new TimerWheel<>(5);
+        wheel.schedule(8, "a");
+        wheel.schedule(9, "b");
+
+        assertEquals(List.of("8:a", "9:b"), advance(wheel, 10));
+    }
+
+    @Test
+    void clearCancelsEverything() {
+        TimerWheel<String> wheel = new TimerWheel<>(4);
+        wheel.schedule(1, "a");
+        wheel.schedule(7, "b");
+        wheel.clear();
+
+        assertTrue(wheel.isEmpty());
+        assertEquals(List.of(), advance(wheel, 10));
+    }
+}